@@ -0,0 +1,45 @@
+package com.yaser.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.yaser.Card;
+
+/**
+ * Builds card lists from a fixed seed so that every run benchmarks the same
+ * cards
+ * 
+ * @author yaser
+ *
+ */
+final class BenchmarkDecks {
+	/**
+	 * Seed of all generated card lists
+	 */
+	static final long SEED = 20180401L;
+	/**
+	 * Highest mana cost of a card in the default deck
+	 */
+	private static final int MAX_COST = 8;
+
+	private BenchmarkDecks() {
+	}
+
+	/**
+	 * Returns the given number of cards with mana costs between 0 and 8
+	 * 
+	 * @param size
+	 * @param salt
+	 *            different salts give different lists for the same size
+	 * @return
+	 */
+	static List<Card> cards(int size, long salt) {
+		Random random = new Random(SEED + salt);
+		List<Card> cards = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			cards.add(new Card(random.nextInt(MAX_COST + 1)));
+		}
+		return cards;
+	}
+}
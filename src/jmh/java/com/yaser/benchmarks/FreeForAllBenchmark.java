@@ -0,0 +1,75 @@
+package com.yaser.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.freeforall.FreeForAllGame;
+import com.yaser.freeforall.Targeting;
+
+/**
+ * Throughput of free-for-all games by table size. The turns counter gives
+ * turns per second, which should not drop on bigger tables.
+ *
+ * @author yaser
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FreeForAllBenchmark {
+
+	@Param({ "2", "8", "64" })
+	private int numberOfPlayers;
+
+	@Param({ "LOWEST_HEALTH", "NEXT_PLAYER" })
+	private Targeting targeting;
+
+	private long gameIndex;
+
+	/**
+	 * Turns played by the measured games
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Turns {
+		public long turns;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			turns = 0;
+		}
+	}
+
+	@Benchmark
+	public Player play(Turns turns) {
+		List<Player> players = new ArrayList<>(numberOfPlayers);
+		for (int seat = 0; seat < numberOfPlayers; seat++) {
+			players.add(new Player("Player " + (seat + 1)));
+		}
+		FreeForAllGame game = new FreeForAllGame(players, GameRandom.gameSeed(BenchmarkDecks.SEED, gameIndex++));
+		game.setTargeting(targeting);
+		Player winner = game.play();
+		turns.turns += game.getTurnCount();
+		return winner;
+	}
+}
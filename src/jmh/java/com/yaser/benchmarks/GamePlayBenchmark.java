@@ -0,0 +1,62 @@
+package com.yaser.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yaser.Card;
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+/**
+ * Throughput of complete games, from creating the players to the winner.
+ * Games are seeded from a fixed master seed, so every run plays the same
+ * sequence of games.
+ * 
+ * @author yaser
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GamePlayBenchmark {
+
+	@Param({ "10", "20", "40" })
+	private int deckSize;
+
+	private List<Card> deck;
+	private long gameIndex;
+
+	@Setup(Level.Trial)
+	public void createDeck() {
+		deck = BenchmarkDecks.cards(deckSize, 3);
+	}
+
+	@Benchmark
+	public Player play() {
+		Player player1 = new Player("Player 1");
+		Player player2 = new Player("Player 2");
+		player1.setPlayerDeck(new ArrayList<>(deck));
+		player2.setPlayerDeck(new ArrayList<>(deck));
+		GamePlay game = new GamePlay(player1, player2, GameRandom.gameSeed(BenchmarkDecks.SEED, gameIndex++));
+		game.play();
+		return game.getWinner();
+	}
+}
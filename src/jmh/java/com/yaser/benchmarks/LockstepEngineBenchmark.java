@@ -0,0 +1,52 @@
+package com.yaser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yaser.simulation.LockstepEngine;
+
+/**
+ * Throughput of the struct of arrays engine, in games per second, to be
+ * compared with {@link GamePlayBenchmark}
+ * 
+ * @author yaser
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LockstepEngineBenchmark {
+	private static final int BATCH = 4096;
+
+	private LockstepEngine engine;
+	private long firstGameIndex;
+
+	@Setup(Level.Trial)
+	public void createEngine() {
+		engine = new LockstepEngine(BATCH);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public int playBatch() {
+		engine.start(BenchmarkDecks.SEED, firstGameIndex, BATCH);
+		firstGameIndex += BATCH;
+		engine.playAll();
+		return engine.getWinnerSeat(0);
+	}
+}
@@ -0,0 +1,41 @@
+package com.yaser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.MatchArena;
+
+/**
+ * Throughput of games played back to back in one {@link MatchArena}, to be
+ * compared with {@link GamePlayBenchmark}. The allocation rate of the gc
+ * profiler should be 0 bytes per game.
+ *
+ * @author yaser
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchArenaBenchmark {
+	private final MatchArena arena = new MatchArena();
+	private long gameIndex;
+
+	@Benchmark
+	public Player play() {
+		return arena.play(GameRandom.gameSeed(BenchmarkDecks.SEED, gameIndex++)).getWinner();
+	}
+}
@@ -0,0 +1,73 @@
+package com.yaser.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yaser.GameRandom;
+import com.yaser.store.Match;
+import com.yaser.store.MatchStore;
+
+/**
+ * Turns per second over a store of live matches. Every operation plays one
+ * turn of the next match, a finished match is released and replaced by a new
+ * one. Heap use and the allocation rate of the gc profiler should be the
+ * same for any number of live matches.
+ *
+ * @author yaser
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=2g")
+@State(Scope.Thread)
+public class MatchStoreBenchmark {
+
+	@Param({ "10000", "1000000", "10000000" })
+	private int liveMatches;
+
+	private MatchStore store;
+	private Match match;
+	private int next;
+	private long gameIndex;
+
+	@Setup(Level.Trial)
+	public void createMatches() throws IOException {
+		store = new MatchStore(liveMatches);
+		match = store.flyweight();
+		for (int i = 0; i < liveMatches; i++) {
+			store.create(GameRandom.gameSeed(BenchmarkDecks.SEED, gameIndex++));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void close() throws IOException {
+		store.close();
+	}
+
+	@Benchmark
+	public int playTurn() throws IOException {
+		int id = next;
+		next = next + 1 == liveMatches ? 0 : next + 1;
+		if (!match.wrap(id).advance()) {
+			store.release(id);
+			store.create(GameRandom.gameSeed(BenchmarkDecks.SEED, gameIndex++));
+		}
+		return match.getTurnCount();
+	}
+}
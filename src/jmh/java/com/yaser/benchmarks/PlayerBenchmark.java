@@ -0,0 +1,126 @@
+package com.yaser.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.yaser.Card;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+/**
+ * Single call latency of the {@link Player} methods used in every turn.
+ * Methods which only read the player share a {@link Hand} set up once per
+ * trial. Methods which change the player reset it in place first, which
+ * creates no object; {@link #reset(Turn)} measures the reset alone and is
+ * subtracted from them.
+ *
+ * @author yaser
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+	/**
+	 * Mana used for the plays, enough to play any card in the default deck
+	 */
+	private static final int MANA = 9;
+
+	/**
+	 * Player with a deck and a hand which are not changed
+	 */
+	@State(Scope.Thread)
+	public static class Hand {
+		@Param({ "0", "10", "20" })
+		private int deckSize;
+
+		@Param({ "1", "3", "6" })
+		private int handSize;
+
+		protected Player player;
+
+		@Setup(Level.Trial)
+		public void createPlayer() {
+			List<Card> deck = BenchmarkDecks.cards(deckSize, 1);
+			List<Card> hand = BenchmarkDecks.cards(handSize, 2);
+			player = new Player("Player 1", new GameRandom(BenchmarkDecks.SEED));
+			player.setPlayerDeck(deck);
+			player.setPlayerHand(hand);
+			player.setMana(MANA);
+		}
+	}
+
+	/**
+	 * Player and opponent which are put back to the start of the turn before
+	 * every call
+	 */
+	@State(Scope.Thread)
+	public static class Turn extends Hand {
+		private Player opponent;
+		private long handHistogram;
+
+		@Setup(Level.Trial)
+		public void createOpponent() {
+			opponent = new Player("Player 2");
+			handHistogram = player.getHandHistogram();
+		}
+
+		void reset() {
+			player.getDeck().reset();
+			player.setHandHistogram(handHistogram);
+			player.setMana(MANA);
+			player.setHealth(Player.DEFAULT_HEALTH);
+			opponent.setHealth(Player.DEFAULT_HEALTH);
+		}
+	}
+
+	@Benchmark
+	public Player reset(Turn turn) {
+		turn.reset();
+		return turn.player;
+	}
+
+	@Benchmark
+	public Player pickOneCard(Turn turn) {
+		turn.reset();
+		turn.player.pickOneCard();
+		return turn.player;
+	}
+
+	@Benchmark
+	public Player playTurn(Turn turn) {
+		turn.reset();
+		turn.player.playTurn(turn.opponent);
+		return turn.opponent;
+	}
+
+	@Benchmark
+	public Card getMaxDamageCardByMana(Hand hand) {
+		return hand.player.getMaxDamageCardByMana();
+	}
+
+	@Benchmark
+	public int getMaxDamageCostByMana(Hand hand) {
+		return hand.player.getMaxDamageCostByMana();
+	}
+
+	@Benchmark
+	public boolean hasEnoughManaToPlay(Hand hand) {
+		return hand.player.hasEnoughManaToPlay();
+	}
+}
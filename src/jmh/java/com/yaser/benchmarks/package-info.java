@@ -0,0 +1,7 @@
+/**
+ * JMH benchmarks of the game hot paths, built with the jmh profile
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.benchmarks;
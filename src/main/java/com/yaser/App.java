@@ -1,7 +1,41 @@
 package com.yaser;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import com.yaser.service.SimulationService;
+
 public class App {
-    public static void main(String[] args) {
-        new GamePlay(new Player("Player 1"), new Player("Player 2")).play();
+    private static final int DEFAULT_PORT = 8080;
+
+    /**
+     * Plays one logged game, or with {@code serve [port]} starts the local
+     * simulation service
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && "serve".equals(args[0])) {
+            int port = args.length > 1 ? parsePort(args[1]) : DEFAULT_PORT;
+            if (port < 0) {
+                System.err.println("Usage : App serve [port]");
+                System.exit(2);
+            }
+            InetSocketAddress address = new SimulationService().start(port);
+            System.out.println("Simulation service on http://" + address.getHostString() + ":" + address.getPort()
+                    + "/simulate");
+            return;
+        }
+        new GamePlay(new Player("Player 1"), new Player("Player 2"), new LoggingGameEventListener()).play();
+    }
+
+    /**
+     * Returns the given port number, -1 if it is not a port number
+     */
+    private static int parsePort(String port) {
+        try {
+            int number = Integer.parseInt(port);
+            return number >= 0 && number <= 0xFFFF ? number : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
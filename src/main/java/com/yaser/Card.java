@@ -1,11 +1,21 @@
 package com.yaser;
 
 /**
- * 
+ *
  * @author yaser
  *
  */
 public class Card {
+	/**
+	 * Canonical cards of the mana costs 0 to {@link CardHistogram#MAX_COST}
+	 */
+	private static final Card[] CANONICAL = new Card[CardHistogram.MAX_COST + 1];
+
+	static {
+		for (int cost = 0; cost < CANONICAL.length; cost++) {
+			CANONICAL[cost] = new CanonicalCard(cost);
+		}
+	}
 
 	/**
 	 * Damage cost based on Mana
@@ -26,6 +36,18 @@ public class Card {
 	public Card() {
 	}
 
+	/**
+	 * Returns the canonical card with the given mana cost. Canonical cards are
+	 * shared, so their mana cost can not be changed.
+	 *
+	 * @author yaser
+	 * @param cost
+	 * @return
+	 */
+	public static Card of(int cost) {
+		return cost >= 0 && cost < CANONICAL.length ? CANONICAL[cost] : new CanonicalCard(cost);
+	}
+
 	public int getManaCost() {
 		return manaCost;
 	}
@@ -34,4 +56,18 @@ public class Card {
 		this.manaCost = manaCost;
 	}
 
+	/**
+	 * Card whose mana cost can not be changed
+	 */
+	private static final class CanonicalCard extends Card {
+
+		private CanonicalCard(int cost) {
+			super(cost);
+		}
+
+		@Override
+		public void setManaCost(int manaCost) {
+			throw new UnsupportedOperationException("Mana cost of a canonical card can not be changed");
+		}
+	}
 }
@@ -0,0 +1,175 @@
+package com.yaser;
+
+/**
+ * Operations on a card histogram packed into a long : 4 bits per mana cost
+ * keep the number of cards with that cost, cost 0 in the lowest bits. A
+ * histogram holds cards with mana costs from 0 to {@link #MAX_COST} and up
+ * to {@link #MAX_COUNT} cards of each cost. Histograms are values, so they
+ * can be copied, compared and used as keys for free.
+ * 
+ * @author yaser
+ *
+ */
+public final class CardHistogram {
+	/**
+	 * Highest mana cost of a card in a histogram
+	 */
+	public static final int MAX_COST = 15;
+	/**
+	 * Highest number of cards with the same mana cost in a histogram
+	 */
+	public static final int MAX_COUNT = 15;
+	/**
+	 * Histogram without any card
+	 */
+	public static final long EMPTY = 0L;
+
+	private static final int BITS_PER_COST = 4;
+	private static final long LOW_NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+	private static final long BYTE_SUM = 0x0101010101010101L;
+
+	private CardHistogram() {
+	}
+
+	/**
+	 * Returns the histogram of the given mana costs
+	 * 
+	 * @author yaser
+	 * @param costs
+	 * @return
+	 */
+	public static long of(int... costs) {
+		long histogram = EMPTY;
+		for (int cost : costs) {
+			histogram = add(histogram, cost);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Returns the mana costs of the cards, in ascending order
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @return
+	 */
+	public static int[] costs(long histogram) {
+		int[] costs = new int[size(histogram)];
+		int card = 0;
+		for (int cost = 0; cost <= MAX_COST; cost++) {
+			for (int i = count(histogram, cost); i > 0; i--) {
+				costs[card++] = cost;
+			}
+		}
+		return costs;
+	}
+
+	/**
+	 * Returns the number of cards with the given mana cost
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @param cost
+	 * @return
+	 */
+	public static int count(long histogram, int cost) {
+		return (int) (histogram >>> (cost * BITS_PER_COST)) & MAX_COUNT;
+	}
+
+	/**
+	 * Returns the histogram with one more card with the given mana cost
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @param cost
+	 * @return
+	 */
+	public static long add(long histogram, int cost) {
+		if (cost < 0 || cost > MAX_COST) {
+			throw new IllegalArgumentException("Mana cost must be between 0 and " + MAX_COST + " : " + cost);
+		}
+		if (count(histogram, cost) == MAX_COUNT) {
+			throw new IllegalArgumentException("There can not be more than " + MAX_COUNT
+					+ " cards with mana cost " + cost);
+		}
+		return histogram + (1L << (cost * BITS_PER_COST));
+	}
+
+	/**
+	 * Returns the histogram with one card with the given mana cost less, the
+	 * same histogram if there is no such card
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @param cost
+	 * @return
+	 */
+	public static long remove(long histogram, int cost) {
+		if (cost < 0 || cost > MAX_COST || count(histogram, cost) == 0) {
+			return histogram;
+		}
+		return histogram - (1L << (cost * BITS_PER_COST));
+	}
+
+	/**
+	 * Returns the number of cards
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @return
+	 */
+	public static int size(long histogram) {
+		// add the two nibbles of every byte, then all bytes
+		long bytes = (histogram & LOW_NIBBLES) + ((histogram >>> BITS_PER_COST) & LOW_NIBBLES);
+		return (int) ((bytes * BYTE_SUM) >>> 56);
+	}
+
+	/**
+	 * Returns the sum of the mana costs of the cards
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @return
+	 */
+	public static int totalCost(long histogram) {
+		int total = 0;
+		for (int cost = 1; cost <= MAX_COST && histogram >>> (cost * BITS_PER_COST) != 0; cost++) {
+			total += cost * count(histogram, cost);
+		}
+		return total;
+	}
+
+	/**
+	 * Returns a mask whose bit i is set if there is a card with mana cost i
+	 * 
+	 * @author yaser
+	 * @param histogram
+	 * @return
+	 */
+	public static int mask(long histogram) {
+		// lowest bit of every non-empty nibble, then move bit 4i to bit i
+		long mask = (histogram | histogram >>> 1 | histogram >>> 2 | histogram >>> 3) & 0x1111111111111111L;
+		mask = (mask | mask >>> 3) & 0x0303030303030303L;
+		mask = (mask | mask >>> 6) & 0x000F000F000F000FL;
+		mask = (mask | mask >>> 12) & 0x000000FF000000FFL;
+		return (int) ((mask | mask >>> 24) & 0xFFFF);
+	}
+
+	/**
+	 * Returns the highest mana cost in the given cost mask which is not more
+	 * than the given mana, -1 if there is none
+	 * 
+	 * @author yaser
+	 * @param mask
+	 *            see {@link #mask(long)}
+	 * @param mana
+	 * @return
+	 */
+	public static int highestAffordable(int mask, int mana) {
+		if (mana < 0) {
+			return -1;
+		}
+		int affordable = mana > MAX_COST ? mask : mask & ((2 << mana) - 1);
+		return affordable == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(affordable);
+	}
+}
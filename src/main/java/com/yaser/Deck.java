@@ -0,0 +1,168 @@
+package com.yaser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deck of a {@link Player} as an array of mana costs. A card is drawn from a
+ * uniformly random index of the cards left and the cards after it move one
+ * place, so the cards left keep their order and a seeded game draws the same
+ * cards as a deck kept in a list of {@link Card}s. The deck keeps its
+ * starting cards and {@link #reset()} puts them back, so one deck is reused
+ * for any number of games without creating any object.
+ *
+ * @author yaser
+ *
+ */
+public final class Deck {
+	/**
+	 * Cards at the start of a game, first startingSize elements are valid
+	 */
+	private int[] startingCards;
+	private int startingSize;
+	/**
+	 * Cards left in the deck in draw order, first size elements are valid
+	 */
+	private int[] cards;
+	private int size;
+
+	/**
+	 * Creates a deck with one card for each given mana cost
+	 *
+	 * @param costs
+	 */
+	public Deck(int[] costs) {
+		this.startingCards = new int[costs.length];
+		this.cards = new int[costs.length];
+		setCards(costs);
+	}
+
+	/**
+	 * Replaces the starting cards with one card for each given mana cost and
+	 * resets the deck. Arrays of the deck are reused if they are big enough.
+	 *
+	 * @author yaser
+	 * @param costs
+	 */
+	public void setCards(int[] costs) {
+		ensureCapacity(costs.length);
+		System.arraycopy(costs, 0, startingCards, 0, costs.length);
+		startingSize = costs.length;
+		reset();
+	}
+
+	/**
+	 * Replaces the starting cards with the given cards and resets the deck
+	 *
+	 * @author yaser
+	 * @param cards
+	 */
+	public void setCards(List<Card> cards) {
+		ensureCapacity(cards.size());
+		for (int card = 0; card < cards.size(); card++) {
+			startingCards[card] = cards.get(card).getManaCost();
+		}
+		startingSize = cards.size();
+		reset();
+	}
+
+	/**
+	 * Replaces the cards left with one card for each given mana cost, in draw
+	 * order. The starting cards are kept, so {@link #reset()} still puts them
+	 * back.
+	 *
+	 * @author yaser
+	 * @param costs
+	 */
+	public void setCurrentCards(int[] costs) {
+		if (cards.length < costs.length) {
+			cards = new int[costs.length];
+		}
+		System.arraycopy(costs, 0, cards, 0, costs.length);
+		size = costs.length;
+	}
+
+	private void ensureCapacity(int length) {
+		if (startingCards.length < length) {
+			startingCards = new int[length];
+			cards = new int[length];
+		}
+	}
+
+	/**
+	 * Puts all starting cards back in the deck in their starting order
+	 *
+	 * @author yaser
+	 */
+	public void reset() {
+		System.arraycopy(startingCards, 0, cards, 0, startingSize);
+		size = startingSize;
+	}
+
+	/**
+	 * Draws a uniformly random card with the given generator, which is called
+	 * once like {@link Player#pickOneCard()} always did
+	 *
+	 * @author yaser
+	 * @param random
+	 * @return mana cost of the card
+	 */
+	public int draw(GameRandom random) {
+		if (size == 0) {
+			throw new IllegalStateException("Deck is empty");
+		}
+		int index = random.nextInt(size);
+		int cost = cards[index];
+		System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+		size--;
+		return cost;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the cards left as a histogram, see {@link CardHistogram}
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public long getHistogram() {
+		long histogram = CardHistogram.EMPTY;
+		for (int card = 0; card < size; card++) {
+			histogram = CardHistogram.add(histogram, cards[card]);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Returns the mana costs of the cards left, in draw order
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public int[] getCosts() {
+		int[] costs = new int[size];
+		System.arraycopy(cards, 0, costs, 0, size);
+		return costs;
+	}
+
+	/**
+	 * Returns the cards left, in draw order, as canonical {@link Card}s
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public List<Card> getCards() {
+		List<Card> list = new ArrayList<>(size);
+		for (int card = 0; card < size; card++) {
+			list.add(Card.of(cards[card]));
+		}
+		return list;
+	}
+}
@@ -0,0 +1,107 @@
+package com.yaser;
+
+/**
+ * Callback for everything that happens in a game. Methods take the
+ * {@link Player} and primitive values only, so reporting an event does not
+ * create any object. All methods do nothing by default.
+ * 
+ * @author yaser
+ *
+ */
+public interface GameEventListener {
+
+	/**
+	 * Listener which ignores all events
+	 */
+	GameEventListener NO_OP = new GameEventListener() {
+	};
+
+	/**
+	 * Game is created, before the starting hands are drawn. The current
+	 * player of the game starts.
+	 * 
+	 * @param game
+	 */
+	default void gameStarted(GamePlay game) {
+	}
+
+	/**
+	 * Player has started the turn and filled the mana
+	 * 
+	 * @param player
+	 * @param mana
+	 */
+	default void turnStarted(Player player, int mana) {
+	}
+
+	/**
+	 * Player has picked a card from deck and added it to hand
+	 * 
+	 * @param player
+	 * @param cost
+	 *            mana cost of the picked card
+	 * @param handSize
+	 *            number of cards in hand after the card is added
+	 */
+	default void cardDrawn(Player player, int cost, int handSize) {
+	}
+
+	/**
+	 * Special Rule 2 : player has picked a card while hand is full and the
+	 * card is dropped
+	 * 
+	 * @param player
+	 * @param cost
+	 *            mana cost of the dropped card
+	 */
+	default void overload(Player player, int cost) {
+	}
+
+	/**
+	 * Special Rule 1 : player has tried to pick a card from an empty deck and
+	 * lost one health
+	 * 
+	 * @param player
+	 * @param health
+	 *            health of the player after bleeding
+	 */
+	default void bleedOut(Player player, int health) {
+	}
+
+	/**
+	 * Player has played a card from hand
+	 * 
+	 * @param player
+	 * @param cost
+	 *            mana cost of the played card
+	 */
+	default void cardPlayed(Player player, int cost) {
+	}
+
+	/**
+	 * Special Rule 3 : player has played a card with no mana cost
+	 * 
+	 * @param player
+	 */
+	default void dudCard(Player player) {
+	}
+
+	/**
+	 * Player has received damage from the played card of the opponent
+	 * 
+	 * @param player
+	 * @param damage
+	 * @param health
+	 *            health of the player after the damage
+	 */
+	default void damageReceived(Player player, int damage, int health) {
+	}
+
+	/**
+	 * Game is over
+	 * 
+	 * @param winner
+	 */
+	default void gameWon(Player winner) {
+	}
+}
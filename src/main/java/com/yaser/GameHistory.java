@@ -0,0 +1,71 @@
+package com.yaser;
+
+import java.util.Arrays;
+
+/**
+ * Undo stack of {@link GameState}s. States are immutable, so a move pushes
+ * the new state and undoing it pops the state, both in constant time.
+ * 
+ * @author yaser
+ *
+ */
+public class GameHistory {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private GameState[] states = new GameState[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/**
+	 * Creates a history which starts with the given state
+	 * 
+	 * @param initial
+	 */
+	public GameHistory(GameState initial) {
+		push(initial);
+	}
+
+	/**
+	 * Makes the given state the current one
+	 * 
+	 * @author yaser
+	 * @param state
+	 * @return the given state
+	 */
+	public GameState push(GameState state) {
+		if (state == null) {
+			throw new IllegalArgumentException("State can not be null");
+		}
+		if (size == states.length) {
+			states = Arrays.copyOf(states, size * 2);
+		}
+		states[size++] = state;
+		return state;
+	}
+
+	/**
+	 * Takes back the last pushed state
+	 * 
+	 * @author yaser
+	 * @return the state before it
+	 */
+	public GameState undo() {
+		if (size == 1) {
+			throw new IllegalStateException("There is no move to undo");
+		}
+		states[--size] = null;
+		return states[size - 1];
+	}
+
+	public GameState current() {
+		return states[size - 1];
+	}
+
+	/**
+	 * Returns the number of moves which can be undone
+	 * 
+	 * @return
+	 */
+	public int getMoves() {
+		return size - 1;
+	}
+}
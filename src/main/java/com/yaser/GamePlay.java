@@ -1,6 +1,9 @@
 package com.yaser;
 
-import java.util.logging.Logger;
+import com.yaser.exceptions.InsufficientManaException;
+import com.yaser.flightrecorder.GameFlightEvent;
+import com.yaser.flightrecorder.TurnFlightEvent;
+import com.yaser.metrics.GameMetrics;
 
 /**
  * 
@@ -8,10 +11,6 @@ import java.util.logging.Logger;
  *
  */
 public class GamePlay {
-	/**
-	 * Logger
-	 */
-	private static final Logger logger = Logger.getLogger(GamePlay.class.getName());
 	/**
 	 * First player of the game
 	 */
@@ -20,6 +19,34 @@ public class GamePlay {
      * Second and opponent player of the game
      */
     private Player opponentPlayer;
+    /**
+     * Winner of the game, null until {@link #play()} is finished
+     */
+    private Player winner;
+    /**
+     * Number of turns played in the game
+     */
+    private int turnCount = 0;
+    /**
+     * Receives the events of the game, ignores them by default
+     */
+    private GameEventListener gameEventListener = GameEventListener.NO_OP;
+    /**
+     * Seed of the game, only meaningful if the game is seeded
+     */
+    private long seed;
+    /**
+     * True if the game is created with a seed and can be replayed
+     */
+    private boolean seeded = false;
+    /**
+     * Receives the counters and latencies of the game, null if metrics are disabled
+     */
+    private GameMetrics metrics;
+    /**
+     * Splits the generators of the players from the seed when the game is reset
+     */
+    private GameRandom seedSplitter;
 
     public GamePlay(Player currentPlayer, Player opponentPlayer) {
         this.setCurrentPlayer(currentPlayer);
@@ -28,6 +55,92 @@ public class GamePlay {
         this.getOpponentPlayer().initForGame();
     }
 
+    /**
+     * Creates a reproducible game. Both players get a generator split from the given seed,
+     * so the same seed always plays the same game.
+     * @param currentPlayer
+     * @param opponentPlayer
+     * @param seed
+     */
+    public GamePlay(Player currentPlayer, Player opponentPlayer, long seed) {
+        this(currentPlayer, opponentPlayer, seed, GameEventListener.NO_OP);
+    }
+
+    /**
+     * Creates a reproducible game which reports its events to the given listener
+     * @param currentPlayer
+     * @param opponentPlayer
+     * @param seed
+     * @param gameEventListener
+     */
+    public GamePlay(Player currentPlayer, Player opponentPlayer, long seed, GameEventListener gameEventListener) {
+        this.setCurrentPlayer(currentPlayer);
+        this.setOpponentPlayer(opponentPlayer);
+        this.setGameEventListener(gameEventListener);
+        this.seed = seed;
+        this.seeded = true;
+        GameRandom gameRandom = new GameRandom(seed);
+        this.getCurrentPlayer().setRandomNumber(gameRandom.split());
+        this.getOpponentPlayer().setRandomNumber(gameRandom.split());
+        startGame();
+    }
+
+    /**
+     * Creates the game and reports all of its events, including the starting hands, to the given listener
+     * @param currentPlayer
+     * @param opponentPlayer
+     * @param gameEventListener
+     */
+    public GamePlay(Player currentPlayer, Player opponentPlayer, GameEventListener gameEventListener) {
+        this.setCurrentPlayer(currentPlayer);
+        this.setOpponentPlayer(opponentPlayer);
+        this.setGameEventListener(gameEventListener);
+        startGame();
+    }
+
+    /**
+     * Starts a new reproducible game with the given players, exactly like
+     * {@link #GamePlay(Player, Player, long, GameEventListener)} with the listener of this game, but
+     * without creating any object : the players are reset, their generators are reseeded with the
+     * values the constructor would split from the seed and the starting hands are drawn.
+     * @author yaser
+     * @param currentPlayer
+     * @param opponentPlayer
+     * @param seed
+     */
+    public void reset(Player currentPlayer, Player opponentPlayer, long seed) {
+        if (currentPlayer.getRandomNumber() == opponentPlayer.getRandomNumber()) {
+            throw new IllegalArgumentException("Players can not share a random generator");
+        }
+        this.setCurrentPlayer(currentPlayer);
+        this.setOpponentPlayer(opponentPlayer);
+        currentPlayer.setGameEventListener(gameEventListener);
+        opponentPlayer.setGameEventListener(gameEventListener);
+        currentPlayer.reset();
+        opponentPlayer.reset();
+        if (seedSplitter == null) {
+            seedSplitter = new GameRandom(seed);
+        } else {
+            seedSplitter.setSeed(seed);
+        }
+        currentPlayer.getRandomNumber().setSeed(seedSplitter.nextLong());
+        opponentPlayer.getRandomNumber().setSeed(seedSplitter.nextLong());
+        this.seed = seed;
+        this.seeded = true;
+        this.turnCount = 0;
+        this.winner = null;
+        startGame();
+    }
+
+    /**
+     * Reports the start of the game and draws the starting hands
+     */
+    private void startGame() {
+        gameEventListener.gameStarted(this);
+        this.getCurrentPlayer().initForGame();
+        this.getOpponentPlayer().initForGame();
+    }
+
     /**
      * Makes preparation for game turn
      * 
@@ -35,8 +148,10 @@ public class GamePlay {
      * @author yaser
      */
     public void beginTurn() {
+        turnCount++;
         // fills the mana slots
         getCurrentPlayer().fillMana();
+        gameEventListener.turnStarted(getCurrentPlayer(), getCurrentPlayer().getMana());
         // player picks a card to damage opponent
         getCurrentPlayer().pickOneCard();
     }
@@ -69,23 +184,104 @@ public class GamePlay {
      * @author yaser
      */
     public void play() {
+        GameMetrics metrics = this.metrics;
+        long gameStart = metrics == null ? 0 : System.nanoTime();
+        // flight recorder events cost nothing when they are not recorded
+        GameFlightEvent gameEvent = new GameFlightEvent();
+        gameEvent.begin();
+        Player firstPlayer = getCurrentPlayer();
         Player winner = null;
         for (; winner == null;) {
+            TurnFlightEvent turnEvent = new TurnFlightEvent();
+            turnEvent.begin();
+            Player player = getCurrentPlayer();
+            int playedCards = player.getPlayedCardCount();
+            int opponentHealth = getOpponentPlayer().getHealth();
+            long phaseStart = metrics == null ? 0 : System.nanoTime();
             // start preparations
             beginTurn();
-            while (getCurrentPlayer().hasEnoughManaToPlay()) {
-                getCurrentPlayer().playTurn(getOpponentPlayer());
-                // check the winner after each turn
-                winner = checkWinner();
-                // if opponent has no health, no need to play card again
-                if (winner != null) {
-                    break;
-                }
+            int manaRolled = player.getMana();
+            if (metrics != null) {
+                long now = System.nanoTime();
+                metrics.recordBeginTurn(now - phaseStart);
+                phaseStart = now;
+            }
+            winner = playTurn();
+            if (metrics != null) {
+                metrics.recordPlayTurn(System.nanoTime() - phaseStart);
             }
+            turnEvent.end(player.getName(), turnCount, manaRolled, player.getPlayedCardCount() - playedCards,
+                    opponentHealth - getOpponentPlayer().getHealth());
             // if current player has no enough mana to play, end turn and switch players
             endTurn();
         }
-        logger.severe("WINNER : " + winner.getName());
+        this.winner = winner;
+        gameEventListener.gameWon(winner);
+        if (metrics != null) {
+            metrics.recordGame(this, System.nanoTime() - gameStart);
+        }
+        Player secondPlayer = firstPlayer == getCurrentPlayer() ? getOpponentPlayer() : getCurrentPlayer();
+        gameEvent.end(seed, firstPlayer.getName(), secondPlayer.getName(), winner.getName(), turnCount);
+    }
+
+    /**
+     * Current player plays cards against the opponent until the turn or the game is over
+     * @author yaser
+     * @return the winner, null if the game is not over
+     */
+    public Player playTurn() {
+        // current player may have bled out while picking a card
+        Player winner = checkWinner();
+        try {
+            while (winner == null && getCurrentPlayer().playNextCard(getOpponentPlayer())) {
+                // check the winner after each card
+                winner = checkWinner();
+            }
+        } catch (InsufficientManaException e) {
+            if (metrics != null) {
+                metrics.recordInsufficientMana();
+            }
+            throw e;
+        }
+        return winner;
+    }
+
+    /**
+     * Returns the state of the game, see {@link GameState}
+     * @author yaser
+     * @return
+     */
+    public GameState exportState() {
+        Player current = getCurrentPlayer();
+        Player opponent = getOpponentPlayer();
+        return new GameState(turnCount, current.getHealth(), current.getMana(), current.getHandHistogram(),
+                current.getDeckHistogram(), current.getRandomNumber().getSeed(), opponent.getHealth(),
+                opponent.getMana(), opponent.getHandHistogram(), opponent.getDeckHistogram(),
+                opponent.getRandomNumber().getSeed());
+    }
+
+    /**
+     * Puts the game into the given state. Decks are ordered by mana cost like the decks of
+     * {@link Player#createDeck(int[])}, so a state exported from a game with such decks plays on
+     * exactly as that game does.
+     * @author yaser
+     * @param state
+     */
+    public void importState(GameState state) {
+        importPlayer(getCurrentPlayer(), state.getCurrentHealth(), state.getCurrentMana(), state.getCurrentHand(),
+                state.getCurrentDeck(), state.getCurrentSeed());
+        importPlayer(getOpponentPlayer(), state.getOpponentHealth(), state.getOpponentMana(),
+                state.getOpponentHand(), state.getOpponentDeck(), state.getOpponentSeed());
+        turnCount = state.getTurnCount();
+        winner = null;
+    }
+
+    private static void importPlayer(Player player, int health, int mana, long hand, long deck, long seed) {
+        player.setHealth(health);
+        player.setMana(mana);
+        player.setHandHistogram(hand);
+        player.getDeck().setCurrentCards(CardHistogram.costs(deck));
+        player.getRandomNumber().setSeed(seed);
     }
 
     /**
@@ -104,6 +300,52 @@ public class GamePlay {
         }
     }
 
+    /**
+     * Returns the winner of the last {@link #play()} call, null if the game is not played yet
+     * @return
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    public GameEventListener getGameEventListener() {
+        return gameEventListener;
+    }
+
+    /**
+     * Sets the listener of the game and both players' events, null means no listener
+     * @param gameEventListener
+     */
+    public void setGameEventListener(GameEventListener gameEventListener) {
+        this.gameEventListener = gameEventListener == null ? GameEventListener.NO_OP : gameEventListener;
+        getCurrentPlayer().setGameEventListener(this.gameEventListener);
+        getOpponentPlayer().setGameEventListener(this.gameEventListener);
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics which record the game when it is played, null disables metrics
+     * @param metrics
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public Player getCurrentPlayer() {
         return currentPlayer;
     }
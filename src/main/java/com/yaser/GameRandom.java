@@ -0,0 +1,163 @@
+package com.yaser;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seedable and splittable random number generator of a game. It uses the
+ * SplitMix64 algorithm of {@link java.util.SplittableRandom}, but it is not
+ * thread safe and it can be reseeded, so one instance can be reused for many
+ * games.
+ * 
+ * @author yaser
+ *
+ */
+public final class GameRandom {
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	/**
+	 * Seeds the generators which are created without a seed
+	 */
+	private static final AtomicLong defaultSeeder = new AtomicLong(mix64(System.currentTimeMillis())
+			^ mix64(System.nanoTime()));
+
+	private long seed;
+
+	/**
+	 * Creates a generator with a seed which is different on every call
+	 */
+	public GameRandom() {
+		this(mix64(defaultSeeder.getAndAdd(2 * GOLDEN_GAMMA)));
+	}
+
+	/**
+	 * Creates a generator with the given seed. Generators with the same seed
+	 * generate the same values.
+	 * 
+	 * @param seed
+	 */
+	public GameRandom(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the seed of the game with the given index in a batch. The seed
+	 * only depends on the master seed and the index, so a game gets the same
+	 * values whichever thread plays it.
+	 * 
+	 * @author yaser
+	 * @param masterSeed
+	 * @param gameIndex
+	 * @return
+	 */
+	public static long gameSeed(long masterSeed, long gameIndex) {
+		return mix64(masterSeed + (gameIndex + 1) * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Starts the generator again with the given seed
+	 * 
+	 * @author yaser
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the current seed, a generator created with it continues with
+	 * the same values as this one
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns a new generator seeded with the next value of this one. Both
+	 * step through the same SplitMix64 sequence from seeds which are far
+	 * apart with a very high probability, so their values are statistically
+	 * independent, but they are not proven not to overlap. The child keeps
+	 * the gamma of all generators, so its seed alone continues it, see
+	 * {@link #getSeed()}.
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public GameRandom split() {
+		return new GameRandom(nextLong());
+	}
+
+	/**
+	 * Returns a random long value
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+
+	/**
+	 * Returns a random value between 0 (inclusive) and bound (exclusive)
+	 * 
+	 * @author yaser
+	 * @param bound
+	 *            must be positive
+	 * @return
+	 */
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("Bound must be positive : " + bound);
+		}
+		int r = mix32(nextSeed());
+		int m = bound - 1;
+		if ((bound & m) == 0) {
+			// power of two
+			return r & m;
+		}
+		// reject the values which would make the result biased
+		for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+		}
+		return r;
+	}
+
+	/**
+	 * Same as {@link #nextInt(int)} for a generator whose seed is kept in the
+	 * given array at the given index, so that many generators can be kept in
+	 * one primitive array. The seed of a generator created with
+	 * {@code new GameRandom(seed)} is {@code seed}.
+	 * 
+	 * @author yaser
+	 * @param seeds
+	 * @param index
+	 * @param bound
+	 *            must be positive
+	 * @return
+	 */
+	public static int nextInt(long[] seeds, int index, int bound) {
+		int r = mix32(seeds[index] += GOLDEN_GAMMA);
+		int m = bound - 1;
+		if ((bound & m) == 0) {
+			return r & m;
+		}
+		for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(seeds[index] += GOLDEN_GAMMA) >>> 1) {
+		}
+		return r;
+	}
+
+	private long nextSeed() {
+		return seed += GOLDEN_GAMMA;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+}
@@ -0,0 +1,239 @@
+package com.yaser;
+
+import java.util.Objects;
+
+import com.yaser.exceptions.InsufficientManaException;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Immutable snapshot of a {@link GamePlay} : health, mana, hand and deck of
+ * the current and the opponent player, kept in primitive fields with hand and
+ * deck as {@link CardHistogram}s. Every move returns a new state in constant
+ * time and leaves this one as it is, so search code can branch from a state
+ * and go back to it for free, see {@link GameHistory}.
+ * <p>
+ * Moves follow the rules of {@link GamePlay} and {@link Player}, but take the
+ * mana and the drawn card as arguments instead of rolling them. Random seeds
+ * of the players are kept for {@link GamePlay#importState(GameState)} and are
+ * not changed by moves.
+ *
+ * @author yaser
+ *
+ */
+public final class GameState {
+	private final int turnCount;
+	private final int currentHealth;
+	private final int currentMana;
+	private final long currentHand;
+	private final long currentDeck;
+	private final long currentSeed;
+	private final int opponentHealth;
+	private final int opponentMana;
+	private final long opponentHand;
+	private final long opponentDeck;
+	private final long opponentSeed;
+
+	public GameState(int turnCount, int currentHealth, int currentMana, long currentHand, long currentDeck,
+			long currentSeed, int opponentHealth, int opponentMana, long opponentHand, long opponentDeck,
+			long opponentSeed) {
+		this.turnCount = turnCount;
+		this.currentHealth = currentHealth;
+		this.currentMana = currentMana;
+		this.currentHand = currentHand;
+		this.currentDeck = currentDeck;
+		this.currentSeed = currentSeed;
+		this.opponentHealth = opponentHealth;
+		this.opponentMana = opponentMana;
+		this.opponentHand = opponentHand;
+		this.opponentDeck = opponentDeck;
+		this.opponentSeed = opponentSeed;
+	}
+
+	/**
+	 * Starts the turn of the current player like {@link GamePlay#beginTurn()}
+	 *
+	 * @author yaser
+	 * @param mana
+	 *            filled mana
+	 * @param drawnCost
+	 *            mana cost of the card picked from deck, -1 if the deck is
+	 *            empty
+	 * @return
+	 */
+	public GameState beginTurn(int mana, int drawnCost) {
+		int health = currentHealth;
+		long hand = currentHand;
+		long deck = currentDeck;
+		if (drawnCost < 0) {
+			if (deck != CardHistogram.EMPTY) {
+				throw new IllegalArgumentException("A card must be picked while there are cards in deck");
+			}
+			// Special Rule 1
+			health--;
+		} else {
+			if (CardHistogram.count(deck, drawnCost) == 0) {
+				throw new IllegalArgumentException("There is no card with mana cost " + drawnCost + " in deck");
+			}
+			deck = CardHistogram.remove(deck, drawnCost);
+			// Special Rule 2 drops the card
+			if (CardHistogram.size(hand) <= Player.MAX_NUM_OF_HAND_CARD) {
+				hand = CardHistogram.add(hand, drawnCost);
+			}
+		}
+		return new GameState(turnCount + 1, health, mana, hand, deck, currentSeed, opponentHealth, opponentMana,
+				opponentHand, opponentDeck, opponentSeed);
+	}
+
+	/**
+	 * Current player plays a card with the given mana cost against the
+	 * opponent
+	 *
+	 * @author yaser
+	 * @param cost
+	 * @return
+	 */
+	public GameState play(int cost) {
+		if (cost < 0 || cost > CardHistogram.MAX_COST || CardHistogram.count(currentHand, cost) == 0) {
+			throw new IllegalArgumentException("There is no card with mana cost " + cost + " in hand");
+		}
+		if (currentMana < cost) {
+			throw new InsufficientManaException();
+		}
+		return new GameState(turnCount, currentHealth, currentMana - cost, CardHistogram.remove(currentHand, cost),
+				currentDeck, currentSeed, opponentHealth - cost, opponentMana, opponentHand, opponentDeck,
+				opponentSeed);
+	}
+
+	/**
+	 * Ends the turn, the opponent becomes the current player
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public GameState endTurn() {
+		return new GameState(turnCount, opponentHealth, opponentMana, opponentHand, opponentDeck, opponentSeed,
+				currentHealth, currentMana, currentHand, currentDeck, currentSeed);
+	}
+
+	/**
+	 * Returns the card the given strategy plays next for the current player,
+	 * -1 if it ends the turn
+	 *
+	 * @author yaser
+	 * @param strategy
+	 * @return
+	 */
+	public int nextCard(Strategy strategy) {
+		return strategy.selectCard(currentHand, currentMana, currentHealth, opponentHealth);
+	}
+
+	/**
+	 * Returns the probability that the current player picks a card with the
+	 * given mana cost at the beginning of the turn
+	 *
+	 * @author yaser
+	 * @param cost
+	 * @return
+	 */
+	public double drawProbability(int cost) {
+		int deckSize = CardHistogram.size(currentDeck);
+		return deckSize == 0 ? 0 : (double) CardHistogram.count(currentDeck, cost) / deckSize;
+	}
+
+	/**
+	 * Returns true if one of the players has no health left, like
+	 * {@link GamePlay#checkWinner()} does
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public boolean isOver() {
+		return currentHealth < 1 || opponentHealth < 1;
+	}
+
+	/**
+	 * Returns true if the game is over and the current player has won it
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public boolean isWonByCurrentPlayer() {
+		return currentHealth >= 1 && opponentHealth < 1;
+	}
+
+	public int getTurnCount() {
+		return turnCount;
+	}
+
+	public int getCurrentHealth() {
+		return currentHealth;
+	}
+
+	public int getCurrentMana() {
+		return currentMana;
+	}
+
+	public long getCurrentHand() {
+		return currentHand;
+	}
+
+	public long getCurrentDeck() {
+		return currentDeck;
+	}
+
+	public long getCurrentSeed() {
+		return currentSeed;
+	}
+
+	public int getOpponentHealth() {
+		return opponentHealth;
+	}
+
+	public int getOpponentMana() {
+		return opponentMana;
+	}
+
+	public long getOpponentHand() {
+		return opponentHand;
+	}
+
+	public long getOpponentDeck() {
+		return opponentDeck;
+	}
+
+	public long getOpponentSeed() {
+		return opponentSeed;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(turnCount, currentHealth, currentMana, currentHand, currentDeck, currentSeed,
+				opponentHealth, opponentMana, opponentHand, opponentDeck, opponentSeed);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GameState)) {
+			return false;
+		}
+		GameState other = (GameState) obj;
+		return turnCount == other.turnCount && currentHealth == other.currentHealth
+				&& currentMana == other.currentMana && currentHand == other.currentHand
+				&& currentDeck == other.currentDeck && currentSeed == other.currentSeed
+				&& opponentHealth == other.opponentHealth && opponentMana == other.opponentMana
+				&& opponentHand == other.opponentHand && opponentDeck == other.opponentDeck
+				&& opponentSeed == other.opponentSeed;
+	}
+
+	@Override
+	public String toString() {
+		return "GameState [turnCount=" + turnCount + ", currentHealth=" + currentHealth + ", currentMana="
+				+ currentMana + ", currentHand=" + Long.toHexString(currentHand) + ", currentDeck="
+				+ Long.toHexString(currentDeck) + ", opponentHealth=" + opponentHealth + ", opponentMana="
+				+ opponentMana + ", opponentHand=" + Long.toHexString(opponentHand) + ", opponentDeck="
+				+ Long.toHexString(opponentDeck) + "]";
+	}
+}
@@ -0,0 +1,99 @@
+package com.yaser;
+
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes game events to {@link java.util.logging}, with the same loggers,
+ * levels and messages the game has always used. Messages are only built if
+ * their level is enabled.
+ * 
+ * @author yaser
+ *
+ */
+public class LoggingGameEventListener implements GameEventListener {
+	private static final Logger playerLogger = Logger.getLogger(Player.class.getName());
+	private static final Logger gameLogger = Logger.getLogger(GamePlay.class.getName());
+	private static final String PLAYER_CLASS = Player.class.getName();
+	// Message constants
+	private static final String HAND_INCREASED_LOG_MSG = "{0} player''s hand increased to : {1}";
+	private static final String DECK_PICKED_CARD_MSG = "{0} has picked a card from deck with mana cost : {1}";
+	private static final String DROP_CARD_MSG = "{0} has dropped the card with the mana cost : {1} as hand is full. Special Rule 2. Overload!!!!";
+
+	@Override
+	public void cardDrawn(Player player, int cost, int handSize) {
+		if (playerLogger.isLoggable(Level.INFO)) {
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "pickOneCard",
+					MessageFormat.format(DECK_PICKED_CARD_MSG, player.getName(), cost));
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "pickOneCard",
+					MessageFormat.format(HAND_INCREASED_LOG_MSG, player.getName(), handSize));
+		}
+	}
+
+	@Override
+	public void overload(Player player, int cost) {
+		if (playerLogger.isLoggable(Level.INFO)) {
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "pickOneCard",
+					MessageFormat.format(DECK_PICKED_CARD_MSG, player.getName(), cost));
+		}
+		if (playerLogger.isLoggable(Level.WARNING)) {
+			playerLogger.logp(Level.WARNING, PLAYER_CLASS, "pickOneCard",
+					MessageFormat.format(DROP_CARD_MSG, player.getName(), cost));
+		}
+	}
+
+	@Override
+	public void bleedOut(Player player, int health) {
+		if (playerLogger.isLoggable(Level.WARNING)) {
+			playerLogger.logp(Level.WARNING, PLAYER_CLASS, "pickOneCard",
+					player.getName() + " : Special Rule 1 : Bleeding Out!!! ");
+		}
+	}
+
+	@Override
+	public void cardPlayed(Player player, int cost) {
+		if (playerLogger.isLoggable(Level.INFO)) {
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "playTurn", player.getName() + " is playing.");
+		}
+	}
+
+	@Override
+	public void dudCard(Player player) {
+		if (playerLogger.isLoggable(Level.INFO)) {
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "getMaxDamageCardByMana",
+					player.getName() + " Special Rule 3. Dud Card!!!");
+		}
+	}
+
+	@Override
+	public void damageReceived(Player player, int damage, int health) {
+		if (playerLogger.isLoggable(Level.INFO)) {
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "receiveDamage",
+					player.getName() + " player's health decreased to : " + health);
+			playerLogger.logp(Level.INFO, PLAYER_CLASS, "displayPlayer", displayPlayer(player));
+		}
+	}
+
+	@Override
+	public void gameWon(Player winner) {
+		if (gameLogger.isLoggable(Level.SEVERE)) {
+			gameLogger.logp(Level.SEVERE, GamePlay.class.getName(), "play", "WINNER : " + winner.getName());
+		}
+	}
+
+	/* Just to display players info */
+	private String displayPlayer(Player player) {
+		String trimmer = " ----- ";
+		StringBuilder sb = new StringBuilder();
+		String newLine = "\n";
+		sb.append(newLine);
+		sb.append(trimmer + player.getName() + " Health         : " + player.getHealth() + trimmer).append(newLine);
+		sb.append(trimmer + player.getName() + " Mana           : " + player.getMana() + trimmer).append(newLine);
+		sb.append(trimmer + player.getName() + " Cards in Hand  : " + player.getSizeOfPlayerHand() + trimmer)
+				.append(newLine);
+		sb.append(trimmer + player.getName() + " Cards in Deck  : " + player.getSizeOfPlayerDeck() + trimmer)
+				.append(newLine);
+		return sb.toString();
+	}
+}
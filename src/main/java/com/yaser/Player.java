@@ -1,13 +1,12 @@
 package com.yaser;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
-import java.util.logging.Logger;
 
 import com.yaser.exceptions.InsufficientManaException;
+import com.yaser.flightrecorder.SpecialRuleFlightEvent;
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.Strategy;
 
 /**
  * 
@@ -15,21 +14,25 @@ import com.yaser.exceptions.InsufficientManaException;
  *
  */
 public class Player {
-	private static final Logger logger = Logger.getLogger(Player.class.getName());
 	// Constants
-	private static final int MAX_NUM_OF_HAND_CARD = 5;
-	private static final int MAX_MANA_SLOTS = 10;
-	private static final int STARTING_HAND_SIZE = 3;
-	// Message constants
-	private static final String HAND_INCREASED_LOG_MSG = "{0} player''s hand increased to : {1}";
-	private static final String DECK_PICKED_CARD_MSG = "{0} has picked a card from deck with mana cost : {1}";
-	private static final String DROP_CARD_MSG = "{0} has dropped the card with the mana cost : {1} as hand is full. Special Rule 2. Overload!!!!";
+	public static final int MAX_NUM_OF_HAND_CARD = 5;
+	public static final int MAX_MANA_SLOTS = 10;
+	public static final int STARTING_HAND_SIZE = 3;
+	public static final int DEFAULT_HEALTH = 30;
+	/**
+	 * Mana costs of the cards in the default deck
+	 */
+	private static final int[] DEFAULT_DECK_COSTS = { 0, 0, 1, 1, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 5, 5, 6, 6, 7, 8 };
 	// Random generator
-	private Random randomNumber = new Random();
+	private GameRandom randomNumber = new GameRandom();
 	/**
 	 * Default value for health of player
 	 */
-	private int health = 30;
+	private int health = DEFAULT_HEALTH;
+	/**
+	 * Health of player at the start of a game, see {@link #reset()}
+	 */
+	private int startingHealth = DEFAULT_HEALTH;
 	/**
 	 * Default value for mana of player
 	 */
@@ -39,12 +42,46 @@ public class Player {
 	 */
 	private String name;
 	/**
-	 * Default deck of player
+	 * Deck of player, the default deck unless it is set
+	 */
+	private final Deck deck = new Deck(DEFAULT_DECK_COSTS);
+	/**
+	 * Cards in hand as a histogram: number of cards per mana cost, see
+	 * {@link CardHistogram}
+	 */
+	private long handHistogram = CardHistogram.EMPTY;
+	/**
+	 * Bit i is set if there is at least one card with mana cost i in hand
+	 */
+	private int handMask = 0;
+	/**
+	 * Number of cards in hand
+	 */
+	private int handSize = 0;
+	/**
+	 * Number of times Special Rule 1 (Bleeding Out) was applied
 	 */
-	private List<Card> playerDeck = new ArrayList<>(Arrays.asList(new Card(0), new Card(0), new Card(1), new Card(1),
-			new Card(2), new Card(2), new Card(2), new Card(3), new Card(3), new Card(3), new Card(3), new Card(4),
-			new Card(4), new Card(4), new Card(5), new Card(5), new Card(6), new Card(6), new Card(7), new Card(8)));
-	private List<Card> playerHand = new ArrayList<>();
+	private int bleedOutCount = 0;
+	/**
+	 * Number of times Special Rule 2 (Overload) was applied
+	 */
+	private int overloadCount = 0;
+	/**
+	 * Number of cards played
+	 */
+	private int playedCardCount = 0;
+	/**
+	 * Number of times Special Rule 3 (Dud Card) was applied
+	 */
+	private int dudCardCount = 0;
+	/**
+	 * Receives the events of the player, ignores them by default
+	 */
+	private GameEventListener gameEventListener = GameEventListener.NO_OP;
+	/**
+	 * Decides which cards are played
+	 */
+	private Strategy strategy = GreedyStrategy.INSTANCE;
 
 	/**
 	 * Default constructor
@@ -61,6 +98,65 @@ public class Player {
 		this.name = name;
 	}
 
+	/**
+	 * Constructor with name and random generator parameters
+	 * 
+	 * @param name
+	 * @param randomNumber
+	 *            generator of the picked cards and the mana
+	 */
+	public Player(String name, GameRandom randomNumber) {
+		this.name = name;
+		setRandomNumber(randomNumber);
+	}
+
+	/**
+	 * Returns the mana costs of the cards in the default deck, in ascending
+	 * order
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public static int[] getDefaultDeckCosts() {
+		return DEFAULT_DECK_COSTS.clone();
+	}
+
+	/**
+	 * Creates a deck with one canonical card for each given mana cost, see
+	 * {@link Card#of(int)}
+	 * 
+	 * @author yaser
+	 * @param costs
+	 * @return
+	 */
+	public static List<Card> createDeck(int[] costs) {
+		List<Card> deck = new ArrayList<>(costs.length);
+		for (int cost : costs) {
+			deck.add(Card.of(cost));
+		}
+		return deck;
+	}
+
+	/**
+	 * Returns the player to the state of a new player before its first game :
+	 * starting health, no mana, empty hand, all starting cards in deck and no
+	 * counted rules. Name, deck, strategy, generator and listener are kept.
+	 * 
+	 * @author yaser
+	 */
+	public void reset() {
+		health = startingHealth;
+		mana = 0;
+		handHistogram = CardHistogram.EMPTY;
+		handMask = 0;
+		handSize = 0;
+		bleedOutCount = 0;
+		overloadCount = 0;
+		playedCardCount = 0;
+		dudCardCount = 0;
+		deck.reset();
+	}
+
 	/**
 	 * Initializes the player. This method should be called once at the
 	 * beginning of the game
@@ -81,40 +177,56 @@ public class Player {
 	 * @author yaser
 	 */
 	public void pickOneCard() {
-		if (getSizeOfPlayerDeck() == 0) {
+		if (deck.isEmpty()) {
 			setHealth(getHealth() - 1);
-			logger.warning(getName() + " : Special Rule 1 : Bleeding Out!!! ");
+			bleedOutCount++;
+			gameEventListener.bleedOut(this, getHealth());
+			SpecialRuleFlightEvent.emit(SpecialRuleFlightEvent.BLEED_OUT, name, -1, getHealth());
 		} else {
 			// get one card from players deck randomly
-			Card pickedCard = getPlayerDeck().get(randomNumber.nextInt(getPlayerDeck().size()));
-			// remove card from player's deck
-			getPlayerDeck().remove(pickedCard);
-			logger.info(MessageFormat.format(DECK_PICKED_CARD_MSG, getName(), pickedCard.getManaCost()));
+			int pickedCost = deck.draw(randomNumber);
 			// Special Rule 2
 			if (getSizeOfPlayerHand() > MAX_NUM_OF_HAND_CARD) {
-				logger.warning(MessageFormat.format(DROP_CARD_MSG, getName(), pickedCard.getManaCost()));
+				overloadCount++;
+				gameEventListener.overload(this, pickedCost);
+				SpecialRuleFlightEvent.emit(SpecialRuleFlightEvent.OVERLOAD, name, pickedCost, getHealth());
 			} else {
-				getPlayerHand().add(pickedCard);
-				logger.info(MessageFormat.format(HAND_INCREASED_LOG_MSG, getName(), getSizeOfPlayerHand()));
+				addToHand(pickedCost);
+				gameEventListener.cardDrawn(this, pickedCost, getSizeOfPlayerHand());
 			}
 		}
 	}
 
 	/**
-	 * Play turn according to rules against the given opponent to give max
-	 * damage
+	 * Play turn according to rules against the given opponent with the card
+	 * selected by the strategy of the player
 	 * 
 	 * @DateModified 2018
 	 * @author yaser
 	 * @param opponentPlayer
 	 */
 	public void playTurn(Player opponentPlayer) {
-		logger.info(getName() + " is playing.");
-		Card pickedCard = getMaxDamageCardByMana();
-		if (pickedCard != null) {
-			// overloaded method is called
-			playTurn(opponentPlayer, pickedCard);
+		playNextCard(opponentPlayer);
+	}
+
+	/**
+	 * Plays the card selected by the strategy of the player against the given
+	 * opponent
+	 * 
+	 * @author yaser
+	 * @param opponentPlayer
+	 * @return false if the strategy ends the turn without playing a card
+	 */
+	public boolean playNextCard(Player opponentPlayer) {
+		int pickedCost = strategy.selectCard(handHistogram, getMana(), getHealth(), opponentPlayer.getHealth());
+		if (pickedCost < 0) {
+			return false;
+		}
+		if (CardHistogram.count(handHistogram, pickedCost) == 0) {
+			throw new IllegalStateException("Strategy has selected a card which is not in hand : " + pickedCost);
 		}
+		playCard(opponentPlayer, pickedCost);
+		return true;
 	}
 
 	/**
@@ -125,10 +237,7 @@ public class Player {
 	 * @return
 	 */
 	public boolean hasEnoughManaToPlay() {
-		if (getMaxDamageCardByMana() != null) {
-			return true;
-		}
-		return false;
+		return getMaxDamageCostByMana() > -1;
 	}
 
 	/**
@@ -139,21 +248,20 @@ public class Player {
 	 * @return
 	 */
 	public Card getMaxDamageCardByMana() {
-		Card pickedCard = new Card(-1);
-		if (!getPlayerHand().isEmpty()) {
-			for (Card card : getPlayerHand()) {
-				if ((card.getManaCost() > pickedCard.getManaCost()) && card.getManaCost() <= getMana()) {
-					pickedCard = card;
-				}
-			}
-		}
-		if (pickedCard.getManaCost() > -1) {
-			if (pickedCard.getManaCost() == 0) {
-				logger.info(getName() + " Special Rule 3. Dud Card!!!");
-			}
-			return pickedCard;
-		}
-		return null;
+		int pickedCost = getMaxDamageCostByMana();
+		return pickedCost > -1 ? Card.of(pickedCost) : null;
+	}
+
+	/**
+	 * Returns the mana cost of the card in the hand with the max damage by
+	 * player mana, -1 if no card can be played. Costs which are in hand and
+	 * affordable are masked and the highest set bit is the answer.
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public int getMaxDamageCostByMana() {
+		return CardHistogram.highestAffordable(handMask, getMana());
 	}
 
 	/**
@@ -165,17 +273,63 @@ public class Player {
 	 * @param pickedCard
 	 */
 	public void playTurn(Player opponent, Card pickedCard) {
+		playCard(opponent, pickedCard.getManaCost());
+	}
+
+	/**
+	 * Plays a card with the given mana cost from hand for opponent player
+	 * 
+	 * @author yaser
+	 * @param opponent
+	 * @param cost
+	 */
+	private void playCard(Player opponent, int cost) {
 		// Player has no enough mana
-		if (getMana() < pickedCard.getManaCost()) {
+		if (getMana() < cost) {
 			throw new InsufficientManaException();
 		}
+		playedCardCount++;
+		gameEventListener.cardPlayed(this, cost);
+		if (cost == 0) {
+			dudCardCount++;
+			gameEventListener.dudCard(this);
+			SpecialRuleFlightEvent.emit(SpecialRuleFlightEvent.DUD_CARD, name, cost, getHealth());
+		}
 		// opponent takes damage
-		opponent.receiveDamage(pickedCard.getManaCost());
+		opponent.receiveDamage(cost);
 		// remove picked card from hand
-		getPlayerHand().remove(pickedCard);
+		removeFromHand(cost);
 		// decrease mana value
-		setMana(getMana() - pickedCard.getManaCost());
-		opponent.displayPlayer();
+		setMana(getMana() - cost);
+	}
+
+	/**
+	 * Adds a card with the given mana cost to hand
+	 * 
+	 * @author yaser
+	 * @param cost
+	 */
+	private void addToHand(int cost) {
+		handHistogram = CardHistogram.add(handHistogram, cost);
+		handMask |= 1 << cost;
+		handSize++;
+	}
+
+	/**
+	 * Removes one card with the given mana cost from hand, if there is any
+	 * 
+	 * @author yaser
+	 * @param cost
+	 */
+	private void removeFromHand(int cost) {
+		if (cost < 0 || cost > CardHistogram.MAX_COST || CardHistogram.count(handHistogram, cost) == 0) {
+			return;
+		}
+		handHistogram = CardHistogram.remove(handHistogram, cost);
+		if (CardHistogram.count(handHistogram, cost) == 0) {
+			handMask &= ~(1 << cost);
+		}
+		handSize--;
 	}
 
 	/**
@@ -187,20 +341,7 @@ public class Player {
 	 */
 	public void receiveDamage(int damage) {
 		setHealth(getHealth() - damage);
-		logger.info(getName() + " player's health decreased to : " + getHealth());
-	}
-
-	/*Just to display players info*/
-	private void displayPlayer() {
-		String trimmer = " ----- ";
-		StringBuilder sb = new StringBuilder();
-		String newLine = "\n";
-		sb.append(newLine);
-		sb.append(trimmer + getName() + " Health         : " + getHealth() + trimmer).append(newLine);
-		sb.append(trimmer + getName() + " Mana           : " + getMana() + trimmer).append(newLine);
-		sb.append(trimmer + getName() + " Cards in Hand  : " + getSizeOfPlayerHand() + trimmer).append(newLine);
-		sb.append(trimmer + getName() + " Cards in Deck  : " + getSizeOfPlayerDeck() + trimmer).append(newLine);
-		logger.info(sb.toString());
+		gameEventListener.damageReceived(this, damage, getHealth());
 	}
 
 	/**
@@ -211,7 +352,7 @@ public class Player {
 	 * @return
 	 */
 	public int getSizeOfPlayerHand() {
-		return getPlayerHand().size();
+		return handSize;
 	}
 
 	/**
@@ -222,7 +363,7 @@ public class Player {
 	 * @return
 	 */
 	public int getSizeOfPlayerDeck() {
-		return getPlayerDeck().size();
+		return deck.size();
 	}
 
 	/**
@@ -245,6 +386,23 @@ public class Player {
 		this.health = health;
 	}
 
+	public int getStartingHealth() {
+		return startingHealth;
+	}
+
+	/**
+	 * Sets the health which {@link #reset()} gives to the player
+	 * 
+	 * @author yaser
+	 * @param startingHealth
+	 */
+	public void setStartingHealth(int startingHealth) {
+		if (startingHealth < 1) {
+			throw new IllegalArgumentException("Starting health must be positive : " + startingHealth);
+		}
+		this.startingHealth = startingHealth;
+	}
+
 	public int getMana() {
 		return mana;
 	}
@@ -253,20 +411,154 @@ public class Player {
 		this.mana = mana;
 	}
 
+	/**
+	 * Returns the cards in hand, see {@link CardHistogram}
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getHandHistogram() {
+		return handHistogram;
+	}
+
+	/**
+	 * Replaces the cards in hand with the given histogram, see
+	 * {@link CardHistogram}
+	 * 
+	 * @author yaser
+	 * @param handHistogram
+	 */
+	public void setHandHistogram(long handHistogram) {
+		this.handHistogram = handHistogram;
+		this.handMask = CardHistogram.mask(handHistogram);
+		this.handSize = CardHistogram.size(handHistogram);
+	}
+
+	/**
+	 * Returns the cards in deck as a histogram, see {@link CardHistogram}
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getDeckHistogram() {
+		return deck.getHistogram();
+	}
+
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	public void setStrategy(Strategy strategy) {
+		if (strategy == null) {
+			throw new IllegalArgumentException("Strategy can not be null");
+		}
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Returns a copy of the cards in deck in draw order. Changing the returned
+	 * list does not change the deck.
+	 * 
+	 * @author yaser
+	 * @return
+	 */
 	public List<Card> getPlayerDeck() {
-		return playerDeck;
+		return deck.getCards();
 	}
 
+	/**
+	 * Replaces the cards in deck with the given cards, which are drawn in
+	 * the given order for the same random values
+	 * 
+	 * @author yaser
+	 * @param playerDeck
+	 */
 	public void setPlayerDeck(List<Card> playerDeck) {
-		this.playerDeck = playerDeck;
+		deck.setCards(playerDeck);
+	}
+
+	/**
+	 * Returns the deck of the player, which can be reset and reused for
+	 * another game
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public Deck getDeck() {
+		return deck;
 	}
 
+	/**
+	 * Returns a copy of the cards in hand ordered by mana cost. Changing the
+	 * returned list does not change the hand.
+	 * 
+	 * @author yaser
+	 * @return
+	 */
 	public List<Card> getPlayerHand() {
+		List<Card> playerHand = new ArrayList<>(handSize);
+		for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+			for (int i = 0; i < CardHistogram.count(handHistogram, cost); i++) {
+				playerHand.add(Card.of(cost));
+			}
+		}
 		return playerHand;
 	}
 
+	/**
+	 * Replaces the cards in hand with the given cards
+	 * 
+	 * @author yaser
+	 * @param playerHand
+	 */
 	public void setPlayerHand(List<Card> playerHand) {
-		this.playerHand = playerHand;
+		handHistogram = CardHistogram.EMPTY;
+		handMask = 0;
+		handSize = 0;
+		for (Card card : playerHand) {
+			addToHand(card.getManaCost());
+		}
+	}
+
+	public int getBleedOutCount() {
+		return bleedOutCount;
+	}
+
+	public int getOverloadCount() {
+		return overloadCount;
+	}
+
+	public int getPlayedCardCount() {
+		return playedCardCount;
+	}
+
+	public int getDudCardCount() {
+		return dudCardCount;
+	}
+
+	public GameRandom getRandomNumber() {
+		return randomNumber;
+	}
+
+	public void setRandomNumber(GameRandom randomNumber) {
+		if (randomNumber == null) {
+			throw new IllegalArgumentException("Random generator can not be null");
+		}
+		this.randomNumber = randomNumber;
+	}
+
+	public GameEventListener getGameEventListener() {
+		return gameEventListener;
+	}
+
+	/**
+	 * Sets the listener of the player events, null means no listener
+	 * 
+	 * @author yaser
+	 * @param gameEventListener
+	 */
+	public void setGameEventListener(GameEventListener gameEventListener) {
+		this.gameEventListener = gameEventListener == null ? GameEventListener.NO_OP : gameEventListener;
 	}
 
 	public String getName() {
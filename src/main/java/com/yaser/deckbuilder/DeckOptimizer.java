@@ -0,0 +1,384 @@
+package com.yaser.deckbuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.Strategy;
+import com.yaser.tournament.Entrant;
+
+/**
+ * Genetic search of a deck which beats a reference deck. Candidates are card
+ * histograms with the size of the reference deck; children take the number
+ * of cards of each mana cost from one of two parents chosen by tournament
+ * selection, and mutations move cards from one mana cost to another.
+ * <p>
+ * The fitness of a deck is the ratio of games it wins against the reference
+ * deck, half of them in each seat. Every deck plays the same seeds, so the
+ * fitness of a deck is always the same and is cached by its histogram :
+ * a deck which appears again is never played again. The new decks of a
+ * generation are played in parallel on a {@link ForkJoinPool}.
+ *
+ * @author yaser
+ *
+ */
+public class DeckOptimizer {
+	public static final int DEFAULT_POPULATION_SIZE = 32;
+	public static final int DEFAULT_GAMES_PER_SEAT = 2000;
+	public static final int DEFAULT_ELITES = 2;
+	/**
+	 * Default highest mana cost of a card, the highest mana of a turn
+	 */
+	public static final int DEFAULT_MAX_COST = Player.MAX_MANA_SLOTS - 1;
+	private static final int SELECTION_SIZE = 3;
+
+	private final ForkJoinPool pool;
+	private final long referenceDeck;
+	private final int deckSize;
+	private final Map<Long, Double> fitnessCache = new HashMap<>();
+	private Strategy strategy = GreedyStrategy.INSTANCE;
+	private int populationSize = DEFAULT_POPULATION_SIZE;
+	private int gamesPerSeat = DEFAULT_GAMES_PER_SEAT;
+	private int elites = DEFAULT_ELITES;
+	private int maxCost = DEFAULT_MAX_COST;
+	private long seed = new GameRandom().nextLong();
+	private long evaluations = 0;
+	private long cacheHits = 0;
+	private int generations = 0;
+
+	/**
+	 * Creates an optimizer against the given deck on the common pool
+	 *
+	 * @param referenceDeckCosts
+	 *            mana costs of the cards of the reference deck
+	 */
+	public DeckOptimizer(int[] referenceDeckCosts) {
+		this(ForkJoinPool.commonPool(), referenceDeckCosts);
+	}
+
+	/**
+	 * Creates an optimizer against the given deck on the given pool
+	 *
+	 * @param pool
+	 * @param referenceDeckCosts
+	 *            mana costs of the cards of the reference deck
+	 */
+	public DeckOptimizer(ForkJoinPool pool, int[] referenceDeckCosts) {
+		this.pool = pool;
+		this.referenceDeck = CardHistogram.of(referenceDeckCosts);
+		this.deckSize = referenceDeckCosts.length;
+	}
+
+	/**
+	 * Searches a deck until the given number of decks are played or the given
+	 * time is over. The budget is checked between generations and no more
+	 * decks than the given number are played. The first generation starts
+	 * with the reference deck, which is scored before any other deck, so
+	 * there is always a deck found.
+	 *
+	 * @author yaser
+	 * @param maxEvaluations
+	 *            number of new decks which can be played, at least 1
+	 * @param timeLimitMillis
+	 * @return the best deck found, the reference deck if no deck beats it
+	 */
+	public ScoredDeck optimize(long maxEvaluations, long timeLimitMillis) {
+		if (maxEvaluations < 1) {
+			throw new IllegalArgumentException("Max evaluations must be positive : " + maxEvaluations);
+		}
+		long deadline = System.currentTimeMillis() + timeLimitMillis;
+		long evaluationLimit = evaluations + maxEvaluations;
+		GameRandom random = new GameRandom(seed);
+		List<Long> population = new ArrayList<>(populationSize);
+		population.add(referenceDeck);
+		while (population.size() < populationSize) {
+			population.add(randomDeck(random));
+		}
+		ScoredDeck best = null;
+		for (;;) {
+			List<ScoredDeck> scored = evaluate(population, evaluationLimit - evaluations);
+			generations++;
+			scored.sort(Comparator.comparingDouble(ScoredDeck::getFitness).reversed());
+			if (!scored.isEmpty() && (best == null || scored.get(0).getFitness() > best.getFitness())) {
+				best = scored.get(0);
+			}
+			if (evaluations >= evaluationLimit || System.currentTimeMillis() >= deadline || scored.isEmpty()) {
+				return best;
+			}
+			population = new ArrayList<>(populationSize);
+			for (int elite = 0; elite < Math.min(elites, scored.size()); elite++) {
+				population.add(scored.get(elite).getHistogram());
+			}
+			while (population.size() < populationSize) {
+				long child = crossover(select(scored, random), select(scored, random), random);
+				do {
+					child = mutate(child, random);
+				} while (random.nextInt(2) == 0);
+				population.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Returns the fitness of the given deck, playing it only if it is not
+	 * cached
+	 *
+	 * @author yaser
+	 * @param deck
+	 *            see {@link CardHistogram}
+	 * @return
+	 */
+	public double getFitness(long deck) {
+		List<ScoredDeck> scored = evaluate(Collections.singletonList(deck), 1);
+		return scored.get(0).getFitness();
+	}
+
+	/**
+	 * Scores the given decks. Decks which are not cached are played in
+	 * parallel, up to the given number; decks over it are left out.
+	 */
+	private List<ScoredDeck> evaluate(List<Long> decks, long maxNewDecks) {
+		Set<Long> newDecks = new LinkedHashSet<>();
+		for (long deck : decks) {
+			if (fitnessCache.containsKey(deck)) {
+				cacheHits++;
+			} else if (newDecks.size() < maxNewDecks) {
+				newDecks.add(deck);
+			}
+		}
+		if (!newDecks.isEmpty()) {
+			List<FitnessTask> tasks = new ArrayList<>(newDecks.size());
+			for (long deck : newDecks) {
+				tasks.add(new FitnessTask(deck));
+			}
+			pool.invoke(new RecursiveTask<Void>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected Void compute() {
+					invokeAll(tasks);
+					return null;
+				}
+			});
+			for (FitnessTask task : tasks) {
+				fitnessCache.put(task.deck, task.getRawResult());
+			}
+			evaluations += tasks.size();
+		}
+		List<ScoredDeck> scored = new ArrayList<>(decks.size());
+		for (long deck : decks) {
+			Double fitness = fitnessCache.get(deck);
+			if (fitness != null) {
+				scored.add(new ScoredDeck(deck, fitness));
+			}
+		}
+		return scored;
+	}
+
+	private long randomDeck(GameRandom random) {
+		long deck = CardHistogram.EMPTY;
+		while (CardHistogram.size(deck) < deckSize) {
+			deck = addRandomCard(deck, random);
+		}
+		return deck;
+	}
+
+	/**
+	 * Returns the best of a few random decks of the scored decks
+	 */
+	private long select(List<ScoredDeck> scored, GameRandom random) {
+		ScoredDeck selected = scored.get(random.nextInt(scored.size()));
+		for (int i = 1; i < SELECTION_SIZE; i++) {
+			ScoredDeck other = scored.get(random.nextInt(scored.size()));
+			if (other.getFitness() > selected.getFitness()) {
+				selected = other;
+			}
+		}
+		return selected.getHistogram();
+	}
+
+	/**
+	 * Takes the number of cards of each mana cost from one of the parents and
+	 * adds or removes random cards to fix the size of the deck
+	 */
+	private long crossover(long first, long second, GameRandom random) {
+		long child = CardHistogram.EMPTY;
+		for (int cost = 0; cost <= maxCost; cost++) {
+			int count = CardHistogram.count(random.nextInt(2) == 0 ? first : second, cost);
+			for (int card = 0; card < count; card++) {
+				child = CardHistogram.add(child, cost);
+			}
+		}
+		while (CardHistogram.size(child) > deckSize) {
+			child = removeRandomCard(child, random);
+		}
+		while (CardHistogram.size(child) < deckSize) {
+			child = addRandomCard(child, random);
+		}
+		return child;
+	}
+
+	/**
+	 * Changes the mana cost of a random card
+	 */
+	private long mutate(long deck, GameRandom random) {
+		return addRandomCard(removeRandomCard(deck, random), random);
+	}
+
+	private long addRandomCard(long deck, GameRandom random) {
+		for (;;) {
+			int cost = random.nextInt(maxCost + 1);
+			if (CardHistogram.count(deck, cost) < CardHistogram.MAX_COUNT) {
+				return CardHistogram.add(deck, cost);
+			}
+		}
+	}
+
+	private long removeRandomCard(long deck, GameRandom random) {
+		int card = random.nextInt(CardHistogram.size(deck));
+		int cost = 0;
+		while (card >= CardHistogram.count(deck, cost)) {
+			card -= CardHistogram.count(deck, cost);
+			cost++;
+		}
+		return CardHistogram.remove(deck, cost);
+	}
+
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Returns the number of times a deck was scored from the cache
+	 *
+	 * @return
+	 */
+	public long getCacheHits() {
+		return cacheHits;
+	}
+
+	public int getGenerations() {
+		return generations;
+	}
+
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Sets the strategy of both the candidate decks and the reference deck
+	 *
+	 * @param strategy
+	 */
+	public void setStrategy(Strategy strategy) {
+		if (strategy == null) {
+			throw new IllegalArgumentException("Strategy can not be null");
+		}
+		this.strategy = strategy;
+		fitnessCache.clear();
+	}
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 2) {
+			throw new IllegalArgumentException("Population size must be at least 2 : " + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+
+	public int getGamesPerSeat() {
+		return gamesPerSeat;
+	}
+
+	public void setGamesPerSeat(int gamesPerSeat) {
+		if (gamesPerSeat < 1) {
+			throw new IllegalArgumentException("Games per seat must be positive : " + gamesPerSeat);
+		}
+		this.gamesPerSeat = gamesPerSeat;
+		fitnessCache.clear();
+	}
+
+	public int getElites() {
+		return elites;
+	}
+
+	/**
+	 * Sets the number of best decks which are kept in the next generation
+	 *
+	 * @param elites
+	 */
+	public void setElites(int elites) {
+		this.elites = elites;
+	}
+
+	public int getMaxCost() {
+		return maxCost;
+	}
+
+	public void setMaxCost(int maxCost) {
+		if (maxCost < 0 || maxCost > CardHistogram.MAX_COST) {
+			throw new IllegalArgumentException("Mana cost must be between 0 and " + CardHistogram.MAX_COST + " : "
+					+ maxCost);
+		}
+		this.maxCost = maxCost;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Sets the seed of the played games and of the search
+	 *
+	 * @param seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		fitnessCache.clear();
+	}
+
+	/**
+	 * Plays a deck against the reference deck in both seats with the same
+	 * seeds
+	 */
+	private class FitnessTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+		private final long deck;
+
+		FitnessTask(long deck) {
+			this.deck = deck;
+		}
+
+		@Override
+		protected Double compute() {
+			Entrant candidate = new Entrant("Candidate", strategy, CardHistogram.costs(deck));
+			Entrant reference = new Entrant("Reference", strategy, CardHistogram.costs(referenceDeck));
+			Simulator first = new Simulator(pool, candidate::newPlayer, reference::newPlayer);
+			Simulator second = new Simulator(pool, reference::newPlayer, candidate::newPlayer);
+			first.setMasterSeed(seed);
+			second.setMasterSeed(seed);
+			RecursiveTask<SimulationResult> asFirst = first.newTask(0, gamesPerSeat);
+			RecursiveTask<SimulationResult> asSecond = second.newTask(0, gamesPerSeat);
+			ForkJoinTask.invokeAll(asFirst, asSecond);
+			return (double) (asFirst.getRawResult().getWins(0) + asSecond.getRawResult().getWins(1))
+					/ (2 * gamesPerSeat);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.yaser.deckbuilder;
+
+import java.util.Arrays;
+
+import com.yaser.CardHistogram;
+
+/**
+ * Deck with its fitness : the ratio of games it wins against the reference
+ * deck of a {@link DeckOptimizer}
+ * 
+ * @author yaser
+ *
+ */
+public class ScoredDeck {
+	private final long histogram;
+	private final double fitness;
+
+	public ScoredDeck(long histogram, double fitness) {
+		this.histogram = histogram;
+		this.fitness = fitness;
+	}
+
+	/**
+	 * Returns the cards of the deck, see {@link CardHistogram}
+	 * 
+	 * @return
+	 */
+	public long getHistogram() {
+		return histogram;
+	}
+
+	/**
+	 * Returns the mana costs of the cards of the deck in ascending order
+	 * 
+	 * @return
+	 */
+	public int[] getCosts() {
+		return CardHistogram.costs(histogram);
+	}
+
+	public double getFitness() {
+		return fitness;
+	}
+
+	@Override
+	public String toString() {
+		return "ScoredDeck [costs=" + Arrays.toString(getCosts()) + ", fitness=" + fitness + "]";
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Automatic search of strong decks
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.deckbuilder;
@@ -0,0 +1,319 @@
+package com.yaser.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.yaser.GameRandom;
+import com.yaser.simulation.SimulationResult;
+
+/**
+ * Splits the games of a run into ranges of game indexes and plays them on
+ * {@link Worker} processes which connect over a loopback socket. Every
+ * worker gets one range at a time; the range of a worker which disconnects
+ * or does not answer in time is given to another worker. Games are seeded by
+ * their index and the results of the ranges are merged in range order, so a
+ * distributed run gives exactly the result of a
+ * {@link com.yaser.simulation.Simulator} run with the same master seed.
+ *
+ * @author yaser
+ *
+ */
+public class Coordinator {
+	public static final int DEFAULT_WORKERS = 2;
+	public static final long DEFAULT_RANGE_SIZE = 1 << 16;
+	public static final int DEFAULT_BATCH_SIZE = 256;
+	public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 60_000;
+	public static final long DEFAULT_RESULT_TIMEOUT_MILLIS = 600_000;
+	private static final long POLL_MILLIS = 50;
+
+	private final long masterSeed;
+	private int workers = DEFAULT_WORKERS;
+	private long rangeSize = DEFAULT_RANGE_SIZE;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+	private long resultTimeoutMillis = DEFAULT_RESULT_TIMEOUT_MILLIS;
+	private WorkerLauncher workerLauncher;
+	private final AtomicInteger reassignedRanges = new AtomicInteger();
+
+	/**
+	 * Creates a coordinator with a random master seed
+	 */
+	public Coordinator() {
+		this(new GameRandom().nextLong());
+	}
+
+	public Coordinator(long masterSeed) {
+		this.masterSeed = masterSeed;
+	}
+
+	/**
+	 * Launches the workers, plays the given number of games on them and
+	 * returns the merged result. Workers are shut down at the end.
+	 *
+	 * @author yaser
+	 * @param numberOfGames
+	 * @return
+	 * @throws IOException
+	 */
+	public SimulationResult run(long numberOfGames) throws IOException {
+		if (numberOfGames < 0) {
+			throw new IllegalArgumentException("Number of games can not be negative : " + numberOfGames);
+		}
+		Run run = new Run();
+		for (long from = 0; from < numberOfGames; from += rangeSize) {
+			run.pending.add(new long[] { from, Math.min(from + rangeSize, numberOfGames) });
+		}
+		run.rangeCount = run.pending.size();
+		if (run.rangeCount == 0) {
+			return new SimulationResult();
+		}
+		// local workers share the processors of this machine
+		ProcessWorkerLauncher ownLauncher = workerLauncher == null
+				? new ProcessWorkerLauncher(Math.max(1, Runtime.getRuntime().availableProcessors() / workers))
+				: null;
+		WorkerLauncher launcher = ownLauncher == null ? workerLauncher : ownLauncher;
+		try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+			InetSocketAddress address = new InetSocketAddress(server.getInetAddress(), server.getLocalPort());
+			Thread acceptor = new Thread(() -> accept(server, run), "coordinator-acceptor");
+			acceptor.setDaemon(true);
+			acceptor.start();
+			for (int worker = 0; worker < workers; worker++) {
+				launcher.launch(address);
+			}
+			long connectDeadline = System.currentTimeMillis() + connectTimeoutMillis;
+			synchronized (run) {
+				while (run.results.size() < run.rangeCount) {
+					boolean connecting = run.connected < workers && System.currentTimeMillis() <= connectDeadline;
+					if (run.connected == 0 && !connecting) {
+						throw new IllegalStateException("No worker has connected in " + connectTimeoutMillis
+								+ " ms");
+					}
+					if (run.connected > 0 && run.connected == run.dead && !connecting) {
+						throw new IllegalStateException("All workers have died, " + run.results.size() + " of "
+								+ run.rangeCount + " ranges are played");
+					}
+					try {
+						run.wait(POLL_MILLIS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException("Interrupted while waiting for the workers");
+					}
+				}
+			}
+		} finally {
+			run.finished = true;
+			if (ownLauncher != null) {
+				ownLauncher.close();
+			}
+		}
+		SimulationResult merged = new SimulationResult();
+		for (SimulationResult result : run.results.values()) {
+			merged.merge(result);
+		}
+		return merged;
+	}
+
+	private void accept(ServerSocket server, Run run) {
+		try {
+			for (;;) {
+				Socket socket = server.accept();
+				int worker;
+				synchronized (run) {
+					worker = ++run.connected;
+				}
+				Thread handler = new Thread(() -> serve(socket, run), "coordinator-worker-" + worker);
+				handler.setDaemon(true);
+				handler.start();
+			}
+		} catch (SocketException e) {
+			// server is closed at the end of the run
+		} catch (IOException e) {
+			// no more workers can connect, the run fails if all workers die
+		}
+	}
+
+	/**
+	 * Gives ranges to one worker until all ranges are played or the worker
+	 * fails
+	 */
+	private void serve(Socket socket, Run run) {
+		long[] range = null;
+		try {
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, resultTimeoutMillis));
+			DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			if (input.readInt() != Protocol.MAGIC || input.readByte() != Protocol.VERSION) {
+				throw new IOException("Not a worker");
+			}
+			output.writeByte(Protocol.JOB);
+			output.writeLong(masterSeed);
+			output.writeInt(batchSize);
+			output.flush();
+			while (!run.finished) {
+				range = run.pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (range == null) {
+					continue;
+				}
+				output.writeByte(Protocol.RANGE);
+				output.writeLong(range[0]);
+				output.writeLong(range[1]);
+				output.flush();
+				if (input.readByte() != Protocol.RESULT || input.readLong() != range[0]
+						|| input.readLong() != range[1]) {
+					throw new IOException("Worker has sent an unexpected message");
+				}
+				SimulationResult result = SimulationResult.read(input);
+				synchronized (run) {
+					run.results.put(range[0], result);
+					run.notifyAll();
+				}
+				range = null;
+			}
+			output.writeByte(Protocol.SHUTDOWN);
+			output.flush();
+		} catch (IOException | InterruptedException e) {
+			if (range != null) {
+				reassignedRanges.incrementAndGet();
+				run.pending.addFirst(range);
+			}
+			synchronized (run) {
+				run.dead++;
+				run.notifyAll();
+			}
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// worker is gone anyway
+			}
+		}
+	}
+
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	/**
+	 * Returns the number of ranges which were given to another worker after
+	 * their worker had failed
+	 *
+	 * @return
+	 */
+	public int getReassignedRanges() {
+		return reassignedRanges.get();
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public void setWorkers(int workers) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("Number of workers must be positive : " + workers);
+		}
+		this.workers = workers;
+	}
+
+	public long getRangeSize() {
+		return rangeSize;
+	}
+
+	/**
+	 * Sets the number of games given to a worker at a time. The games of the
+	 * range of a failed worker are played again by another worker.
+	 *
+	 * @param rangeSize
+	 */
+	public void setRangeSize(long rangeSize) {
+		if (rangeSize < 1) {
+			throw new IllegalArgumentException("Range size must be positive : " + rangeSize);
+		}
+		this.rangeSize = rangeSize;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the batch size of the simulators of the workers
+	 *
+	 * @param batchSize
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive : " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	public long getConnectTimeoutMillis() {
+		return connectTimeoutMillis;
+	}
+
+	public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+		this.connectTimeoutMillis = connectTimeoutMillis;
+	}
+
+	public long getResultTimeoutMillis() {
+		return resultTimeoutMillis;
+	}
+
+	/**
+	 * Sets how long a worker may play a range, a worker which does not answer
+	 * in time is taken as dead
+	 *
+	 * @param resultTimeoutMillis
+	 */
+	public void setResultTimeoutMillis(long resultTimeoutMillis) {
+		if (resultTimeoutMillis < 1) {
+			throw new IllegalArgumentException("Result timeout must be positive : " + resultTimeoutMillis);
+		}
+		this.resultTimeoutMillis = resultTimeoutMillis;
+	}
+
+	public WorkerLauncher getWorkerLauncher() {
+		return workerLauncher;
+	}
+
+	/**
+	 * Sets how workers are started, null starts every worker as a new JVM
+	 * with {@link ProcessWorkerLauncher} and an equal share of the processors
+	 *
+	 * @param workerLauncher
+	 */
+	public void setWorkerLauncher(WorkerLauncher workerLauncher) {
+		this.workerLauncher = workerLauncher;
+	}
+
+	/**
+	 * State of one run shared by the handlers of the workers, guarded by
+	 * itself
+	 */
+	private static class Run {
+		private final BlockingDeque<long[]> pending = new LinkedBlockingDeque<>();
+		/**
+		 * Results by the start of their range
+		 */
+		private final Map<Long, SimulationResult> results = new TreeMap<>();
+		private int rangeCount;
+		private int connected = 0;
+		private int dead = 0;
+		private volatile boolean finished = false;
+	}
+}
@@ -0,0 +1,71 @@
+package com.yaser.distributed;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts every worker as a new JVM on this machine, with the class path of
+ * this JVM
+ *
+ * @author yaser
+ *
+ */
+public class ProcessWorkerLauncher implements WorkerLauncher, Closeable {
+	private final List<Process> processes = new ArrayList<>();
+	private final int threadsPerWorker;
+
+	/**
+	 * Creates a launcher whose workers use all processors, for one worker on
+	 * this machine. Several workers must be given their share of the
+	 * processors, see {@link #ProcessWorkerLauncher(int)}.
+	 */
+	public ProcessWorkerLauncher() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a launcher whose workers play on the given number of threads
+	 *
+	 * @param threadsPerWorker
+	 */
+	public ProcessWorkerLauncher(int threadsPerWorker) {
+		if (threadsPerWorker < 1) {
+			throw new IllegalArgumentException("Threads per worker must be positive : " + threadsPerWorker);
+		}
+		this.threadsPerWorker = threadsPerWorker;
+	}
+
+	@Override
+	public synchronized void launch(InetSocketAddress coordinator) throws IOException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				Worker.class.getName(), coordinator.getHostString(), Integer.toString(coordinator.getPort()),
+				Integer.toString(threadsPerWorker));
+		builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		processes.add(builder.start());
+	}
+
+	/**
+	 * Returns the started worker processes
+	 *
+	 * @return
+	 */
+	public synchronized List<Process> getProcesses() {
+		return new ArrayList<>(processes);
+	}
+
+	/**
+	 * Kills the workers which have not exited yet
+	 */
+	@Override
+	public synchronized void close() {
+		for (Process process : processes) {
+			process.destroy();
+		}
+	}
+}
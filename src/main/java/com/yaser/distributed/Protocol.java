@@ -0,0 +1,36 @@
+package com.yaser.distributed;
+
+/**
+ * Messages between the {@link Coordinator} and a {@link Worker}. A worker
+ * connects and writes {@link #MAGIC} and {@link #VERSION}. The coordinator
+ * answers with a {@link #JOB}, then sends one {@link #RANGE} at a time and
+ * the worker answers every range with a {@link #RESULT}. The coordinator
+ * ends with {@link #SHUTDOWN}.
+ *
+ * @author yaser
+ *
+ */
+final class Protocol {
+	static final int MAGIC = 0x54594457;
+	static final byte VERSION = 1;
+	/**
+	 * Master seed and batch size of the run
+	 */
+	static final byte JOB = 1;
+	/**
+	 * Start (inclusive) and end (exclusive) of the game indexes to play
+	 */
+	static final byte RANGE = 2;
+	/**
+	 * No more ranges, the worker exits
+	 */
+	static final byte SHUTDOWN = 3;
+	/**
+	 * Start and end of the played range and its
+	 * {@link com.yaser.simulation.SimulationResult}
+	 */
+	static final byte RESULT = 4;
+
+	private Protocol() {
+	}
+}
@@ -0,0 +1,99 @@
+package com.yaser.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ForkJoinPool;
+
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+/**
+ * Worker process of a distributed run : connects to the {@link Coordinator},
+ * plays the ranges of games it is given on its own pool and sends back their
+ * results until it is shut down. Workers play the default players.
+ * <p>
+ * Arguments : host and port of the coordinator, and optionally the number of
+ * threads.
+ *
+ * @author yaser
+ *
+ */
+public class Worker {
+	/**
+	 * Most threads of a {@link ForkJoinPool}
+	 */
+	private static final int MAX_THREADS = 0x7FFF;
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 1 ? parseNumber(args[1], 1, 0xFFFF) : -1;
+		int threads = args.length > 2 ? parseNumber(args[2], 1, MAX_THREADS)
+				: Runtime.getRuntime().availableProcessors();
+		if (port < 0 || threads < 0) {
+			System.err.println("Usage : Worker <host> <port> [threads]");
+			System.exit(2);
+		}
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try (Socket socket = new Socket(args[0], port)) {
+			run(socket, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the given number, -1 if it is not a number from min to max
+	 */
+	private static int parseNumber(String number, int min, int max) {
+		try {
+			int value = Integer.parseInt(number);
+			return value >= min && value <= max ? value : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Plays the ranges sent over the given connection until the coordinator
+	 * shuts the worker down
+	 *
+	 * @author yaser
+	 * @param socket
+	 * @param pool
+	 * @throws IOException
+	 */
+	public static void run(Socket socket, ForkJoinPool pool) throws IOException {
+		socket.setTcpNoDelay(true);
+		DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		output.writeInt(Protocol.MAGIC);
+		output.writeByte(Protocol.VERSION);
+		output.flush();
+		if (input.readByte() != Protocol.JOB) {
+			throw new IOException("Coordinator has not sent a job");
+		}
+		Simulator simulator = new Simulator(pool);
+		simulator.setMasterSeed(input.readLong());
+		simulator.setBatchSize(input.readInt());
+		for (;;) {
+			byte message = input.readByte();
+			if (message == Protocol.SHUTDOWN) {
+				return;
+			}
+			if (message != Protocol.RANGE) {
+				throw new IOException("Unknown message from coordinator : " + message);
+			}
+			long from = input.readLong();
+			long to = input.readLong();
+			SimulationResult result = pool.invoke(simulator.newTask(from, to));
+			output.writeByte(Protocol.RESULT);
+			output.writeLong(from);
+			output.writeLong(to);
+			result.write(output);
+			output.flush();
+		}
+	}
+}
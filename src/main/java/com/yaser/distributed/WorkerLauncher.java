@@ -0,0 +1,16 @@
+package com.yaser.distributed;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Starts a worker which connects to the coordinator at the given address
+ *
+ * @author yaser
+ *
+ */
+@FunctionalInterface
+public interface WorkerLauncher {
+
+	void launch(InetSocketAddress coordinator) throws IOException;
+}
@@ -0,0 +1,7 @@
+/**
+ * Simulation runs split over worker processes by a coordinator
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.distributed;
@@ -0,0 +1,18 @@
+package com.yaser.exceptions;
+
+/**
+ * Thrown when a simulation checkpoint can not be read or belongs to another
+ * run
+ */
+public class CheckpointException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public CheckpointException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.yaser.exceptions;
+
+/**
+ * Thrown when a game journal can not be read or does not match the replayed
+ * game
+ */
+public class JournalReplayException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public JournalReplayException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.yaser.exceptions;
+
+/**
+ * Thrown when a result file can not be read
+ */
+public class ResultFormatException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public ResultFormatException(String message) {
+		super(message);
+	}
+
+}
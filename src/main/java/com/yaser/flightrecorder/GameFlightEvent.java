@@ -0,0 +1,56 @@
+package com.yaser.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a played game, from the first turn to the win
+ *
+ * @author yaser
+ *
+ */
+@Name("com.yaser.Game")
+@Label("Game")
+@Category({ "Trendyol", "Game" })
+@Description("Game played from the first turn to the win")
+public final class GameFlightEvent extends Event {
+	@Label("Seed")
+	@Description("Seed of the game, 0 if it is not seeded")
+	private long seed;
+
+	@Label("First Player")
+	private String firstPlayer;
+
+	@Label("Second Player")
+	private String secondPlayer;
+
+	@Label("Winner")
+	private String winner;
+
+	@Label("Turns")
+	private int turns;
+
+	/**
+	 * Commits the event if it is recorded, the values are only taken then
+	 *
+	 * @author yaser
+	 * @param seed
+	 * @param firstPlayer
+	 * @param secondPlayer
+	 * @param winner
+	 * @param turns
+	 */
+	public void end(long seed, String firstPlayer, String secondPlayer, String winner, int turns) {
+		if (shouldCommit()) {
+			this.seed = seed;
+			this.firstPlayer = firstPlayer;
+			this.secondPlayer = secondPlayer;
+			this.winner = winner;
+			this.turns = turns;
+			commit();
+		}
+	}
+}
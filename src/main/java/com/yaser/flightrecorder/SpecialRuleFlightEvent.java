@@ -0,0 +1,58 @@
+package com.yaser.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a special rule applied to a player
+ *
+ * @author yaser
+ *
+ */
+@Name("com.yaser.SpecialRule")
+@Label("Special Rule")
+@Category({ "Trendyol", "Game" })
+@Description("Special rule applied to a player")
+public final class SpecialRuleFlightEvent extends Event {
+	public static final String BLEED_OUT = "Bleeding Out";
+	public static final String OVERLOAD = "Overload";
+	public static final String DUD_CARD = "Dud Card";
+
+	@Label("Rule")
+	private String rule;
+
+	@Label("Player")
+	private String player;
+
+	@Label("Mana Cost")
+	@Description("Mana cost of the dropped or played card, -1 for bleeding out")
+	private int manaCost;
+
+	@Label("Health")
+	@Description("Health of the player after the rule")
+	private int health;
+
+	/**
+	 * Records the rule if special rule events are recorded
+	 *
+	 * @author yaser
+	 * @param rule
+	 *            {@link #BLEED_OUT}, {@link #OVERLOAD} or {@link #DUD_CARD}
+	 * @param player
+	 * @param manaCost
+	 * @param health
+	 */
+	public static void emit(String rule, String player, int manaCost, int health) {
+		SpecialRuleFlightEvent event = new SpecialRuleFlightEvent();
+		if (event.shouldCommit()) {
+			event.rule = rule;
+			event.player = player;
+			event.manaCost = manaCost;
+			event.health = health;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.yaser.flightrecorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of one turn of a game
+ *
+ * @author yaser
+ *
+ */
+@Name("com.yaser.Turn")
+@Label("Turn")
+@Category({ "Trendyol", "Game" })
+@Description("Turn of a player : mana is filled, a card is picked and cards are played")
+public final class TurnFlightEvent extends Event {
+	@Label("Player")
+	private String player;
+
+	@Label("Turn")
+	@Description("Number of the turn in the game, starting from 1")
+	private int turn;
+
+	@Label("Mana Rolled")
+	private int manaRolled;
+
+	@Label("Cards Played")
+	private int cardsPlayed;
+
+	@Label("Damage Dealt")
+	private int damageDealt;
+
+	/**
+	 * Commits the event if it is recorded, the values are only taken then
+	 *
+	 * @author yaser
+	 * @param player
+	 * @param turn
+	 * @param manaRolled
+	 * @param cardsPlayed
+	 * @param damageDealt
+	 */
+	public void end(String player, int turn, int manaRolled, int cardsPlayed, int damageDealt) {
+		if (shouldCommit()) {
+			this.player = player;
+			this.turn = turn;
+			this.manaRolled = manaRolled;
+			this.cardsPlayed = cardsPlayed;
+			this.damageDealt = damageDealt;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Flight recorder events of games, turns and special rules
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.flightrecorder;
@@ -0,0 +1,225 @@
+package com.yaser.freeforall;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.yaser.GameEventListener;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+/**
+ * Game of {@link #MIN_PLAYERS} to {@link #MAX_PLAYERS} players where every
+ * player plays for itself. Players take turns in seat order with the rules
+ * of {@link com.yaser.GamePlay}; every card hits the opponent chosen by the
+ * {@link Targeting} of the game. A player whose health falls below 1 is out
+ * and the last player left wins.
+ * <p>
+ * Turn order is a {@link TurnRing}, so an eliminated player is dropped in
+ * constant time, and opponents are chosen from an {@link IndexedHeap} of
+ * healths, so a turn costs the same on a table of any size. A game of two
+ * players plays exactly as a {@link com.yaser.GamePlay} with the same seed.
+ *
+ * @author yaser
+ *
+ */
+public class FreeForAllGame {
+	public static final int MIN_PLAYERS = 2;
+	public static final int MAX_PLAYERS = 64;
+
+	private final Player[] players;
+	private final TurnRing turnOrder;
+	private final IndexedHeap targets;
+	private final long seed;
+	private final GameEventListener gameEventListener;
+	/**
+	 * Seats in the order they are eliminated
+	 */
+	private final int[] eliminated;
+	private int eliminatedCount = 0;
+	private Targeting targeting = Targeting.LOWEST_HEALTH;
+	private int turnCount = 0;
+	private Player winner;
+
+	/**
+	 * Creates a reproducible game, the first player starts
+	 *
+	 * @param players
+	 * @param seed
+	 */
+	public FreeForAllGame(List<Player> players, long seed) {
+		this(players, seed, GameEventListener.NO_OP);
+	}
+
+	/**
+	 * Creates a reproducible game which reports the events of the players to
+	 * the given listener. Every player gets a generator split from the seed in
+	 * seat order, then draws the starting hand.
+	 *
+	 * @param players
+	 * @param seed
+	 * @param gameEventListener
+	 */
+	public FreeForAllGame(List<Player> players, long seed, GameEventListener gameEventListener) {
+		if (players.size() < MIN_PLAYERS || players.size() > MAX_PLAYERS) {
+			throw new IllegalArgumentException("Number of players must be between " + MIN_PLAYERS + " and "
+					+ MAX_PLAYERS + " : " + players.size());
+		}
+		this.players = players.toArray(new Player[0]);
+		this.turnOrder = new TurnRing(this.players.length);
+		this.targets = new IndexedHeap(this.players.length);
+		this.eliminated = new int[this.players.length];
+		this.seed = seed;
+		this.gameEventListener = gameEventListener == null ? GameEventListener.NO_OP : gameEventListener;
+		GameRandom gameRandom = new GameRandom(seed);
+		for (Player player : this.players) {
+			player.setGameEventListener(this.gameEventListener);
+			player.setRandomNumber(gameRandom.split());
+		}
+		for (Player player : this.players) {
+			player.initForGame();
+		}
+	}
+
+	/**
+	 * Plays turns until one player is left
+	 *
+	 * @author yaser
+	 * @return the winner
+	 */
+	public Player play() {
+		if (winner != null) {
+			throw new IllegalStateException("Game is already played");
+		}
+		if (targeting != Targeting.NEXT_PLAYER) {
+			for (int seat = 0; seat < players.length; seat++) {
+				targets.add(seat, key(seat));
+			}
+		}
+		int current = 0;
+		while (turnOrder.size() > 1) {
+			current = playTurn(current);
+		}
+		winner = players[current];
+		gameEventListener.gameWon(winner);
+		return winner;
+	}
+
+	/**
+	 * Plays the turn of the given seat
+	 *
+	 * @return the seat of the next turn
+	 */
+	private int playTurn(int seat) {
+		Player player = players[seat];
+		turnCount++;
+		player.fillMana();
+		gameEventListener.turnStarted(player, player.getMana());
+		player.pickOneCard();
+		// player may have bled out while picking a card
+		if (player.getHealth() < 1) {
+			int next = turnOrder.next(seat);
+			eliminate(seat);
+			return next;
+		}
+		healthChanged(seat);
+		for (;;) {
+			int target = target(seat);
+			if (!player.playNextCard(players[target])) {
+				break;
+			}
+			if (players[target].getHealth() < 1) {
+				eliminate(target);
+				if (turnOrder.size() == 1) {
+					break;
+				}
+			} else {
+				healthChanged(target);
+			}
+		}
+		return turnOrder.next(seat);
+	}
+
+	private int target(int seat) {
+		return targeting == Targeting.NEXT_PLAYER ? turnOrder.next(seat) : targets.peekExcept(seat);
+	}
+
+	private int key(int seat) {
+		int health = players[seat].getHealth();
+		return targeting == Targeting.HIGHEST_HEALTH ? -health : health;
+	}
+
+	private void healthChanged(int seat) {
+		if (targets.contains(seat)) {
+			targets.update(seat, key(seat));
+		}
+	}
+
+	private void eliminate(int seat) {
+		turnOrder.remove(seat);
+		targets.remove(seat);
+		eliminated[eliminatedCount++] = seat;
+	}
+
+	/**
+	 * Returns the number of players left, the game is over when it is 1
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public int getAliveCount() {
+		return turnOrder.size();
+	}
+
+	/**
+	 * Returns the seats of the eliminated players, in the order they are
+	 * eliminated
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public int[] getEliminatedSeats() {
+		return Arrays.copyOf(eliminated, eliminatedCount);
+	}
+
+	/**
+	 * Returns the winner, null until {@link #play()} is finished
+	 *
+	 * @return
+	 */
+	public Player getWinner() {
+		return winner;
+	}
+
+	public Player getPlayer(int seat) {
+		return players[seat];
+	}
+
+	public int getNumberOfPlayers() {
+		return players.length;
+	}
+
+	public int getTurnCount() {
+		return turnCount;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public Targeting getTargeting() {
+		return targeting;
+	}
+
+	/**
+	 * Sets how players choose the opponent of a card, must be called before
+	 * {@link #play()}
+	 *
+	 * @param targeting
+	 */
+	public void setTargeting(Targeting targeting) {
+		if (targeting == null) {
+			throw new IllegalArgumentException("Targeting can not be null");
+		}
+		this.targeting = targeting;
+	}
+}
@@ -0,0 +1,140 @@
+package com.yaser.freeforall;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of seats by an int key, with the position of every seat in
+ * the heap, so the key of any seat is changed and any seat is removed in
+ * logarithmic time. Seats with the same key are ordered by seat.
+ *
+ * @author yaser
+ *
+ */
+final class IndexedHeap {
+	private final int[] heap;
+	/**
+	 * Index of every seat in the heap, -1 if the seat is not in the heap
+	 */
+	private final int[] position;
+	private final int[] keys;
+	private int size = 0;
+
+	IndexedHeap(int seats) {
+		heap = new int[seats];
+		position = new int[seats];
+		keys = new int[seats];
+		Arrays.fill(position, -1);
+	}
+
+	void add(int seat, int key) {
+		if (position[seat] >= 0) {
+			throw new IllegalArgumentException("Seat is already in the heap : " + seat);
+		}
+		keys[seat] = key;
+		heap[size] = seat;
+		position[seat] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * Changes the key of a seat which is in the heap
+	 */
+	void update(int seat, int key) {
+		int index = position[seat];
+		int old = keys[seat];
+		keys[seat] = key;
+		if (key < old) {
+			siftUp(index);
+		} else if (key > old) {
+			siftDown(index);
+		}
+	}
+
+	/**
+	 * Removes a seat if it is in the heap
+	 */
+	void remove(int seat) {
+		int index = position[seat];
+		if (index < 0) {
+			return;
+		}
+		position[seat] = -1;
+		int last = heap[--size];
+		if (index == size) {
+			return;
+		}
+		heap[index] = last;
+		position[last] = index;
+		siftDown(index);
+		siftUp(position[last]);
+	}
+
+	/**
+	 * Returns the seat with the lowest key other than the given seat, -1 if
+	 * there is none. The second lowest seat is a child of the root, so this is
+	 * constant time.
+	 */
+	int peekExcept(int seat) {
+		if (size == 0) {
+			return -1;
+		}
+		if (heap[0] != seat) {
+			return heap[0];
+		}
+		if (size == 1) {
+			return -1;
+		}
+		return size == 2 || less(1, 2) ? heap[1] : heap[2];
+	}
+
+	boolean contains(int seat) {
+		return position[seat] >= 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private boolean less(int i, int j) {
+		int a = heap[i];
+		int b = heap[j];
+		return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+	}
+
+	private void siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!less(index, parent)) {
+				return;
+			}
+			swap(index, parent);
+			index = parent;
+		}
+	}
+
+	private void siftDown(int index) {
+		for (;;) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				return;
+			}
+			if (child + 1 < size && less(child + 1, child)) {
+				child++;
+			}
+			if (!less(child, index)) {
+				return;
+			}
+			swap(index, child);
+			index = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		int a = heap[i];
+		int b = heap[j];
+		heap[i] = b;
+		heap[j] = a;
+		position[b] = i;
+		position[a] = j;
+	}
+}
@@ -0,0 +1,22 @@
+package com.yaser.freeforall;
+
+/**
+ * How a player of a free-for-all game chooses the opponent of a card
+ *
+ * @author yaser
+ *
+ */
+public enum Targeting {
+	/**
+	 * Opponent with the lowest health, the first in seat order on a tie
+	 */
+	LOWEST_HEALTH,
+	/**
+	 * Opponent with the highest health, the first in seat order on a tie
+	 */
+	HIGHEST_HEALTH,
+	/**
+	 * Next opponent in turn order
+	 */
+	NEXT_PLAYER
+}
@@ -0,0 +1,47 @@
+package com.yaser.freeforall;
+
+/**
+ * Turn order of the seats of a game as a circular doubly linked list kept in
+ * two arrays. Moving to the next seat and removing a seat take constant
+ * time. A removed seat keeps its links, so the next seat of a seat which has
+ * just been removed is still known.
+ *
+ * @author yaser
+ *
+ */
+final class TurnRing {
+	private final int[] next;
+	private final int[] previous;
+	private int size;
+
+	/**
+	 * Creates a ring of the seats from 0 to the given number, in ascending
+	 * order
+	 */
+	TurnRing(int seats) {
+		next = new int[seats];
+		previous = new int[seats];
+		for (int seat = 0; seat < seats; seat++) {
+			next[seat] = (seat + 1) % seats;
+			previous[seat] = (seat + seats - 1) % seats;
+		}
+		size = seats;
+	}
+
+	int next(int seat) {
+		return next[seat];
+	}
+
+	/**
+	 * Removes a seat which is in the ring
+	 */
+	void remove(int seat) {
+		next[previous[seat]] = next[seat];
+		previous[next[seat]] = previous[seat];
+		size--;
+	}
+
+	int size() {
+		return size;
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Free-for-all games of more than two players
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.freeforall;
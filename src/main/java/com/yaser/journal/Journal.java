@@ -0,0 +1,111 @@
+package com.yaser.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.yaser.GameEventListener;
+
+/**
+ * Journal of a simulation run in a directory. Every thread writes into its
+ * own {@link JournalWriter} and file, so threads never wait for each other.
+ * {@link #writer()} can be given to
+ * {@link com.yaser.simulation.Simulator#setGameEventListenerFactory(java.util.function.Supplier)}
+ * as {@code journal::writer}.
+ * 
+ * @author yaser
+ *
+ */
+public class Journal implements Closeable {
+	/**
+	 * Extension of the journal files
+	 */
+	public static final String FILE_EXTENSION = ".journal";
+
+	private final Path directory;
+	private final int segmentSize;
+	private final AtomicInteger nextFile = new AtomicInteger();
+	private final Queue<JournalWriter> writers = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<JournalWriter> threadWriter = ThreadLocal.withInitial(this::newWriter);
+	private volatile boolean closed = false;
+
+	public Journal(Path directory) throws IOException {
+		this(directory, JournalWriter.DEFAULT_SEGMENT_SIZE);
+	}
+
+	public Journal(Path directory, int segmentSize) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Returns the writer of the calling thread
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public GameEventListener writer() {
+		if (closed) {
+			throw new IllegalStateException("Journal is closed : " + directory);
+		}
+		return threadWriter.get();
+	}
+
+	private JournalWriter newWriter() {
+		Path file = directory.resolve("games-" + nextFile.getAndIncrement() + FILE_EXTENSION);
+		try {
+			JournalWriter writer = new JournalWriter(file, segmentSize);
+			writers.add(writer);
+			return writer;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the files written so far
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public List<Path> getFiles() {
+		List<Path> files = new ArrayList<>();
+		for (JournalWriter writer : writers) {
+			files.add(writer.getFile());
+		}
+		return files;
+	}
+
+	/**
+	 * Returns the total number of bytes written so far
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getSize() {
+		long size = 0;
+		for (JournalWriter writer : writers) {
+			size += writer.getSize();
+		}
+		return size;
+	}
+
+	/**
+	 * Closes all writers. Must be called after the threads have finished
+	 * writing.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		for (JournalWriter writer : writers) {
+			writer.close();
+		}
+	}
+}
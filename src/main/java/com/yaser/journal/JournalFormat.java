@@ -0,0 +1,91 @@
+package com.yaser.journal;
+
+/**
+ * Layout of a journal file. A file starts with {@link #MAGIC} and
+ * {@link #VERSION}, followed by the games one after another.
+ * <p>
+ * Every event is one byte : event type in the highest 3 bits, seat of the
+ * player (0 for the player who starts the game) in bit 4 and a value (mana
+ * cost, mana or damage) in the lowest 4 bits. Values from
+ * {@link #ESCAPE_VALUE} to 255 are written as {@link #ESCAPE_VALUE} followed
+ * by one more byte with the value. A game starts with a {@link #GAME_START}
+ * event, followed by the 8 byte seed of the game, and ends with a
+ * {@link #GAME_END} event whose seat is the winner.
+ * 
+ * @author yaser
+ *
+ */
+public final class JournalFormat {
+	/**
+	 * First bytes of a journal file
+	 */
+	public static final int MAGIC = 0x54594A4C;
+	public static final byte VERSION = 1;
+	/**
+	 * Size of the file header in bytes
+	 */
+	public static final int HEADER_SIZE = 5;
+	/**
+	 * Game is created, value is 1 if the game is seeded
+	 */
+	public static final int GAME_START = 0;
+	/**
+	 * Turn is started, value is the mana
+	 */
+	public static final int TURN = 1;
+	/**
+	 * Card is picked to hand, value is the mana cost
+	 */
+	public static final int DRAW = 2;
+	/**
+	 * Card is picked and dropped as hand is full, value is the mana cost
+	 */
+	public static final int OVERLOAD = 3;
+	/**
+	 * Player has bled out, value is 0
+	 */
+	public static final int BLEED_OUT = 4;
+	/**
+	 * Card is played, value is the mana cost
+	 */
+	public static final int PLAY = 5;
+	/**
+	 * Player has received damage, value is the damage
+	 */
+	public static final int DAMAGE = 6;
+	/**
+	 * Game is over, seat is the winner and value is 0
+	 */
+	public static final int GAME_END = 7;
+	/**
+	 * Value which means that the real value is in the next byte
+	 */
+	static final int ESCAPE_VALUE = 15;
+	/**
+	 * Highest value of an event
+	 */
+	static final int MAX_VALUE = 255;
+	/**
+	 * Highest number of bytes of one event
+	 */
+	static final int MAX_EVENT_SIZE = 9;
+
+	private JournalFormat() {
+	}
+
+	static int type(int eventByte) {
+		return (eventByte >>> 5) & 0x7;
+	}
+
+	static int seat(int eventByte) {
+		return (eventByte >>> 4) & 0x1;
+	}
+
+	static int value(int eventByte) {
+		return eventByte & 0xF;
+	}
+
+	static int eventByte(int type, int seat, int value) {
+		return (type << 5) | (seat << 4) | value;
+	}
+}
@@ -0,0 +1,83 @@
+package com.yaser.journal;
+
+/**
+ * One game read from a journal. Events are kept in the order they happened,
+ * without the {@link JournalFormat#GAME_START} event.
+ * 
+ * @author yaser
+ *
+ */
+public class JournalGame {
+	private final long seed;
+	private final boolean seeded;
+	private final int[] events;
+
+	/**
+	 * @param seed
+	 * @param seeded
+	 * @param events
+	 *            events packed as type, seat and value, see
+	 *            {@link #pack(int, int, int)}
+	 */
+	JournalGame(long seed, boolean seeded, int[] events) {
+		this.seed = seed;
+		this.seeded = seeded;
+		this.events = events;
+	}
+
+	static int pack(int type, int seat, int value) {
+		return (type << 24) | (seat << 16) | value;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public boolean isSeeded() {
+		return seeded;
+	}
+
+	public int getNumberOfEvents() {
+		return events.length;
+	}
+
+	/**
+	 * Returns the type of the event with the given index, one of the
+	 * {@link JournalFormat} event types
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public int getType(int index) {
+		return events[index] >>> 24;
+	}
+
+	/**
+	 * Returns the seat of the player of the event with the given index
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public int getSeat(int index) {
+		return (events[index] >>> 16) & 0xFF;
+	}
+
+	/**
+	 * Returns the value of the event with the given index
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public int getValue(int index) {
+		return events[index] & 0xFFFF;
+	}
+
+	/**
+	 * Returns the seat of the winner
+	 * 
+	 * @return
+	 */
+	public int getWinnerSeat() {
+		return getSeat(events.length - 1);
+	}
+}
@@ -0,0 +1,84 @@
+package com.yaser.journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.yaser.exceptions.JournalReplayException;
+
+/**
+ * Reads the games of a journal file one by one
+ * 
+ * @author yaser
+ *
+ */
+public class JournalReader implements Closeable {
+	private static final int INITIAL_EVENT_CAPACITY = 256;
+
+	private final Path file;
+	private final DataInputStream input;
+	private int[] events = new int[INITIAL_EVENT_CAPACITY];
+
+	public JournalReader(Path file) throws IOException {
+		this.file = file;
+		this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+		if (input.readInt() != JournalFormat.MAGIC) {
+			throw new JournalReplayException("Not a journal file : " + file);
+		}
+		byte version = input.readByte();
+		if (version != JournalFormat.VERSION) {
+			throw new JournalReplayException("Unsupported journal version " + version + " : " + file);
+		}
+	}
+
+	/**
+	 * Returns the next game, null if there is no more game in the file
+	 * 
+	 * @author yaser
+	 * @return
+	 * @throws IOException
+	 */
+	public JournalGame next() throws IOException {
+		int eventByte = input.read();
+		if (eventByte < 0) {
+			return null;
+		}
+		if (JournalFormat.type(eventByte) != JournalFormat.GAME_START) {
+			throw new JournalReplayException("Game does not start with a game start event : " + file);
+		}
+		boolean seeded = JournalFormat.value(eventByte) == 1;
+		try {
+			long seed = input.readLong();
+			int size = 0;
+			int type;
+			do {
+				eventByte = input.readUnsignedByte();
+				type = JournalFormat.type(eventByte);
+				int value = JournalFormat.value(eventByte);
+				if (value == JournalFormat.ESCAPE_VALUE) {
+					value = input.readUnsignedByte();
+				}
+				if (type == JournalFormat.GAME_START) {
+					throw new JournalReplayException("Game has no end event : " + file);
+				}
+				if (size == events.length) {
+					events = Arrays.copyOf(events, size * 2);
+				}
+				events[size++] = JournalGame.pack(type, JournalFormat.seat(eventByte), value);
+			} while (type != JournalFormat.GAME_END);
+			return new JournalGame(seed, seeded, Arrays.copyOf(events, size));
+		} catch (EOFException e) {
+			throw new JournalReplayException("Journal ends in the middle of a game : " + file);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+}
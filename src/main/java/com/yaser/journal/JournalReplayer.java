@@ -0,0 +1,128 @@
+package com.yaser.journal;
+
+import java.util.function.Supplier;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.Player;
+import com.yaser.exceptions.JournalReplayException;
+
+/**
+ * Rebuilds the {@link Player}s and the {@link GamePlay} of a journal game by
+ * playing the game again from its seed, and verifies that every event of the
+ * replayed game is the same as the event in the journal
+ * 
+ * @author yaser
+ *
+ */
+public class JournalReplayer {
+	private final Supplier<Player> firstSeat;
+	private final Supplier<Player> secondSeat;
+
+	/**
+	 * Creates a replayer for games of default players
+	 */
+	public JournalReplayer() {
+		this(() -> new Player("Player 1"), () -> new Player("Player 2"));
+	}
+
+	/**
+	 * Creates a replayer which plays games between the players created by the
+	 * given suppliers. They must be created as they were in the journaled run.
+	 * 
+	 * @param firstSeat
+	 * @param secondSeat
+	 */
+	public JournalReplayer(Supplier<Player> firstSeat, Supplier<Player> secondSeat) {
+		this.firstSeat = firstSeat;
+		this.secondSeat = secondSeat;
+	}
+
+	/**
+	 * Replays the given game and returns it in its final state
+	 * 
+	 * @author yaser
+	 * @param journalGame
+	 * @return
+	 * @throws JournalReplayException
+	 *             if the game is not seeded or the replayed game is different
+	 */
+	public GamePlay replay(JournalGame journalGame) {
+		if (!journalGame.isSeeded()) {
+			throw new JournalReplayException("Game is not seeded and can not be replayed");
+		}
+		Player firstPlayer = firstSeat.get();
+		VerifyingListener listener = new VerifyingListener(journalGame, firstPlayer);
+		GamePlay game = new GamePlay(firstPlayer, secondSeat.get(), journalGame.getSeed(), listener);
+		game.play();
+		if (listener.index != journalGame.getNumberOfEvents()) {
+			throw new JournalReplayException("Replayed game has " + listener.index + " events, journal has "
+					+ journalGame.getNumberOfEvents());
+		}
+		return game;
+	}
+
+	/**
+	 * Compares the events of the replayed game with the journal
+	 */
+	private static class VerifyingListener implements GameEventListener {
+		private final JournalGame journalGame;
+		private final Player firstPlayer;
+		private int index = 0;
+
+		VerifyingListener(JournalGame journalGame, Player firstPlayer) {
+			this.journalGame = journalGame;
+			this.firstPlayer = firstPlayer;
+		}
+
+		@Override
+		public void turnStarted(Player player, int mana) {
+			expect(JournalFormat.TURN, player, mana);
+		}
+
+		@Override
+		public void cardDrawn(Player player, int cost, int handSize) {
+			expect(JournalFormat.DRAW, player, cost);
+		}
+
+		@Override
+		public void overload(Player player, int cost) {
+			expect(JournalFormat.OVERLOAD, player, cost);
+		}
+
+		@Override
+		public void bleedOut(Player player, int health) {
+			expect(JournalFormat.BLEED_OUT, player, 0);
+		}
+
+		@Override
+		public void cardPlayed(Player player, int cost) {
+			expect(JournalFormat.PLAY, player, cost);
+		}
+
+		@Override
+		public void damageReceived(Player player, int damage, int health) {
+			expect(JournalFormat.DAMAGE, player, damage);
+		}
+
+		@Override
+		public void gameWon(Player winner) {
+			expect(JournalFormat.GAME_END, winner, 0);
+		}
+
+		private void expect(int type, Player player, int value) {
+			int seat = player == firstPlayer ? 0 : 1;
+			if (index >= journalGame.getNumberOfEvents()) {
+				throw new JournalReplayException("Replayed game has more events than the journal");
+			}
+			if (journalGame.getType(index) != type || journalGame.getSeat(index) != seat
+					|| journalGame.getValue(index) != value) {
+				throw new JournalReplayException("Event " + index + " is different, journal : type "
+						+ journalGame.getType(index) + " seat " + journalGame.getSeat(index) + " value "
+						+ journalGame.getValue(index) + ", replayed : type " + type + " seat " + seat + " value "
+						+ value);
+			}
+			index++;
+		}
+	}
+}
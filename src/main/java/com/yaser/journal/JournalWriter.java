@@ -0,0 +1,180 @@
+package com.yaser.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.Player;
+
+/**
+ * Writes the events of the games it listens to into a journal file, see
+ * {@link JournalFormat}. The file is written through a memory mapped segment
+ * which is moved forward when it is full, so writing an event is a put into
+ * the mapped buffer. A writer must be used by one thread only.
+ * 
+ * @author yaser
+ *
+ */
+public class JournalWriter implements GameEventListener, Closeable {
+	/**
+	 * Default size of a mapped segment
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 << 20;
+
+	private final Path file;
+	private final FileChannel channel;
+	private final int segmentSize;
+	private MappedByteBuffer segment;
+	/**
+	 * Position of the current segment in the file
+	 */
+	private long segmentStart;
+	/**
+	 * Player of seat 0 in the current game
+	 */
+	private Player firstPlayer;
+	private long games = 0;
+	/**
+	 * Size of the file once the writer is closed
+	 */
+	private long closedSize = 0;
+
+	public JournalWriter(Path file) throws IOException {
+		this(file, DEFAULT_SEGMENT_SIZE);
+	}
+
+	public JournalWriter(Path file, int segmentSize) throws IOException {
+		if (segmentSize < JournalFormat.HEADER_SIZE + JournalFormat.MAX_EVENT_SIZE) {
+			throw new IllegalArgumentException("Segment size is too small : " + segmentSize);
+		}
+		this.file = file;
+		this.segmentSize = segmentSize;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		map(0);
+		segment.putInt(JournalFormat.MAGIC);
+		segment.put(JournalFormat.VERSION);
+	}
+
+	@Override
+	public void gameStarted(GamePlay game) {
+		firstPlayer = game.getCurrentPlayer();
+		ensureCapacity(JournalFormat.MAX_EVENT_SIZE);
+		segment.put((byte) JournalFormat.eventByte(JournalFormat.GAME_START, 0, game.isSeeded() ? 1 : 0));
+		segment.putLong(game.getSeed());
+	}
+
+	@Override
+	public void turnStarted(Player player, int mana) {
+		write(JournalFormat.TURN, player, mana);
+	}
+
+	@Override
+	public void cardDrawn(Player player, int cost, int handSize) {
+		write(JournalFormat.DRAW, player, cost);
+	}
+
+	@Override
+	public void overload(Player player, int cost) {
+		write(JournalFormat.OVERLOAD, player, cost);
+	}
+
+	@Override
+	public void bleedOut(Player player, int health) {
+		write(JournalFormat.BLEED_OUT, player, 0);
+	}
+
+	@Override
+	public void cardPlayed(Player player, int cost) {
+		write(JournalFormat.PLAY, player, cost);
+	}
+
+	@Override
+	public void damageReceived(Player player, int damage, int health) {
+		write(JournalFormat.DAMAGE, player, damage);
+	}
+
+	@Override
+	public void gameWon(Player winner) {
+		write(JournalFormat.GAME_END, winner, 0);
+		games++;
+	}
+
+	private void write(int type, Player player, int value) {
+		if (value < 0 || value > JournalFormat.MAX_VALUE) {
+			throw new IllegalArgumentException("Value can not be written to journal : " + value);
+		}
+		ensureCapacity(2);
+		int seat = player == firstPlayer ? 0 : 1;
+		if (value < JournalFormat.ESCAPE_VALUE) {
+			segment.put((byte) JournalFormat.eventByte(type, seat, value));
+		} else {
+			segment.put((byte) JournalFormat.eventByte(type, seat, JournalFormat.ESCAPE_VALUE));
+			segment.put((byte) value);
+		}
+	}
+
+	private void ensureCapacity(int bytes) {
+		if (segment == null) {
+			throw new IllegalStateException("Journal writer is closed : " + file);
+		}
+		if (segment.remaining() < bytes) {
+			map(segmentStart + segment.position());
+		}
+	}
+
+	private void map(long position) {
+		try {
+			segment = channel.map(MapMode.READ_WRITE, position, segmentSize);
+			segmentStart = position;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of bytes written so far
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getSize() {
+		return segment == null ? closedSize : segmentStart + segment.position();
+	}
+
+	/**
+	 * Returns the number of finished games written so far
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Cuts the unused part of the last segment and closes the file
+	 */
+	@Override
+	public void close() throws IOException {
+		if (segment == null) {
+			return;
+		}
+		closedSize = getSize();
+		segment.force();
+		segment = null;
+		channel.truncate(closedSize);
+		channel.close();
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Compact binary journal of played games and its replay tool
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.journal;
@@ -0,0 +1,339 @@
+package com.yaser.mcts;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import com.yaser.Card;
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Player which decides every turn with a Monte Carlo tree search. A move is
+ * the set of cards played in a turn, chosen once the mana is filled and the
+ * card is drawn; the cards are then played from the most expensive one. The
+ * search runs until the move time or the playout limit is reached, on
+ * several threads of a {@link ForkJoinPool} sharing one tree with virtual
+ * loss, see {@link SearchNode}.
+ * <p>
+ * Playouts copy the health, hands and decks of both players into a
+ * {@link SearchState} and play the rest of the game with the rollout
+ * strategy, rolling mana and drawn cards from the generators of the search,
+ * never from the generator of the player. The search does not see the hand
+ * of the opponent : every playout deals it a random hand of its hand size
+ * from the cards it has not played. The subtree of the chosen move and the
+ * cards the opponent has played next is kept for the search of the next
+ * turn.
+ * <p>
+ * Unlike a {@link Strategy}, a player keeps its tree, so it must not be
+ * shared between games which are played at the same time.
+ *
+ * @author yaser
+ *
+ */
+public class MctsPlayer extends Player {
+	public static final long DEFAULT_MOVE_TIME_MILLIS = 20;
+	public static final double DEFAULT_EXPLORATION = 0.7;
+
+	private final ForkJoinPool pool;
+	private int threads;
+	private long moveTimeMillis = DEFAULT_MOVE_TIME_MILLIS;
+	private long maxPlayouts = Long.MAX_VALUE;
+	private double exploration = DEFAULT_EXPLORATION;
+	private Strategy rolloutStrategy = GreedyStrategy.INSTANCE;
+	private final GameRandom searchRandom = new GameRandom();
+	private final SearchState rootState = new SearchState();
+
+	/**
+	 * Cards of the move of this turn which are not played yet, -1 before the
+	 * search of the turn
+	 */
+	private long plannedCards = -1;
+	/**
+	 * Node of the last chosen move, with the opponent, its unplayed cards and
+	 * its overloads at that time, to find the root of the next search
+	 */
+	private SearchNode lastMove;
+	private Player lastOpponent;
+	private long lastOpponentCards;
+	private int lastOpponentOverloads;
+
+	private long searches = 0;
+	private long reusedSearches = 0;
+	private long playouts = 0;
+	private long searchNanos = 0;
+
+	/**
+	 * Creates a player searching on all threads of the common pool
+	 *
+	 * @param name
+	 */
+	public MctsPlayer(String name) {
+		this(name, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a player searching on all threads of the given pool
+	 *
+	 * @param name
+	 * @param pool
+	 */
+	public MctsPlayer(String name, ForkJoinPool pool) {
+		super(name);
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool can not be null");
+		}
+		this.pool = pool;
+		this.threads = pool.getParallelism();
+	}
+
+	/**
+	 * Forgets the tree and the move of the last game
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		plannedCards = -1;
+		lastMove = null;
+		lastOpponent = null;
+	}
+
+	/**
+	 * Fills the mana of a new turn, whose move is searched when its first
+	 * card is played
+	 */
+	@Override
+	public void fillMana() {
+		super.fillMana();
+		plannedCards = -1;
+	}
+
+	/**
+	 * Plays the next card of the move of this turn, searching the move first
+	 * if it is not searched yet
+	 *
+	 * @return false if all cards of the move are played
+	 */
+	@Override
+	public boolean playNextCard(Player opponentPlayer) {
+		if (plannedCards < 0) {
+			plannedCards = search(opponentPlayer);
+		}
+		int cost = CardHistogram.highestAffordable(CardHistogram.mask(plannedCards), getMana());
+		if (cost < 0 || CardHistogram.count(getHandHistogram(), cost) == 0) {
+			plannedCards = -1;
+			return false;
+		}
+		plannedCards = CardHistogram.remove(plannedCards, cost);
+		playTurn(opponentPlayer, Card.of(cost));
+		return true;
+	}
+
+	/**
+	 * Searches the move of this turn against the given opponent
+	 *
+	 * @author yaser
+	 * @param opponent
+	 * @return cards to play, see {@link CardHistogram}
+	 */
+	private long search(Player opponent) {
+		long start = System.nanoTime();
+		rootState.set(this, opponent);
+		SearchNode root = nextRoot(opponent);
+		searches++;
+		if (root == null) {
+			root = new SearchNode(CardHistogram.EMPTY, 0, 1);
+		} else {
+			reusedSearches++;
+		}
+		TreeSearch search = new TreeSearch(root, rootState, exploration, rolloutStrategy, maxPlayouts, start,
+				TimeUnit.MILLISECONDS.toNanos(moveTimeMillis));
+		playouts += search.run(pool, threads, searchRandom.nextLong());
+		long move = search.bestMove();
+		lastMove = root.child(move);
+		lastOpponent = opponent;
+		lastOpponentCards = SearchState.unplayedCards(opponent);
+		lastOpponentOverloads = opponent.getOverloadCount();
+		searchNanos += System.nanoTime() - start;
+		return move;
+	}
+
+	/**
+	 * Returns the node which the last move and the cards the opponent has
+	 * played since then lead to, null if it is not known. The played cards
+	 * are the unplayed cards of the last search less the unplayed cards now;
+	 * a card dropped by an overload leaves them too, so the node is not known
+	 * after an overload.
+	 *
+	 * @author yaser
+	 * @param opponent
+	 * @return
+	 */
+	private SearchNode nextRoot(Player opponent) {
+		if (lastMove == null || opponent != lastOpponent
+				|| opponent.getOverloadCount() != lastOpponentOverloads) {
+			return null;
+		}
+		long cards = SearchState.unplayedCards(opponent);
+		if (!contains(lastOpponentCards, cards)) {
+			return null;
+		}
+		// no count of a part borrows from the next
+		return lastMove.child(lastOpponentCards - cards);
+	}
+
+	private static boolean contains(long cards, long part) {
+		for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+			if (CardHistogram.count(part, cost) > CardHistogram.count(cards, cost)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of searched moves
+	 *
+	 * @return
+	 */
+	public long getSearches() {
+		return searches;
+	}
+
+	/**
+	 * Returns the number of searches which have started from the subtree of
+	 * the previous search
+	 *
+	 * @return
+	 */
+	public long getReusedSearches() {
+		return reusedSearches;
+	}
+
+	/**
+	 * Returns the number of playouts of all searches
+	 *
+	 * @return
+	 */
+	public long getPlayouts() {
+		return playouts;
+	}
+
+	/**
+	 * Returns the time spent in all searches
+	 *
+	 * @return
+	 */
+	public long getSearchNanos() {
+		return searchNanos;
+	}
+
+	/**
+	 * Returns the playouts per second of all searches, 0 before the first
+	 * search
+	 *
+	 * @return
+	 */
+	public double getPlayoutsPerSecond() {
+		return searchNanos == 0 ? 0 : playouts * 1e9 / searchNanos;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads of the pool which search a move, 1 searches
+	 * on the thread of the game
+	 *
+	 * @param threads
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Number of threads must be positive : " + threads);
+		}
+		this.threads = threads;
+	}
+
+	public long getMoveTimeMillis() {
+		return moveTimeMillis;
+	}
+
+	/**
+	 * Sets the time of the search of a move. Every thread plays at least a
+	 * few playouts, even with no time.
+	 *
+	 * @param moveTimeMillis
+	 */
+	public void setMoveTimeMillis(long moveTimeMillis) {
+		if (moveTimeMillis < 0) {
+			throw new IllegalArgumentException("Move time can not be negative : " + moveTimeMillis);
+		}
+		this.moveTimeMillis = moveTimeMillis;
+	}
+
+	public long getMaxPlayouts() {
+		return maxPlayouts;
+	}
+
+	/**
+	 * Sets the most playouts of the search of a move, which stops at the
+	 * limit even if there is time left
+	 *
+	 * @param maxPlayouts
+	 */
+	public void setMaxPlayouts(long maxPlayouts) {
+		if (maxPlayouts < 1) {
+			throw new IllegalArgumentException("Max playouts must be positive : " + maxPlayouts);
+		}
+		this.maxPlayouts = maxPlayouts;
+	}
+
+	public double getExploration() {
+		return exploration;
+	}
+
+	/**
+	 * Sets the exploration constant of UCT, higher values try more moves
+	 *
+	 * @param exploration
+	 */
+	public void setExploration(double exploration) {
+		if (!(exploration >= 0)) {
+			throw new IllegalArgumentException("Exploration can not be negative : " + exploration);
+		}
+		this.exploration = exploration;
+	}
+
+	public Strategy getRolloutStrategy() {
+		return rolloutStrategy;
+	}
+
+	/**
+	 * Sets the strategy of both seats in playouts
+	 *
+	 * @param rolloutStrategy
+	 */
+	public void setRolloutStrategy(Strategy rolloutStrategy) {
+		if (rolloutStrategy == null) {
+			throw new IllegalArgumentException("Rollout strategy can not be null");
+		}
+		this.rolloutStrategy = rolloutStrategy;
+	}
+
+	/**
+	 * Seeds the generators of the searches, a search on one thread with a
+	 * playout limit and no time limit is then reproducible
+	 *
+	 * @param seed
+	 */
+	public void setSearchSeed(long seed) {
+		searchRandom.setSeed(seed);
+	}
+}
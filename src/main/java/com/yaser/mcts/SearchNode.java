@@ -0,0 +1,142 @@
+package com.yaser.mcts;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Node of the search tree, shared by all search threads. A node is reached
+ * by playing its move and keeps the playouts through it and the wins of the
+ * seat which played the move. Chance is not in the tree : every playout
+ * rolls its own mana and draws below a node.
+ * <p>
+ * A thread adds a virtual loss to every node it selects and takes it back
+ * when its playout is counted, so other threads see the node as worse while
+ * the playout runs and spread over other moves.
+ *
+ * @author yaser
+ *
+ */
+final class SearchNode {
+	private static final SearchNode[] NO_CHILDREN = new SearchNode[0];
+	private static final AtomicIntegerFieldUpdater<SearchNode> VISITS = AtomicIntegerFieldUpdater
+			.newUpdater(SearchNode.class, "visits");
+	private static final AtomicIntegerFieldUpdater<SearchNode> WINS = AtomicIntegerFieldUpdater
+			.newUpdater(SearchNode.class, "wins");
+	private static final AtomicIntegerFieldUpdater<SearchNode> VIRTUAL_LOSSES = AtomicIntegerFieldUpdater
+			.newUpdater(SearchNode.class, "virtualLosses");
+
+	/**
+	 * Cards played to reach the node, see {@link com.yaser.CardHistogram}
+	 */
+	private final long move;
+	/**
+	 * Total mana cost of the move
+	 */
+	private final int cost;
+	/**
+	 * Seat which played the move
+	 */
+	private final int seat;
+	private volatile SearchNode[] children = NO_CHILDREN;
+	private volatile int visits;
+	private volatile int wins;
+	private volatile int virtualLosses;
+
+	SearchNode(long move, int cost, int seat) {
+		this.move = move;
+		this.cost = cost;
+		this.seat = seat;
+	}
+
+	/**
+	 * Returns the child reached by the given move, null if there is none yet
+	 *
+	 * @author yaser
+	 * @param move
+	 * @return
+	 */
+	SearchNode child(long move) {
+		for (SearchNode child : children) {
+			if (child.move == move) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the child reached by the given move, adding it if there is none
+	 *
+	 * @author yaser
+	 * @param move
+	 * @param cost
+	 *            total mana cost of the move
+	 * @return
+	 */
+	synchronized SearchNode addChild(long move, int cost) {
+		SearchNode child = child(move);
+		if (child == null) {
+			child = new SearchNode(move, cost, seat ^ 1);
+			SearchNode[] grown = Arrays.copyOf(children, children.length + 1);
+			grown[children.length] = child;
+			children = grown;
+		}
+		return child;
+	}
+
+	void addVirtualLoss() {
+		VIRTUAL_LOSSES.incrementAndGet(this);
+	}
+
+	/**
+	 * Counts a finished playout and takes back its virtual loss
+	 *
+	 * @author yaser
+	 * @param winner
+	 *            seat which won the playout
+	 * @param virtualLoss
+	 *            true if the playout has added a virtual loss to the node
+	 */
+	void update(int winner, boolean virtualLoss) {
+		if (winner == seat) {
+			WINS.incrementAndGet(this);
+		}
+		VISITS.incrementAndGet(this);
+		if (virtualLoss) {
+			VIRTUAL_LOSSES.decrementAndGet(this);
+		}
+	}
+
+	long getMove() {
+		return move;
+	}
+
+	int getCost() {
+		return cost;
+	}
+
+	int getSeat() {
+		return seat;
+	}
+
+	int getVisits() {
+		return visits;
+	}
+
+	int getWins() {
+		return wins;
+	}
+
+	/**
+	 * Returns the playouts through the node, the running ones counted as lost
+	 *
+	 * @return
+	 */
+	int getVisitsWithVirtualLosses() {
+		return visits + virtualLosses;
+	}
+
+	SearchNode[] getChildren() {
+		return children;
+	}
+}
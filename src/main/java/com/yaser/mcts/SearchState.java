@@ -0,0 +1,301 @@
+package com.yaser.mcts;
+
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Mutable copy of the parts of two {@link Player}s which decide a game :
+ * health, hand and deck of both seats, the seat to move and its mana. Hands
+ * and decks are {@link CardHistogram}s, so copying a state is copying a few
+ * primitives and a playout allocates nothing. Turns follow the rules of
+ * {@link com.yaser.GamePlay} like {@link com.yaser.GameState} does, with the
+ * mana and the drawn card rolled from the given generator.
+ * <p>
+ * Seat 0 is the searching player, seat 1 its opponent. The hand of the
+ * opponent is not known : a state is set with the cards the opponent has not
+ * played, and {@link #dealHiddenHand(GameRandom)} deals it a random hand of
+ * its hand size from them.
+ *
+ * @author yaser
+ *
+ */
+final class SearchState {
+	static final int NO_WINNER = -1;
+
+	private final int[] health = new int[2];
+	private final long[] hand = new long[2];
+	private final long[] deck = new long[2];
+	/**
+	 * Cards of seat 1 in hand or deck, and its number of cards in hand
+	 */
+	private long hiddenCards;
+	private int hiddenHandSize;
+	private int seatToMove;
+	private int mana;
+	private int winner = NO_WINNER;
+
+	/**
+	 * Sets the state to the decision of the given player, after its mana is
+	 * filled and its card is drawn. The opponent has no hand until it is
+	 * dealt.
+	 *
+	 * @author yaser
+	 * @param player
+	 *            seat 0, to move
+	 * @param opponent
+	 *            seat 1
+	 */
+	void set(Player player, Player opponent) {
+		health[0] = player.getHealth();
+		hand[0] = player.getHandHistogram();
+		deck[0] = player.getDeckHistogram();
+		health[1] = opponent.getHealth();
+		hiddenCards = unplayedCards(opponent);
+		hiddenHandSize = opponent.getSizeOfPlayerHand();
+		hand[1] = CardHistogram.EMPTY;
+		deck[1] = hiddenCards;
+		seatToMove = 0;
+		mana = player.getMana();
+		winner = health[0] < 1 ? 1 : health[1] < 1 ? 0 : NO_WINNER;
+	}
+
+	void copyFrom(SearchState other) {
+		health[0] = other.health[0];
+		health[1] = other.health[1];
+		hand[0] = other.hand[0];
+		hand[1] = other.hand[1];
+		deck[0] = other.deck[0];
+		deck[1] = other.deck[1];
+		hiddenCards = other.hiddenCards;
+		hiddenHandSize = other.hiddenHandSize;
+		seatToMove = other.seatToMove;
+		mana = other.mana;
+		winner = other.winner;
+	}
+
+	/**
+	 * Returns the cards of the given player which it has not played yet : its
+	 * hand and its deck. They are the starting cards less the played ones, so
+	 * the other player knows them without seeing the hand.
+	 *
+	 * @author yaser
+	 * @param player
+	 * @return
+	 */
+	static long unplayedCards(Player player) {
+		// hand and deck are parts of the starting cards, no count carries
+		return player.getHandHistogram() + player.getDeckHistogram();
+	}
+
+	/**
+	 * Deals the opponent a uniformly random hand of its hand size from its
+	 * unplayed cards, the other cards are its deck. Must be called on a state
+	 * which is set and not played yet.
+	 *
+	 * @author yaser
+	 * @param random
+	 */
+	void dealHiddenHand(GameRandom random) {
+		long cards = hiddenCards;
+		long dealt = CardHistogram.EMPTY;
+		for (int card = Math.min(hiddenHandSize, CardHistogram.size(cards)); card > 0; card--) {
+			int cost = randomCost(cards, random);
+			cards = CardHistogram.remove(cards, cost);
+			dealt = CardHistogram.add(dealt, cost);
+		}
+		hand[1] = dealt;
+		deck[1] = cards;
+	}
+
+	/**
+	 * Writes the cards which the seat to move can play in this turn into the
+	 * given arrays : every distinct part of its hand whose total mana cost can
+	 * be paid and which leaves no card in hand that could still be paid. A
+	 * card only deals damage and frees a place in hand, so playing it never
+	 * loses against keeping it and the other parts need not be searched.
+	 *
+	 * @author yaser
+	 * @param moves
+	 *            played cards of each move, see {@link CardHistogram}
+	 * @param costs
+	 *            total mana cost of each move
+	 * @return number of moves
+	 */
+	int moves(long[] moves, int[] costs) {
+		long cards = hand[seatToMove];
+		moves[0] = CardHistogram.EMPTY;
+		costs[0] = 0;
+		int count = 1;
+		for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+			int inHand = CardHistogram.count(cards, cost);
+			for (int move = 0, moveCount = count; inHand > 0 && move < moveCount; move++) {
+				long played = moves[move];
+				int total = costs[move];
+				for (int card = 1; card <= inHand && total + cost <= mana; card++) {
+					played = CardHistogram.add(played, cost);
+					total += cost;
+					moves[count] = played;
+					costs[count++] = total;
+				}
+			}
+		}
+		int maximal = 0;
+		for (int move = 0; move < count; move++) {
+			int left = mana - costs[move];
+			if (CardHistogram.highestAffordable(CardHistogram.mask(cards - moves[move]), left) < 0) {
+				moves[maximal] = moves[move];
+				costs[maximal++] = costs[move];
+			}
+		}
+		return maximal;
+	}
+
+	/**
+	 * Returns the most parts a hand can have, the size of the arrays of
+	 * {@link #moves(long[], int[])}
+	 *
+	 * @author yaser
+	 * @param hand
+	 * @return
+	 */
+	static int maxMoves(long hand) {
+		int moves = 1;
+		for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+			moves *= CardHistogram.count(hand, cost) + 1;
+		}
+		return moves;
+	}
+
+	/**
+	 * Returns true if the seat to move has the given cards in hand, can pay
+	 * them and would leave no card which it could still pay
+	 *
+	 * @author yaser
+	 * @param move
+	 * @param cost
+	 *            total mana cost of the move
+	 * @return
+	 */
+	boolean canPlay(long move, int cost) {
+		if (cost > mana) {
+			return false;
+		}
+		long cards = hand[seatToMove];
+		for (int costs = CardHistogram.mask(move); costs != 0; costs &= costs - 1) {
+			int card = Integer.numberOfTrailingZeros(costs);
+			if (CardHistogram.count(move, card) > CardHistogram.count(cards, card)) {
+				return false;
+			}
+		}
+		// the move is a part of the hand, no count borrows from the next
+		return CardHistogram.highestAffordable(CardHistogram.mask(cards - move), mana - cost) < 0;
+	}
+
+	/**
+	 * Seat to move plays the given cards, which must be one of its moves
+	 *
+	 * @author yaser
+	 * @param move
+	 * @param cost
+	 *            total mana cost of the move
+	 */
+	void play(long move, int cost) {
+		int seat = seatToMove;
+		// the move is a part of the hand, no count borrows from the next
+		hand[seat] -= move;
+		mana -= cost;
+		health[seat ^ 1] -= cost;
+		if (health[seat ^ 1] < 1) {
+			winner = seat;
+		}
+	}
+
+	/**
+	 * Passes the turn to the other seat, fills its mana and draws its card
+	 * like {@link com.yaser.GamePlay#beginTurn()}
+	 *
+	 * @author yaser
+	 * @param random
+	 */
+	void beginTurn(GameRandom random) {
+		int seat = seatToMove ^ 1;
+		seatToMove = seat;
+		mana = random.nextInt(Player.MAX_MANA_SLOTS - 1) + 1;
+		long cards = deck[seat];
+		if (cards == CardHistogram.EMPTY) {
+			// Special Rule 1
+			if (--health[seat] < 1) {
+				winner = seat ^ 1;
+			}
+			return;
+		}
+		int cost = randomCost(cards, random);
+		deck[seat] = CardHistogram.remove(cards, cost);
+		// Special Rule 2 drops the card
+		if (CardHistogram.size(hand[seat]) <= Player.MAX_NUM_OF_HAND_CARD) {
+			hand[seat] = CardHistogram.add(hand[seat], cost);
+		}
+	}
+
+	/**
+	 * Returns the cost of a uniformly random card of the given cards, which
+	 * are not empty
+	 */
+	private static int randomCost(long cards, GameRandom random) {
+		int card = random.nextInt(CardHistogram.size(cards));
+		int cost = 0;
+		for (card -= CardHistogram.count(cards, cost); card >= 0; card -= CardHistogram.count(cards, cost)) {
+			cost++;
+		}
+		return cost;
+	}
+
+	/**
+	 * Plays the game to the end with the given strategy for both seats,
+	 * starting with the turn of the seat to move
+	 *
+	 * @author yaser
+	 * @param random
+	 * @param strategy
+	 * @return the winner seat
+	 */
+	int rollout(GameRandom random, Strategy strategy) {
+		while (winner == NO_WINNER) {
+			int seat = seatToMove;
+			long cards = hand[seat];
+			for (int cost = strategy.selectCard(cards, mana, health[seat], health[seat ^ 1]); cost > -1;) {
+				cards = CardHistogram.remove(cards, cost);
+				mana -= cost;
+				health[seat ^ 1] -= cost;
+				if (health[seat ^ 1] < 1) {
+					winner = seat;
+					break;
+				}
+				cost = strategy.selectCard(cards, mana, health[seat], health[seat ^ 1]);
+			}
+			hand[seat] = cards;
+			if (winner == NO_WINNER) {
+				beginTurn(random);
+			}
+		}
+		return winner;
+	}
+
+	int getSeatToMove() {
+		return seatToMove;
+	}
+
+	int getWinner() {
+		return winner;
+	}
+
+	long getHand(int seat) {
+		return hand[seat];
+	}
+
+	int getHiddenHandSize() {
+		return hiddenHandSize;
+	}
+}
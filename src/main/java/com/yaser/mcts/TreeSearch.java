@@ -0,0 +1,217 @@
+package com.yaser.mcts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.strategy.Strategy;
+
+/**
+ * One search of a {@link MctsPlayer} move with tree parallelism : all
+ * threads select, expand and count playouts in the same tree, see
+ * {@link SearchNode}. A playout selects moves by UCT while every legal move
+ * of a node has a child, adds the child of one missing move and plays the
+ * rest of the game with the rollout strategy. Every playout deals the
+ * opponent another hand, so a node has the children of all hands the
+ * opponent could have and a playout only selects the moves of its hand.
+ *
+ * @author yaser
+ *
+ */
+final class TreeSearch {
+	/**
+	 * Playouts claimed by a thread at a time, the deadline is checked once per
+	 * claim
+	 */
+	private static final int PLAYOUT_BATCH = 16;
+
+	private final SearchNode root;
+	private final SearchState rootState;
+	private final double exploration;
+	private final Strategy rolloutStrategy;
+	private final long maxPlayouts;
+	private final long start;
+	private final long timeNanos;
+	private final int moveCapacity;
+	private final AtomicLong claimedPlayouts = new AtomicLong();
+
+	/**
+	 * @param root
+	 *            node of the state, may have children of an earlier search
+	 * @param rootState
+	 *            state at the decision of seat 0
+	 * @param exploration
+	 *            UCT exploration constant
+	 * @param rolloutStrategy
+	 * @param maxPlayouts
+	 * @param start
+	 *            {@link System#nanoTime()} at the start of the search
+	 * @param timeNanos
+	 *            time of the search
+	 */
+	TreeSearch(SearchNode root, SearchState rootState, double exploration, Strategy rolloutStrategy,
+			long maxPlayouts, long start, long timeNanos) {
+		this.root = root;
+		this.rootState = rootState;
+		this.exploration = exploration;
+		this.rolloutStrategy = rolloutStrategy;
+		this.maxPlayouts = maxPlayouts;
+		this.start = start;
+		this.timeNanos = timeNanos;
+		// hands only shrink or grow by drawn cards up to the hand limit
+		this.moveCapacity = Math.max(1 << (Player.MAX_NUM_OF_HAND_CARD + 1), Math.max(
+				SearchState.maxMoves(rootState.getHand(0)), 1 << Math.min(rootState.getHiddenHandSize(), 16)));
+	}
+
+	/**
+	 * Runs the search on the given number of threads of the pool, the calling
+	 * thread runs it alone if there is one thread
+	 *
+	 * @author yaser
+	 * @param pool
+	 * @param threads
+	 * @param seed
+	 *            seed of the generators of the threads
+	 * @return number of playouts
+	 */
+	long run(ForkJoinPool pool, int threads, long seed) {
+		long[] moves = new long[moveCapacity];
+		int[] costs = new int[moveCapacity];
+		if (rootState.moves(moves, costs) == 1) {
+			// nothing to decide
+			root.addChild(moves[0], costs[0]);
+			return 0;
+		}
+		List<Worker> workers = new ArrayList<>(threads);
+		for (int thread = 0; thread < threads; thread++) {
+			workers.add(new Worker(GameRandom.gameSeed(seed, thread)));
+		}
+		if (threads == 1) {
+			workers.get(0).compute();
+		} else {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(workers);
+				}
+			});
+		}
+		long playouts = 0;
+		for (Worker worker : workers) {
+			playouts += worker.playouts;
+		}
+		return playouts;
+	}
+
+	/**
+	 * Returns the legal move of the root with the most playouts
+	 *
+	 * @author yaser
+	 * @return played cards, see {@link com.yaser.CardHistogram}
+	 */
+	long bestMove() {
+		SearchNode best = null;
+		for (SearchNode child : root.getChildren()) {
+			if (rootState.canPlay(child.getMove(), child.getCost()) && (best == null
+					|| child.getVisits() > best.getVisits()
+					|| child.getVisits() == best.getVisits() && child.getWins() > best.getWins())) {
+				best = child;
+			}
+		}
+		return best.getMove();
+	}
+
+	/**
+	 * Playouts of one thread
+	 */
+	private final class Worker extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final GameRandom random;
+		private final SearchState state = new SearchState();
+		private final long[] moves = new long[moveCapacity];
+		private final int[] costs = new int[moveCapacity];
+		private SearchNode[] path = new SearchNode[32];
+		private long playouts = 0;
+
+		Worker(long seed) {
+			this.random = new GameRandom(seed);
+		}
+
+		@Override
+		protected void compute() {
+			do {
+				long claimed = claimedPlayouts.getAndAdd(PLAYOUT_BATCH);
+				if (claimed >= maxPlayouts) {
+					return;
+				}
+				for (long playout = Math.min(PLAYOUT_BATCH, maxPlayouts - claimed); playout > 0; playout--) {
+					playout();
+					playouts++;
+				}
+			} while (System.nanoTime() - start < timeNanos);
+		}
+
+		private void playout() {
+			state.copyFrom(rootState);
+			state.dealHiddenHand(random);
+			SearchNode node = root;
+			int depth = 0;
+			boolean expanded = false;
+			while (!expanded && state.getWinner() == SearchState.NO_WINNER) {
+				SearchNode next = null;
+				double bestValue = Double.NEGATIVE_INFINITY;
+				int legalChildren = 0;
+				double logVisits = Math.log(Math.max(1, node.getVisitsWithVirtualLosses()));
+				for (SearchNode child : node.getChildren()) {
+					if (!state.canPlay(child.getMove(), child.getCost())) {
+						continue;
+					}
+					legalChildren++;
+					int visits = child.getVisitsWithVirtualLosses();
+					double value = visits == 0 ? Double.POSITIVE_INFINITY
+							: (double) child.getWins() / visits + exploration * Math.sqrt(logVisits / visits);
+					if (value > bestValue) {
+						bestValue = value;
+						next = child;
+					}
+				}
+				int moveCount = state.moves(moves, costs);
+				if (legalChildren < moveCount) {
+					for (int move = 0; move < moveCount; move++) {
+						if (node.child(moves[move]) == null) {
+							next = node.addChild(moves[move], costs[move]);
+							expanded = true;
+							break;
+						}
+					}
+					if (next == null) {
+						// another thread has added the missing moves
+						continue;
+					}
+				}
+				next.addVirtualLoss();
+				if (depth == path.length) {
+					path = Arrays.copyOf(path, depth * 2);
+				}
+				path[depth++] = next;
+				state.play(next.getMove(), next.getCost());
+				if (state.getWinner() == SearchState.NO_WINNER) {
+					state.beginTurn(random);
+				}
+				node = next;
+			}
+			int winner = state.rollout(random, rolloutStrategy);
+			root.update(winner, false);
+			for (int step = 0; step < depth; step++) {
+				path[step].update(winner, true);
+			}
+		}
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Player which searches its moves with a parallel Monte Carlo tree search
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.mcts;
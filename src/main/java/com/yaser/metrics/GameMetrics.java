@@ -0,0 +1,190 @@
+package com.yaser.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.yaser.GamePlay;
+import com.yaser.Player;
+
+/**
+ * Counters and phase latencies of played games. A {@link GamePlay} records
+ * into it when it is given with {@link GamePlay#setMetrics(GameMetrics)},
+ * games without metrics only check a null field. All values are striped
+ * counters, so one instance can be shared by all simulation threads.
+ * 
+ * @author yaser
+ *
+ */
+public class GameMetrics implements GameMetricsMXBean {
+	/**
+	 * Name of the metrics registered by {@link #register()}
+	 */
+	public static final String OBJECT_NAME = "com.yaser:type=GameMetrics";
+
+	private final LongAdder games = new LongAdder();
+	private final LongAdder turns = new LongAdder();
+	private final LongAdder playedCards = new LongAdder();
+	private final LongAdder bleedOuts = new LongAdder();
+	private final LongAdder overloads = new LongAdder();
+	private final LongAdder dudCards = new LongAdder();
+	private final LongAdder insufficientManaExceptions = new LongAdder();
+	private final LatencyHistogram gameLatency = new LatencyHistogram();
+	private final LatencyHistogram beginTurnLatency = new LatencyHistogram();
+	private final LatencyHistogram playTurnLatency = new LatencyHistogram();
+
+	/**
+	 * Records a finished game. Players of the game must have started it with
+	 * zero counts.
+	 * 
+	 * @author yaser
+	 * @param game
+	 * @param nanos
+	 *            duration of {@link GamePlay#play()}
+	 */
+	public void recordGame(GamePlay game, long nanos) {
+		Player current = game.getCurrentPlayer();
+		Player opponent = game.getOpponentPlayer();
+		games.increment();
+		turns.add(game.getTurnCount());
+		playedCards.add(current.getPlayedCardCount() + opponent.getPlayedCardCount());
+		bleedOuts.add(current.getBleedOutCount() + opponent.getBleedOutCount());
+		overloads.add(current.getOverloadCount() + opponent.getOverloadCount());
+		dudCards.add(current.getDudCardCount() + opponent.getDudCardCount());
+		gameLatency.record(nanos);
+	}
+
+	/**
+	 * Records the duration of {@link GamePlay#beginTurn()}
+	 * 
+	 * @author yaser
+	 * @param nanos
+	 */
+	public void recordBeginTurn(long nanos) {
+		beginTurnLatency.record(nanos);
+	}
+
+	/**
+	 * Records the duration of {@link GamePlay#playTurn()}
+	 * 
+	 * @author yaser
+	 * @param nanos
+	 */
+	public void recordPlayTurn(long nanos) {
+		playTurnLatency.record(nanos);
+	}
+
+	/**
+	 * Records a {@link com.yaser.exceptions.InsufficientManaException} thrown
+	 * while playing a game
+	 * 
+	 * @author yaser
+	 */
+	public void recordInsufficientMana() {
+		insufficientManaExceptions.increment();
+	}
+
+	/**
+	 * Registers the metrics to the platform MBean server with
+	 * {@link #OBJECT_NAME}
+	 * 
+	 * @author yaser
+	 * @return the registered name
+	 * @throws JMException
+	 *             if metrics are already registered with the name
+	 */
+	public ObjectName register() throws JMException {
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+		return name;
+	}
+
+	/**
+	 * Removes the metrics registered with {@link #OBJECT_NAME} from the
+	 * platform MBean server, if there are any
+	 * 
+	 * @author yaser
+	 * @throws JMException
+	 */
+	public static void unregister() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if (server.isRegistered(name)) {
+			server.unregisterMBean(name);
+		}
+	}
+
+	@Override
+	public long getGames() {
+		return games.sum();
+	}
+
+	@Override
+	public long getTurns() {
+		return turns.sum();
+	}
+
+	@Override
+	public long getPlayedCards() {
+		return playedCards.sum();
+	}
+
+	@Override
+	public long getBleedOuts() {
+		return bleedOuts.sum();
+	}
+
+	@Override
+	public long getOverloads() {
+		return overloads.sum();
+	}
+
+	@Override
+	public long getDudCards() {
+		return dudCards.sum();
+	}
+
+	@Override
+	public long getInsufficientManaExceptions() {
+		return insufficientManaExceptions.sum();
+	}
+
+	@Override
+	public LatencySnapshot getGameLatency() {
+		return gameLatency.snapshot();
+	}
+
+	@Override
+	public LatencySnapshot getBeginTurnLatency() {
+		return beginTurnLatency.snapshot();
+	}
+
+	@Override
+	public LatencySnapshot getPlayTurnLatency() {
+		return playTurnLatency.snapshot();
+	}
+
+	@Override
+	public void reset() {
+		games.reset();
+		turns.reset();
+		playedCards.reset();
+		bleedOuts.reset();
+		overloads.reset();
+		dudCards.reset();
+		insufficientManaExceptions.reset();
+		gameLatency.reset();
+		beginTurnLatency.reset();
+		playTurnLatency.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "GameMetrics [games=" + getGames() + ", turns=" + getTurns() + ", playedCards=" + getPlayedCards()
+				+ ", bleedOuts=" + getBleedOuts() + ", overloads=" + getOverloads() + ", dudCards=" + getDudCards()
+				+ ", insufficientManaExceptions=" + getInsufficientManaExceptions() + "]";
+	}
+}
@@ -0,0 +1,35 @@
+package com.yaser.metrics;
+
+/**
+ * Management interface of {@link GameMetrics}
+ * 
+ * @author yaser
+ *
+ */
+public interface GameMetricsMXBean {
+
+	long getGames();
+
+	long getTurns();
+
+	long getPlayedCards();
+
+	long getBleedOuts();
+
+	long getOverloads();
+
+	long getDudCards();
+
+	long getInsufficientManaExceptions();
+
+	LatencySnapshot getGameLatency();
+
+	LatencySnapshot getBeginTurnLatency();
+
+	LatencySnapshot getPlayTurnLatency();
+
+	/**
+	 * Sets all counters and latencies to zero
+	 */
+	void reset();
+}
@@ -0,0 +1,141 @@
+package com.yaser.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds with log-linear buckets : every
+ * power of two is split into {@value #SUB_BUCKETS} buckets, so a recorded
+ * value is known within 12.5%. Buckets are striped counters, so threads
+ * recording at the same time do not contend.
+ * 
+ * @author yaser
+ *
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram() {
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			buckets[bucket] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Records a duration, negative durations are recorded as 0
+	 * 
+	 * @author yaser
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets[bucket(nanos)].increment();
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/**
+	 * Returns the number of recorded durations
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	public long getTotalNanos() {
+		return total.sum();
+	}
+
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the duration which is not exceeded by the given ratio of the
+	 * recorded durations, as the upper bound of its bucket. Returns 0 if
+	 * nothing is recorded.
+	 * 
+	 * @author yaser
+	 * @param ratio
+	 *            between 0 and 1
+	 * @return
+	 */
+	public long getPercentileNanos(double ratio) {
+		if (ratio < 0 || ratio > 1) {
+			throw new IllegalArgumentException("Ratio must be between 0 and 1 : " + ratio);
+		}
+		long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts[bucket] = buckets[bucket].sum();
+			count += counts[bucket];
+		}
+		long rank = Math.max(1, (long) Math.ceil(ratio * count));
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			rank -= counts[bucket];
+			if (rank <= 0) {
+				return Math.min(upperBound(bucket), getMaxNanos());
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the count, mean and main percentiles of the recorded
+	 * durations
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public LatencySnapshot snapshot() {
+		long count = getCount();
+		return new LatencySnapshot(count, count == 0 ? 0 : (double) getTotalNanos() / count,
+				getPercentileNanos(0.5), getPercentileNanos(0.9), getPercentileNanos(0.99), getMaxNanos());
+	}
+
+	/**
+	 * Forgets the recorded durations. Durations recorded while resetting may
+	 * be partly kept.
+	 * 
+	 * @author yaser
+	 */
+	public void reset() {
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		total.reset();
+		max.reset();
+	}
+
+	static int bucket(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+		return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+}
@@ -0,0 +1,60 @@
+package com.yaser.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Summary of a {@link LatencyHistogram} at one moment, in nanoseconds. It is
+ * shown as a composite attribute by JMX clients.
+ * 
+ * @author yaser
+ *
+ */
+public class LatencySnapshot {
+	private final long count;
+	private final double meanNanos;
+	private final long p50Nanos;
+	private final long p90Nanos;
+	private final long p99Nanos;
+	private final long maxNanos;
+
+	@ConstructorProperties({ "count", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "maxNanos" })
+	public LatencySnapshot(long count, double meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+			long maxNanos) {
+		this.count = count;
+		this.meanNanos = meanNanos;
+		this.p50Nanos = p50Nanos;
+		this.p90Nanos = p90Nanos;
+		this.p99Nanos = p99Nanos;
+		this.maxNanos = maxNanos;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMeanNanos() {
+		return meanNanos;
+	}
+
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	public long getP90Nanos() {
+		return p90Nanos;
+	}
+
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "LatencySnapshot [count=" + count + ", meanNanos=" + meanNanos + ", p50Nanos=" + p50Nanos
+				+ ", p90Nanos=" + p90Nanos + ", p99Nanos=" + p99Nanos + ", maxNanos=" + maxNanos + "]";
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Runtime counters and latencies of played games, exposed over JMX
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.metrics;
@@ -0,0 +1,157 @@
+package com.yaser.results;
+
+import com.yaser.Player;
+
+/**
+ * Results of up to a fixed number of games, kept column by column. Blocks
+ * are reused, so filling a block does not create any object.
+ *
+ * @author yaser
+ *
+ */
+final class ResultBlock {
+	private final long[] seeds;
+	/**
+	 * Values of the columns after {@link ResultFormat#SEED} by column
+	 */
+	private final int[][] values = new int[ResultFormat.COLUMNS][];
+	private int size = 0;
+
+	ResultBlock(int capacity) {
+		seeds = new long[capacity];
+		for (int column = ResultFormat.SEED + 1; column < ResultFormat.COLUMNS; column++) {
+			values[column] = new int[capacity];
+		}
+	}
+
+	/**
+	 * Adds the result of a game, the block must not be full
+	 */
+	void add(long seed, int winnerSeat, int turnCount, Player firstPlayer, Player secondPlayer) {
+		int row = size++;
+		seeds[row] = seed;
+		values[ResultFormat.WINNER][row] = winnerSeat;
+		values[ResultFormat.TURNS][row] = turnCount;
+		values[ResultFormat.HEALTH][row] = firstPlayer.getHealth();
+		values[ResultFormat.HEALTH + 1][row] = secondPlayer.getHealth();
+		values[ResultFormat.BLEED_OUTS][row] = firstPlayer.getBleedOutCount();
+		values[ResultFormat.BLEED_OUTS + 1][row] = secondPlayer.getBleedOutCount();
+		values[ResultFormat.OVERLOADS][row] = firstPlayer.getOverloadCount();
+		values[ResultFormat.OVERLOADS + 1][row] = secondPlayer.getOverloadCount();
+		values[ResultFormat.DUD_CARDS][row] = firstPlayer.getDudCardCount();
+		values[ResultFormat.DUD_CARDS + 1][row] = secondPlayer.getDudCardCount();
+	}
+
+	long getSeed(int row) {
+		return seeds[row];
+	}
+
+	int getValue(int column, int row) {
+		return values[column][row];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isFull() {
+		return size == seeds.length;
+	}
+
+	int capacity() {
+		return seeds.length;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Writes the values of a column into the given buffer, which must have
+	 * {@link ResultFormat#MAX_VALUE_SIZE} bytes per game
+	 *
+	 * @return number of written bytes
+	 */
+	int encode(int column, byte[] buffer) {
+		int position = 0;
+		if (column == ResultFormat.SEED) {
+			for (int row = 0; row < size; row++) {
+				long seed = seeds[row];
+				for (int shift = 56; shift >= 0; shift -= 8) {
+					buffer[position++] = (byte) (seed >>> shift);
+				}
+			}
+		} else if (column == ResultFormat.WINNER) {
+			int[] winners = values[column];
+			for (int row = 0; row < size; row += 8) {
+				int bits = 0;
+				for (int bit = 0; bit < 8 && row + bit < size; bit++) {
+					bits |= winners[row + bit] << bit;
+				}
+				buffer[position++] = (byte) bits;
+			}
+		} else {
+			int[] columnValues = values[column];
+			for (int row = 0; row < size; row++) {
+				int value = columnValues[row];
+				// zigzag keeps small negative healths small
+				int zigzag = (value << 1) ^ (value >> 31);
+				while ((zigzag & ~0x7F) != 0) {
+					buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+					zigzag >>>= 7;
+				}
+				buffer[position++] = (byte) zigzag;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Reads the values of a column of the given number of games from the
+	 * given buffer
+	 *
+	 * @return number of read bytes, -1 if the buffer ends before the values
+	 */
+	int decode(int column, byte[] buffer, int length, int games) {
+		size = games;
+		int position = 0;
+		if (column == ResultFormat.SEED) {
+			if (length < games * 8) {
+				return -1;
+			}
+			for (int row = 0; row < games; row++) {
+				long seed = 0;
+				for (int i = 0; i < 8; i++) {
+					seed = (seed << 8) | (buffer[position++] & 0xFF);
+				}
+				seeds[row] = seed;
+			}
+		} else if (column == ResultFormat.WINNER) {
+			if (length < (games + 7) / 8) {
+				return -1;
+			}
+			int[] winners = values[column];
+			for (int row = 0; row < games; row++) {
+				winners[row] = (buffer[row >>> 3] >>> (row & 7)) & 1;
+			}
+			position = (games + 7) / 8;
+		} else {
+			int[] columnValues = values[column];
+			for (int row = 0; row < games; row++) {
+				int zigzag = 0;
+				int shift = 0;
+				int b;
+				do {
+					if (position == length || shift > 28) {
+						return -1;
+					}
+					b = buffer[position++];
+					zigzag |= (b & 0x7F) << shift;
+					shift += 7;
+				} while ((b & 0x80) != 0);
+				columnValues[row] = (zigzag >>> 1) ^ -(zigzag & 1);
+			}
+		}
+		return position;
+	}
+}
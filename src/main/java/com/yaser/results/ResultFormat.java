@@ -0,0 +1,67 @@
+package com.yaser.results;
+
+/**
+ * Layout of a result file. A file starts with {@link #MAGIC},
+ * {@link #VERSION} and the 4 byte highest number of games of a block,
+ * followed by the blocks one after another.
+ * <p>
+ * A block starts with its 4 byte number of games, followed by its
+ * {@link #COLUMNS} columns in column order. A column is its 4 byte
+ * compressed length followed by its values compressed with
+ * {@link java.util.zip.Deflater}. Seeds are 8 byte values, winner seats are
+ * packed into bits, lowest bit first, and all other values are zigzag
+ * varints. Seat 0 is the player who starts the game.
+ * 
+ * @author yaser
+ *
+ */
+public final class ResultFormat {
+	/**
+	 * First bytes of a result file
+	 */
+	public static final int MAGIC = 0x54595253;
+	public static final byte VERSION = 1;
+	/**
+	 * Size of the file header in bytes
+	 */
+	public static final int HEADER_SIZE = 9;
+	/**
+	 * Seed of the game
+	 */
+	public static final int SEED = 0;
+	/**
+	 * Seat of the winner
+	 */
+	public static final int WINNER = 1;
+	/**
+	 * Number of turns of the game
+	 */
+	public static final int TURNS = 2;
+	/**
+	 * Final health of seat 0, seat 1 is the next column
+	 */
+	public static final int HEALTH = 3;
+	/**
+	 * Special Rule 1 : bleed outs of seat 0, seat 1 is the next column
+	 */
+	public static final int BLEED_OUTS = 5;
+	/**
+	 * Special Rule 2 : overloads of seat 0, seat 1 is the next column
+	 */
+	public static final int OVERLOADS = 7;
+	/**
+	 * Special Rule 3 : dud cards played by seat 0, seat 1 is the next column
+	 */
+	public static final int DUD_CARDS = 9;
+	/**
+	 * Number of columns
+	 */
+	public static final int COLUMNS = 11;
+	/**
+	 * Highest number of bytes of one value before compression
+	 */
+	static final int MAX_VALUE_SIZE = 8;
+
+	private ResultFormat() {
+	}
+}
@@ -0,0 +1,157 @@
+package com.yaser.results;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.yaser.exceptions.ResultFormatException;
+
+/**
+ * Reads the games of a result file one by one. One block is kept in memory
+ * and reused for the next block, so a file of any size can be read. Call
+ * {@link #next()} to move to a game, then read the values of the game with
+ * the getters.
+ *
+ * @author yaser
+ *
+ */
+public class ResultReader implements Closeable {
+	private final Path file;
+	private final DataInputStream input;
+	private final ResultBlock block;
+	private final Inflater inflater = new Inflater();
+	private final byte[] encoded;
+	private byte[] compressed;
+	private int row = -1;
+
+	public ResultReader(Path file) throws IOException {
+		this.file = file;
+		this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+		try {
+			if (input.readInt() != ResultFormat.MAGIC) {
+				throw new ResultFormatException("Not a result file : " + file);
+			}
+			byte version = input.readByte();
+			if (version != ResultFormat.VERSION) {
+				throw new ResultFormatException("Unsupported result file version " + version + " : " + file);
+			}
+			int blockSize = input.readInt();
+			if (blockSize < 1) {
+				throw new ResultFormatException("Invalid block size " + blockSize + " : " + file);
+			}
+			this.block = new ResultBlock(blockSize);
+			this.encoded = new byte[blockSize * ResultFormat.MAX_VALUE_SIZE];
+			this.compressed = new byte[encoded.length];
+		} catch (EOFException | ResultFormatException e) {
+			input.close();
+			inflater.end();
+			if (e instanceof EOFException) {
+				throw new ResultFormatException("Not a result file : " + file);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Moves to the next game, returns false if there is no more game in the
+	 * file
+	 *
+	 * @author yaser
+	 * @return
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		if (++row < block.size()) {
+			return true;
+		}
+		row = 0;
+		return readBlock();
+	}
+
+	private boolean readBlock() throws IOException {
+		int games;
+		try {
+			games = input.readInt();
+		} catch (EOFException e) {
+			block.clear();
+			return false;
+		}
+		if (games < 1 || games > block.capacity()) {
+			throw new ResultFormatException("Invalid number of games in block " + games + " : " + file);
+		}
+		try {
+			for (int column = 0; column < ResultFormat.COLUMNS; column++) {
+				int length = input.readInt();
+				if (length < 0) {
+					throw new ResultFormatException("Invalid column length " + length + " : " + file);
+				}
+				if (length > compressed.length) {
+					compressed = new byte[length];
+				}
+				input.readFully(compressed, 0, length);
+				inflater.reset();
+				inflater.setInput(compressed, 0, length);
+				int encodedLength = inflater.inflate(encoded);
+				if (!inflater.finished() || block.decode(column, encoded, encodedLength, games) != encodedLength) {
+					throw new ResultFormatException("Corrupted column " + column + " : " + file);
+				}
+			}
+		} catch (EOFException e) {
+			throw new ResultFormatException("Result file ends in the middle of a block : " + file);
+		} catch (DataFormatException e) {
+			throw new ResultFormatException("Corrupted block : " + file + " : " + e.getMessage());
+		}
+		return true;
+	}
+
+	public long getSeed() {
+		return block.getSeed(row);
+	}
+
+	/**
+	 * Returns the seat of the winner, 0 for the player who started the game
+	 *
+	 * @return
+	 */
+	public int getWinnerSeat() {
+		return block.getValue(ResultFormat.WINNER, row);
+	}
+
+	public int getTurnCount() {
+		return block.getValue(ResultFormat.TURNS, row);
+	}
+
+	/**
+	 * Returns the final health of the player of the given seat
+	 *
+	 * @param seat
+	 * @return
+	 */
+	public int getHealth(int seat) {
+		return block.getValue(ResultFormat.HEALTH + seat, row);
+	}
+
+	public int getBleedOutCount(int seat) {
+		return block.getValue(ResultFormat.BLEED_OUTS + seat, row);
+	}
+
+	public int getOverloadCount(int seat) {
+		return block.getValue(ResultFormat.OVERLOADS + seat, row);
+	}
+
+	public int getDudCardCount(int seat) {
+		return block.getValue(ResultFormat.DUD_CARDS + seat, row);
+	}
+
+	@Override
+	public void close() throws IOException {
+		inflater.end();
+		input.close();
+	}
+}
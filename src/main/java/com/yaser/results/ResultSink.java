@@ -0,0 +1,333 @@
+package com.yaser.results;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.Player;
+
+/**
+ * Streams the results of played games into a result file, see
+ * {@link ResultFormat}. Every thread fills its own block of results; a full
+ * block is put into a bounded queue and a writer thread compresses it column
+ * by column and writes it. When the writer falls behind, the queue is full
+ * and the recording threads wait for it, so the number of blocks never grows
+ * over the number of recording threads plus the queue capacity, however many
+ * games are recorded. Written blocks are reused.
+ * <p>
+ * {@link #recorder()} can be given to
+ * {@link com.yaser.simulation.Simulator#setGameEventListenerFactory(java.util.function.Supplier)}
+ * as {@code sink::recorder}.
+ *
+ * @author yaser
+ *
+ */
+public class ResultSink implements Closeable {
+	public static final int DEFAULT_BLOCK_SIZE = 4096;
+	public static final int DEFAULT_QUEUE_CAPACITY = 4;
+	/**
+	 * Put into the queue after the last block
+	 */
+	private static final ResultBlock END = new ResultBlock(0);
+
+	private final Path file;
+	private final int blockSize;
+	private final DataOutputStream output;
+	private final BlockingQueue<ResultBlock> fullBlocks;
+	private final Queue<ResultBlock> freeBlocks = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger blockCount = new AtomicInteger();
+	private final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<Recorder> threadRecorder = ThreadLocal.withInitial(this::newRecorder);
+	private final Thread writer;
+	/**
+	 * Buffers of the writer thread
+	 */
+	private final byte[] encoded;
+	private byte[] compressed;
+	private volatile IOException failure;
+	private volatile long games = 0;
+	private volatile long size = 0;
+	private volatile boolean closed = false;
+
+	public ResultSink(Path file) throws IOException {
+		this(file, DEFAULT_BLOCK_SIZE, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates the file and starts the writer thread
+	 *
+	 * @param file
+	 * @param blockSize
+	 *            highest number of games of a block
+	 * @param queueCapacity
+	 *            number of full blocks which can wait for the writer
+	 * @throws IOException
+	 */
+	public ResultSink(Path file, int blockSize, int queueCapacity) throws IOException {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Block size must be positive : " + blockSize);
+		}
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("Queue capacity must be positive : " + queueCapacity);
+		}
+		this.file = file;
+		this.blockSize = blockSize;
+		this.fullBlocks = new ArrayBlockingQueue<>(queueCapacity);
+		this.encoded = new byte[blockSize * ResultFormat.MAX_VALUE_SIZE];
+		this.compressed = new byte[encoded.length];
+		this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+		output.writeInt(ResultFormat.MAGIC);
+		output.writeByte(ResultFormat.VERSION);
+		output.writeInt(blockSize);
+		size = ResultFormat.HEADER_SIZE;
+		this.writer = new Thread(this::writeBlocks, "result-writer-" + file.getFileName());
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Returns the recorder of the calling thread, which records every game it
+	 * listens to
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public GameEventListener recorder() {
+		if (closed) {
+			throw new IllegalStateException("Result sink is closed : " + file);
+		}
+		return threadRecorder.get();
+	}
+
+	/**
+	 * Records the result of a played game, waits if the writer is behind
+	 *
+	 * @author yaser
+	 * @param game
+	 * @param firstPlayer
+	 *            player who has started the game
+	 */
+	public void record(GamePlay game, Player firstPlayer) {
+		if (closed) {
+			throw new IllegalStateException("Result sink is closed : " + file);
+		}
+		if (game.getWinner() == null) {
+			throw new IllegalArgumentException("Game is not played yet");
+		}
+		threadRecorder.get().record(game, firstPlayer, game.getWinner());
+	}
+
+	private Recorder newRecorder() {
+		Recorder recorder = new Recorder();
+		recorders.add(recorder);
+		return recorder;
+	}
+
+	private ResultBlock newBlock() {
+		ResultBlock block = freeBlocks.poll();
+		if (block == null) {
+			blockCount.incrementAndGet();
+			block = new ResultBlock(blockSize);
+		}
+		return block;
+	}
+
+	private void submit(ResultBlock block) {
+		IOException failure = this.failure;
+		if (failure != null) {
+			throw new UncheckedIOException(failure);
+		}
+		try {
+			fullBlocks.put(block);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the result writer : " + file);
+		}
+	}
+
+	/**
+	 * Writes the full blocks until the end of the queue. After a failure, the
+	 * blocks are dropped so the recording threads do not wait forever.
+	 */
+	private void writeBlocks() {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			for (ResultBlock block = takeBlock(); block != END; block = takeBlock()) {
+				if (failure == null) {
+					try {
+						write(block, deflater);
+					} catch (IOException e) {
+						failure = e;
+					}
+				}
+				block.clear();
+				freeBlocks.add(block);
+			}
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private ResultBlock takeBlock() {
+		for (;;) {
+			try {
+				return fullBlocks.take();
+			} catch (InterruptedException e) {
+				// the writer only stops at the end of the queue
+			}
+		}
+	}
+
+	private void write(ResultBlock block, Deflater deflater) throws IOException {
+		output.writeInt(block.size());
+		long blockBytes = 4;
+		for (int column = 0; column < ResultFormat.COLUMNS; column++) {
+			deflater.reset();
+			deflater.setInput(encoded, 0, block.encode(column, encoded));
+			deflater.finish();
+			int length = 0;
+			while (!deflater.finished()) {
+				if (length == compressed.length) {
+					compressed = Arrays.copyOf(compressed, length * 2);
+				}
+				length += deflater.deflate(compressed, length, compressed.length - length);
+			}
+			output.writeInt(length);
+			output.write(compressed, 0, length);
+			blockBytes += 4 + length;
+		}
+		games += block.size();
+		size += blockBytes;
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the number of games written so far
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Returns the number of bytes written so far, including the bytes which
+	 * are not flushed yet
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of blocks created, which does not depend on the
+	 * number of recorded games
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public int getBlockCount() {
+		return blockCount.get();
+	}
+
+	/**
+	 * Writes the blocks which are not full yet and closes the file. Must be
+	 * called after the threads have finished recording.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			for (Recorder recorder : recorders) {
+				if (recorder.block != null && recorder.block.size() > 0) {
+					submit(recorder.block);
+				}
+				recorder.block = null;
+			}
+		} finally {
+			// the queue may be full, the writer empties it
+			boolean interrupted = false;
+			for (boolean ended = false; !ended;) {
+				try {
+					fullBlocks.put(END);
+					ended = true;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			for (boolean joined = false; !joined;) {
+				try {
+					writer.join();
+					joined = true;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			output.close();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Records the games of one thread into its own block
+	 */
+	private class Recorder implements GameEventListener {
+		private ResultBlock block;
+		private GamePlay game;
+		private Player firstPlayer;
+
+		@Override
+		public void gameStarted(GamePlay game) {
+			this.game = game;
+			this.firstPlayer = game.getCurrentPlayer();
+		}
+
+		@Override
+		public void gameWon(Player winner) {
+			record(game, firstPlayer, winner);
+			game = null;
+			firstPlayer = null;
+		}
+
+		void record(GamePlay game, Player firstPlayer, Player winner) {
+			Player secondPlayer = game.getCurrentPlayer() == firstPlayer ? game.getOpponentPlayer()
+					: game.getCurrentPlayer();
+			if (block == null) {
+				block = newBlock();
+			}
+			block.add(game.getSeed(), winner == firstPlayer ? 0 : 1, game.getTurnCount(), firstPlayer, secondPlayer);
+			if (block.isFull()) {
+				ResultBlock full = block;
+				block = null;
+				submit(full);
+			}
+		}
+	}
+}
@@ -0,0 +1,8 @@
+/**
+ * Streaming sink of per game results into compressed columnar files and its
+ * reader
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.results;
@@ -0,0 +1,110 @@
+package com.yaser.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import com.yaser.simulation.SimulationResult;
+
+/**
+ * Size-bounded cache of simulation results with least recently used
+ * eviction. Results are kept as futures, so a request which comes while the
+ * same request is still running waits for that job instead of starting
+ * another one. A job which fails is removed, so it can be tried again.
+ *
+ * @author yaser
+ *
+ */
+public class ResultCache {
+	private final int capacity;
+	private final Map<SimulationRequest, CompletableFuture<SimulationResult>> results;
+	private long hits = 0;
+	private long misses = 0;
+
+	public ResultCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be positive : " + capacity);
+		}
+		this.capacity = capacity;
+		this.results = new LinkedHashMap<SimulationRequest, CompletableFuture<SimulationResult>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<SimulationRequest, CompletableFuture<SimulationResult>> e) {
+				return size() > ResultCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached result of the given request, or starts it with the
+	 * given function and caches it
+	 *
+	 * @author yaser
+	 * @param request
+	 * @param job
+	 *            starts the job of the request, it is called without holding
+	 *            the cache
+	 * @return
+	 */
+	public CompletableFuture<SimulationResult> get(SimulationRequest request,
+			Function<SimulationRequest, CompletableFuture<SimulationResult>> job) {
+		CompletableFuture<SimulationResult> result;
+		CompletableFuture<SimulationResult> placeholder = new CompletableFuture<>();
+		synchronized (this) {
+			result = results.get(request);
+			if (result != null) {
+				hits++;
+				return result;
+			}
+			misses++;
+			results.put(request, placeholder);
+		}
+		try {
+			job.apply(request).whenComplete((value, failure) -> {
+				if (failure != null) {
+					remove(request, placeholder);
+					placeholder.completeExceptionally(failure);
+				} else {
+					placeholder.complete(value);
+				}
+			});
+		} catch (RuntimeException e) {
+			remove(request, placeholder);
+			placeholder.completeExceptionally(e);
+		}
+		return placeholder;
+	}
+
+	private synchronized void remove(SimulationRequest request, CompletableFuture<SimulationResult> result) {
+		results.remove(request, result);
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized int size() {
+		return results.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the part of the lookups which found a result, 0 before the
+	 * first lookup
+	 *
+	 * @return
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+}
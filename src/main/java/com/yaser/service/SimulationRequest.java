@@ -0,0 +1,205 @@
+package com.yaser.service;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Arrays;
+
+import com.yaser.CardHistogram;
+import com.yaser.Player;
+
+/**
+ * Query of the simulation service : deck of the first player against deck of
+ * the second player, number of games and master seed. Decks are kept sorted
+ * by mana cost, so requests which only differ in the order of the cards are
+ * equal and have the same canonical query.
+ *
+ * @author yaser
+ *
+ */
+public final class SimulationRequest {
+	/**
+	 * Highest number of cards in a deck
+	 */
+	public static final int MAX_DECK_SIZE = 64;
+
+	private final int[] firstDeck;
+	private final int[] secondDeck;
+	private final long games;
+	private final long seed;
+
+	public SimulationRequest(int[] firstDeck, int[] secondDeck, long games, long seed) {
+		if (games < 0) {
+			throw new IllegalArgumentException("Number of games can not be negative : " + games);
+		}
+		this.firstDeck = canonicalDeck(firstDeck);
+		this.secondDeck = canonicalDeck(secondDeck);
+		this.games = games;
+		this.seed = seed;
+	}
+
+	/**
+	 * Parses a query like {@code a=0,1,1,2&b=3,3&games=1000&seed=42}. A
+	 * missing deck is the default deck, a missing seed is 0.
+	 *
+	 * @author yaser
+	 * @param query
+	 *            raw query of the request URI, may be null
+	 * @return
+	 */
+	public static SimulationRequest parse(String query) {
+		int[] firstDeck = Player.getDefaultDeckCosts();
+		int[] secondDeck = Player.getDefaultDeckCosts();
+		Long games = null;
+		long seed = 0;
+		for (String parameter : query == null ? new String[0] : query.split("&")) {
+			if (parameter.isEmpty()) {
+				continue;
+			}
+			int equals = parameter.indexOf('=');
+			String name = decode(equals < 0 ? parameter : parameter.substring(0, equals));
+			String value = equals < 0 ? "" : decode(parameter.substring(equals + 1));
+			switch (name) {
+			case "a":
+				firstDeck = parseDeck(value);
+				break;
+			case "b":
+				secondDeck = parseDeck(value);
+				break;
+			case "games":
+				games = parseLong(name, value);
+				break;
+			case "seed":
+				seed = parseLong(name, value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown parameter : " + name);
+			}
+		}
+		if (games == null) {
+			throw new IllegalArgumentException("Number of games is missing");
+		}
+		return new SimulationRequest(firstDeck, secondDeck, games, seed);
+	}
+
+	private static int[] parseDeck(String value) {
+		if (value.isEmpty()) {
+			return new int[0];
+		}
+		String[] cards = value.split(",");
+		int[] costs = new int[cards.length];
+		for (int card = 0; card < cards.length; card++) {
+			try {
+				costs[card] = Integer.parseInt(cards[card].trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Mana cost is not a number : " + cards[card]);
+			}
+		}
+		return costs;
+	}
+
+	private static long parseLong(String name, String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Parameter " + name + " is not a number : " + value);
+		}
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static int[] canonicalDeck(int[] deck) {
+		if (deck.length > MAX_DECK_SIZE) {
+			throw new IllegalArgumentException("Deck can not have more than " + MAX_DECK_SIZE + " cards : "
+					+ deck.length);
+		}
+		for (int cost : deck) {
+			if (cost < 0 || cost > CardHistogram.MAX_COST) {
+				throw new IllegalArgumentException("Mana cost must be between 0 and " + CardHistogram.MAX_COST
+						+ " : " + cost);
+			}
+		}
+		int[] sorted = deck.clone();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * Returns the query of this request with sorted decks and all
+	 * parameters, which is the same for all equal requests
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public String getCanonicalQuery() {
+		return "a=" + join(firstDeck) + "&b=" + join(secondDeck) + "&games=" + games + "&seed=" + seed;
+	}
+
+	private static String join(int[] deck) {
+		StringBuilder sb = new StringBuilder();
+		for (int card = 0; card < deck.length; card++) {
+			if (card > 0) {
+				sb.append(',');
+			}
+			sb.append(deck[card]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the mana costs of the deck of the first player, sorted
+	 *
+	 * @return
+	 */
+	public int[] getFirstDeck() {
+		return firstDeck.clone();
+	}
+
+	/**
+	 * Returns the mana costs of the deck of the second player, sorted
+	 *
+	 * @return
+	 */
+	public int[] getSecondDeck() {
+		return secondDeck.clone();
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Arrays.hashCode(firstDeck);
+		result = 31 * result + Arrays.hashCode(secondDeck);
+		result = 31 * result + Long.hashCode(games);
+		return 31 * result + Long.hashCode(seed);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SimulationRequest)) {
+			return false;
+		}
+		SimulationRequest other = (SimulationRequest) obj;
+		return games == other.games && seed == other.seed && Arrays.equals(firstDeck, other.firstDeck)
+				&& Arrays.equals(secondDeck, other.secondDeck);
+	}
+
+	@Override
+	public String toString() {
+		return getCanonicalQuery();
+	}
+}
@@ -0,0 +1,340 @@
+package com.yaser.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.MatchArena;
+import com.yaser.simulation.SimulationResult;
+
+/**
+ * Local HTTP service which plays simulation jobs on a bounded worker pool
+ * and keeps their results in a {@link ResultCache}, so a repeated query is
+ * answered from memory.
+ * <ul>
+ * <li>{@code GET /simulate?a=<costs>&b=<costs>&games=<n>&seed=<s>} plays
+ * {@code n} games of deck {@code a} against deck {@code b}, see
+ * {@link SimulationRequest}. Game {@code i} is seeded like game {@code i} of a
+ * {@link com.yaser.simulation.Simulator} run with master seed {@code s}, so
+ * the result is the result of that run.</li>
+ * <li>{@code GET /stats} returns the cache hit rate, the number of queued
+ * and running jobs and the number of rejected jobs.</li>
+ * </ul>
+ * A job which does not fit in the queue is answered with 503, a bad query
+ * with 400. Responses are JSON objects.
+ *
+ * @author yaser
+ *
+ */
+public class SimulationService implements Closeable {
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+	public static final int DEFAULT_CACHE_CAPACITY = 1024;
+	public static final long DEFAULT_MAX_GAMES = 10_000_000;
+	public static final int DEFAULT_HTTP_THREADS = 16;
+	/**
+	 * Games played between two checks of the interrupt flag
+	 */
+	private static final int INTERRUPT_CHECK_GAMES = 1024;
+
+	private int workers = Runtime.getRuntime().availableProcessors();
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private int cacheCapacity = DEFAULT_CACHE_CAPACITY;
+	private long maxGames = DEFAULT_MAX_GAMES;
+	private int httpThreads = DEFAULT_HTTP_THREADS;
+
+	private ThreadPoolExecutor jobs;
+	private ExecutorService httpExecutor;
+	private HttpServer server;
+	private ResultCache cache;
+	private final LongAdder rejectedJobs = new LongAdder();
+
+	/**
+	 * Starts the service on the loopback address
+	 *
+	 * @author yaser
+	 * @param port
+	 *            0 for any free port
+	 * @return address of the service
+	 * @throws IOException
+	 */
+	public synchronized InetSocketAddress start(int port) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("Service is already started");
+		}
+		cache = new ResultCache(cacheCapacity);
+		jobs = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), daemonThreads("simulation-job-"));
+		httpExecutor = Executors.newFixedThreadPool(httpThreads, daemonThreads("simulation-http-"));
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/simulate", this::simulate);
+		server.createContext("/stats", this::stats);
+		server.createContext("/", exchange -> respond(exchange, 404, error("Not found")));
+		server.setExecutor(httpExecutor);
+		server.start();
+		return server.getAddress();
+	}
+
+	/**
+	 * Returns the result of the given request from the cache, or starts its
+	 * job on the worker pool. If the queue of the pool is full, the returned
+	 * future has failed with a {@link RejectedExecutionException} and the
+	 * request is not cached.
+	 *
+	 * @author yaser
+	 * @param request
+	 * @return
+	 */
+	public CompletableFuture<SimulationResult> submit(SimulationRequest request) {
+		if (cache == null) {
+			throw new IllegalStateException("Service is not started");
+		}
+		if (request.getGames() > maxGames) {
+			throw new IllegalArgumentException("Number of games can not be more than " + maxGames + " : "
+					+ request.getGames());
+		}
+		return cache.get(request, this::startJob);
+	}
+
+	private CompletableFuture<SimulationResult> startJob(SimulationRequest request) {
+		try {
+			return CompletableFuture.supplyAsync(() -> play(request), jobs);
+		} catch (RejectedExecutionException e) {
+			rejectedJobs.increment();
+			throw e;
+		}
+	}
+
+	/**
+	 * Plays the games of the given request in one arena on the calling thread
+	 *
+	 * @author yaser
+	 * @param request
+	 * @return
+	 */
+	static SimulationResult play(SimulationRequest request) {
+		Player first = new Player("Player 1");
+		first.getDeck().setCards(request.getFirstDeck());
+		Player second = new Player("Player 2");
+		second.getDeck().setCards(request.getSecondDeck());
+		MatchArena arena = new MatchArena(first, second);
+		SimulationResult result = new SimulationResult();
+		for (long game = 0; game < request.getGames(); game++) {
+			if (game % INTERRUPT_CHECK_GAMES == 0 && Thread.currentThread().isInterrupted()) {
+				throw new CancellationException("Service is closed");
+			}
+			result.record(arena.play(GameRandom.gameSeed(request.getSeed(), game)), first);
+		}
+		return result;
+	}
+
+	private void simulate(HttpExchange exchange) throws IOException {
+		if (!"GET".equals(exchange.getRequestMethod())) {
+			respond(exchange, 405, error("Only GET is supported"));
+			return;
+		}
+		long start = System.nanoTime();
+		SimulationRequest request;
+		CompletableFuture<SimulationResult> future;
+		try {
+			request = SimulationRequest.parse(exchange.getRequestURI().getRawQuery());
+			future = submit(request);
+		} catch (IllegalArgumentException e) {
+			respond(exchange, 400, error(e.getMessage()));
+			return;
+		}
+		boolean cached = future.isDone();
+		SimulationResult result;
+		try {
+			result = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			respond(exchange, 503, error("Service is closed"));
+			return;
+		} catch (ExecutionException | CancellationException e) {
+			Throwable cause = e.getCause() == null ? e : e.getCause();
+			if (cause instanceof RejectedExecutionException) {
+				respond(exchange, 503, error("Job queue is full"));
+			} else {
+				respond(exchange, 500, error(String.valueOf(cause)));
+			}
+			return;
+		}
+		StringBuilder json = new StringBuilder(256);
+		json.append("{\"request\":\"").append(request.getCanonicalQuery()).append('"');
+		json.append(",\"games\":").append(result.getGames());
+		json.append(",\"wins\":[").append(result.getWins(0)).append(',').append(result.getWins(1)).append(']');
+		json.append(",\"winRate\":").append(result.getWinRate(0));
+		json.append(",\"meanGameLength\":").append(result.getMeanGameLength());
+		json.append(",\"bleedOuts\":").append(result.getBleedOuts());
+		json.append(",\"overloads\":").append(result.getOverloads());
+		json.append(",\"cached\":").append(cached);
+		json.append(",\"micros\":").append((System.nanoTime() - start) / 1000);
+		respond(exchange, 200, json.append('}').toString());
+	}
+
+	private void stats(HttpExchange exchange) throws IOException {
+		StringBuilder json = new StringBuilder(256);
+		json.append("{\"cacheSize\":").append(cache.size());
+		json.append(",\"cacheHits\":").append(cache.getHits());
+		json.append(",\"cacheMisses\":").append(cache.getMisses());
+		json.append(",\"hitRate\":").append(cache.getHitRate());
+		json.append(",\"queueDepth\":").append(getQueueDepth());
+		json.append(",\"runningJobs\":").append(jobs.getActiveCount());
+		json.append(",\"completedJobs\":").append(jobs.getCompletedTaskCount());
+		json.append(",\"rejectedJobs\":").append(rejectedJobs.sum());
+		respond(exchange, 200, json.append('}').toString());
+	}
+
+	private static String error(String message) {
+		return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	private static ThreadFactory daemonThreads(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Stops the server and interrupts the running jobs
+	 */
+	@Override
+	public synchronized void close() {
+		if (server != null) {
+			server.stop(0);
+			jobs.shutdownNow();
+			httpExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the number of jobs waiting for a worker
+	 *
+	 * @return
+	 */
+	public int getQueueDepth() {
+		return jobs == null ? 0 : jobs.getQueue().size();
+	}
+
+	/**
+	 * Returns the cache of the service, null until it is started
+	 *
+	 * @return
+	 */
+	public ResultCache getCache() {
+		return cache;
+	}
+
+	public long getRejectedJobs() {
+		return rejectedJobs.sum();
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public void setWorkers(int workers) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("Number of workers must be positive : " + workers);
+		}
+		this.workers = workers;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Sets the number of jobs which may wait for a worker, more jobs are
+	 * rejected
+	 *
+	 * @param queueCapacity
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("Queue capacity must be positive : " + queueCapacity);
+		}
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getCacheCapacity() {
+		return cacheCapacity;
+	}
+
+	/**
+	 * Sets the number of results kept in the cache, must be called before
+	 * {@link #start(int)}
+	 *
+	 * @param cacheCapacity
+	 */
+	public void setCacheCapacity(int cacheCapacity) {
+		if (cacheCapacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be positive : " + cacheCapacity);
+		}
+		this.cacheCapacity = cacheCapacity;
+	}
+
+	public long getMaxGames() {
+		return maxGames;
+	}
+
+	/**
+	 * Sets the highest number of games of one request
+	 *
+	 * @param maxGames
+	 */
+	public void setMaxGames(long maxGames) {
+		if (maxGames < 1) {
+			throw new IllegalArgumentException("Max games must be positive : " + maxGames);
+		}
+		this.maxGames = maxGames;
+	}
+
+	public int getHttpThreads() {
+		return httpThreads;
+	}
+
+	/**
+	 * Sets the number of threads which answer requests. Requests whose job is
+	 * running wait on these threads.
+	 *
+	 * @param httpThreads
+	 */
+	public void setHttpThreads(int httpThreads) {
+		if (httpThreads < 1) {
+			throw new IllegalArgumentException("Number of HTTP threads must be positive : " + httpThreads);
+		}
+		this.httpThreads = httpThreads;
+	}
+}
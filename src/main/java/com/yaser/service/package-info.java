@@ -0,0 +1,7 @@
+/**
+ * Local HTTP service which runs simulations and caches their results
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.service;
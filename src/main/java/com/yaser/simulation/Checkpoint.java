@@ -0,0 +1,196 @@
+package com.yaser.simulation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import com.yaser.exceptions.CheckpointException;
+
+/**
+ * Progress of a simulation run : its master seed and number of games, the
+ * ranges of the games which are completed and their aggregated result.
+ * Games of a run are seeded by their index, so the games which are not
+ * completed can be played later and added to the result, see
+ * {@link CheckpointedRun}.
+ * <p>
+ * A checkpoint file is {@link #MAGIC}, {@link #VERSION}, the master seed,
+ * the number of games, the result, the number of ranges and the ranges,
+ * followed by the CRC32 of all bytes before it.
+ *
+ * @author yaser
+ *
+ */
+public final class Checkpoint {
+	/**
+	 * First bytes of a checkpoint file
+	 */
+	public static final int MAGIC = 0x54594350;
+	public static final byte VERSION = 1;
+
+	private final long masterSeed;
+	private final long numberOfGames;
+	private final long[] completedRanges;
+	private final SimulationResult result;
+
+	/**
+	 * Creates a checkpoint
+	 *
+	 * @param masterSeed
+	 * @param numberOfGames
+	 *            number of games of the run
+	 * @param completedRanges
+	 *            start (inclusive) and end (exclusive) of every range of
+	 *            completed games one after another, in ascending order
+	 * @param result
+	 *            aggregated result of the completed games
+	 */
+	public Checkpoint(long masterSeed, long numberOfGames, long[] completedRanges, SimulationResult result) {
+		if (completedRanges.length % 2 != 0) {
+			throw new IllegalArgumentException("Every range must have a start and an end");
+		}
+		long completedGames = 0;
+		for (int i = 0; i < completedRanges.length; i += 2) {
+			if (completedRanges[i] >= completedRanges[i + 1] || (i > 0 && completedRanges[i] < completedRanges[i - 1])
+					|| completedRanges[i] < 0 || completedRanges[i + 1] > numberOfGames) {
+				throw new IllegalArgumentException("Invalid range of completed games : [" + completedRanges[i] + ", "
+						+ completedRanges[i + 1] + ")");
+			}
+			completedGames += completedRanges[i + 1] - completedRanges[i];
+		}
+		if (completedGames != result.getGames()) {
+			throw new IllegalArgumentException("Result has " + result.getGames() + " games but " + completedGames
+					+ " games are completed");
+		}
+		this.masterSeed = masterSeed;
+		this.numberOfGames = numberOfGames;
+		this.completedRanges = completedRanges.clone();
+		this.result = new SimulationResult().merge(result);
+	}
+
+	/**
+	 * Writes the checkpoint into a temporary file next to the given file and
+	 * moves it over the given file, so the file has either the previous or
+	 * this checkpoint even if the process dies while writing
+	 *
+	 * @author yaser
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(Path file) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + completedRanges.length * 8);
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(MAGIC);
+		output.writeByte(VERSION);
+		output.writeLong(masterSeed);
+		output.writeLong(numberOfGames);
+		result.write(output);
+		output.writeInt(completedRanges.length / 2);
+		for (long bound : completedRanges) {
+			output.writeLong(bound);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		output.writeLong(crc.getValue());
+
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Reads a checkpoint written by {@link #write(Path)}
+	 *
+	 * @author yaser
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static Checkpoint read(Path file) throws IOException {
+		byte[] bytes = Files.readAllBytes(file);
+		if (bytes.length < 8) {
+			throw new CheckpointException("Not a checkpoint file : " + file);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 8);
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+		try {
+			if (input.readInt() != MAGIC) {
+				throw new CheckpointException("Not a checkpoint file : " + file);
+			}
+			byte version = input.readByte();
+			if (version != VERSION) {
+				throw new CheckpointException("Unsupported checkpoint version " + version + " : " + file);
+			}
+			long masterSeed = input.readLong();
+			long numberOfGames = input.readLong();
+			SimulationResult result = SimulationResult.read(input);
+			int rangeCount = input.readInt();
+			if (rangeCount < 0 || rangeCount > (bytes.length - 8) / 16) {
+				throw new CheckpointException("Corrupted checkpoint : " + file);
+			}
+			long[] completedRanges = new long[rangeCount * 2];
+			for (int i = 0; i < completedRanges.length; i++) {
+				completedRanges[i] = input.readLong();
+			}
+			if (input.readLong() != crc.getValue() || input.available() != 0) {
+				throw new CheckpointException("Corrupted checkpoint : " + file);
+			}
+			return new Checkpoint(masterSeed, numberOfGames, completedRanges, result);
+		} catch (EOFException | IllegalArgumentException e) {
+			throw new CheckpointException("Corrupted checkpoint : " + file);
+		}
+	}
+
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	public long getNumberOfGames() {
+		return numberOfGames;
+	}
+
+	/**
+	 * Returns the ranges of the completed games, see
+	 * {@link #Checkpoint(long, long, long[], SimulationResult)}
+	 *
+	 * @return
+	 */
+	public long[] getCompletedRanges() {
+		return completedRanges.clone();
+	}
+
+	/**
+	 * Returns the aggregated result of the completed games
+	 *
+	 * @return
+	 */
+	public SimulationResult getResult() {
+		return new SimulationResult().merge(result);
+	}
+
+	/**
+	 * Returns true if all games of the run are completed
+	 *
+	 * @return
+	 */
+	public boolean isComplete() {
+		return result.getGames() == numberOfGames;
+	}
+}
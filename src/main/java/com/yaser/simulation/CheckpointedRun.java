@@ -0,0 +1,228 @@
+package com.yaser.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.yaser.exceptions.CheckpointException;
+
+/**
+ * Runs the games of a {@link Simulator} in chunks and writes a
+ * {@link Checkpoint} of the completed chunks from time to time. A run which
+ * is started again with the same checkpoint file, master seed and number of
+ * games plays only the games which are not in the checkpoint. Results are
+ * sums, so a resumed run gives exactly the result of a run which is never
+ * stopped.
+ * <p>
+ * Workers never wait for a checkpoint : the calling thread merges the
+ * results of the finished chunks and writes the checkpoints while the pool
+ * plays the next chunks. A few chunks per thread of the pool are played at
+ * the same time, so the completed games stay in a few ranges.
+ *
+ * @author yaser
+ *
+ */
+public class CheckpointedRun {
+	public static final long DEFAULT_CHUNK_SIZE = 1 << 16;
+	public static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 60_000;
+	/**
+	 * Chunks played at the same time per thread of the pool
+	 */
+	private static final int CHUNKS_PER_THREAD = 2;
+
+	private final Simulator simulator;
+	private final Path checkpointFile;
+	private long chunkSize = DEFAULT_CHUNK_SIZE;
+	private long checkpointIntervalMillis = DEFAULT_CHECKPOINT_INTERVAL_MILLIS;
+	private long resumedGames = 0;
+	private int checkpointCount = 0;
+
+	/**
+	 * Creates a run of the given simulator which keeps its checkpoint in the
+	 * given file
+	 *
+	 * @param simulator
+	 * @param checkpointFile
+	 */
+	public CheckpointedRun(Simulator simulator, Path checkpointFile) {
+		this.simulator = simulator;
+		this.checkpointFile = checkpointFile;
+	}
+
+	/**
+	 * Plays the games of the run which are not in the checkpoint file, or all
+	 * games if there is no checkpoint file, and returns the result of all
+	 * games. If a game fails, the completed chunks are written into the
+	 * checkpoint before the failure is thrown.
+	 *
+	 * @author yaser
+	 * @param numberOfGames
+	 * @return
+	 * @throws IOException
+	 */
+	public SimulationResult run(long numberOfGames) throws IOException {
+		if (numberOfGames < 0) {
+			throw new IllegalArgumentException("Number of games can not be negative : " + numberOfGames);
+		}
+		long masterSeed = simulator.getMasterSeed();
+		SimulationResult result = new SimulationResult();
+		GameRanges completed = new GameRanges();
+		if (Files.exists(checkpointFile)) {
+			Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+			if (checkpoint.getMasterSeed() != masterSeed || checkpoint.getNumberOfGames() != numberOfGames) {
+				throw new CheckpointException("Checkpoint belongs to a run with master seed "
+						+ checkpoint.getMasterSeed() + " and " + checkpoint.getNumberOfGames() + " games : "
+						+ checkpointFile);
+			}
+			result.merge(checkpoint.getResult());
+			completed.addAll(checkpoint.getCompletedRanges());
+		}
+		resumedGames = completed.size();
+
+		long[] gaps = completed.gaps(numberOfGames);
+		BlockingQueue<Chunk> finished = new LinkedBlockingQueue<>();
+		int maxChunks = simulator.getPool().getParallelism() * CHUNKS_PER_THREAD;
+		int gap = 0;
+		long next = gaps.length == 0 ? 0 : gaps[0];
+		int running = 0;
+		Throwable failure = null;
+		long nextCheckpoint = System.currentTimeMillis() + checkpointIntervalMillis;
+		for (;;) {
+			while (failure == null && running < maxChunks && gap < gaps.length) {
+				long to = Math.min(next + chunkSize, gaps[gap + 1]);
+				start(new Chunk(next, to), finished);
+				running++;
+				if (to == gaps[gap + 1]) {
+					gap += 2;
+					next = gap < gaps.length ? gaps[gap] : 0;
+				} else {
+					next = to;
+				}
+			}
+			if (running == 0) {
+				break;
+			}
+			Chunk chunk;
+			try {
+				chunk = finished.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				failure = new IllegalStateException("Interrupted while waiting for the games");
+				break;
+			}
+			running--;
+			if (chunk.failure != null) {
+				if (failure == null) {
+					failure = chunk.failure;
+				} else {
+					failure.addSuppressed(chunk.failure);
+				}
+				continue;
+			}
+			result.merge(chunk.result);
+			completed.add(chunk.from, chunk.to);
+			if (System.currentTimeMillis() >= nextCheckpoint) {
+				writeCheckpoint(masterSeed, numberOfGames, completed, result);
+				nextCheckpoint = System.currentTimeMillis() + checkpointIntervalMillis;
+			}
+		}
+		writeCheckpoint(masterSeed, numberOfGames, completed, result);
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw (RuntimeException) failure;
+		}
+		return result;
+	}
+
+	private void start(Chunk chunk, BlockingQueue<Chunk> finished) {
+		simulator.getPool().execute(() -> {
+			try {
+				chunk.result = simulator.newTask(chunk.from, chunk.to).invoke();
+			} catch (RuntimeException | Error e) {
+				chunk.failure = e;
+			} finally {
+				finished.add(chunk);
+			}
+		});
+	}
+
+	private void writeCheckpoint(long masterSeed, long numberOfGames, GameRanges completed, SimulationResult result)
+			throws IOException {
+		new Checkpoint(masterSeed, numberOfGames, completed.toArray(), result).write(checkpointFile);
+		checkpointCount++;
+	}
+
+	public Path getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	/**
+	 * Returns the number of games which were read from the checkpoint in the
+	 * last run
+	 *
+	 * @return
+	 */
+	public long getResumedGames() {
+		return resumedGames;
+	}
+
+	/**
+	 * Returns the number of checkpoints written
+	 *
+	 * @return
+	 */
+	public int getCheckpointCount() {
+		return checkpointCount;
+	}
+
+	public long getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of games of a chunk. A checkpoint has only the chunks
+	 * which are finished, so the games of the running chunks are played
+	 * again when the run is resumed.
+	 *
+	 * @param chunkSize
+	 */
+	public void setChunkSize(long chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive : " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	public long getCheckpointIntervalMillis() {
+		return checkpointIntervalMillis;
+	}
+
+	public void setCheckpointIntervalMillis(long checkpointIntervalMillis) {
+		if (checkpointIntervalMillis < 0) {
+			throw new IllegalArgumentException("Checkpoint interval can not be negative : "
+					+ checkpointIntervalMillis);
+		}
+		this.checkpointIntervalMillis = checkpointIntervalMillis;
+	}
+
+	/**
+	 * Games [from, to) of the run, filled by the worker which plays them
+	 */
+	private static class Chunk {
+		private final long from;
+		private final long to;
+		private SimulationResult result;
+		/**
+		 * Runtime exception or error thrown by a game
+		 */
+		private Throwable failure;
+
+		Chunk(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.yaser.simulation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of game indexes kept as disjoint ranges [from, to). Adjacent ranges
+ * are joined, so a run whose chunks finish roughly in order keeps a few
+ * ranges only.
+ *
+ * @author yaser
+ *
+ */
+final class GameRanges {
+	/**
+	 * End of every range by its start
+	 */
+	private final TreeMap<Long, Long> ranges = new TreeMap<>();
+	private long games = 0;
+
+	/**
+	 * Adds the range [from, to), which must not overlap the ranges of the set
+	 */
+	void add(long from, long to) {
+		if (from >= to) {
+			return;
+		}
+		Map.Entry<Long, Long> lower = ranges.floorEntry(from);
+		Map.Entry<Long, Long> higher = ranges.ceilingEntry(from);
+		if ((lower != null && lower.getValue() > from) || (higher != null && higher.getKey() < to)) {
+			throw new IllegalArgumentException("Game range overlaps completed games : [" + from + ", " + to + ")");
+		}
+		games += to - from;
+		if (higher != null && higher.getKey() == to) {
+			to = ranges.remove(to);
+		}
+		if (lower != null && lower.getValue() == from) {
+			from = lower.getKey();
+		}
+		ranges.put(from, to);
+	}
+
+	/**
+	 * Adds the ranges of the given array, see {@link #toArray()}
+	 */
+	void addAll(long[] fromTo) {
+		for (int i = 0; i < fromTo.length; i += 2) {
+			add(fromTo[i], fromTo[i + 1]);
+		}
+	}
+
+	/**
+	 * Returns the ranges in ascending order, start and end of every range one
+	 * after another
+	 */
+	long[] toArray() {
+		long[] fromTo = new long[ranges.size() * 2];
+		int i = 0;
+		for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+			fromTo[i++] = range.getKey();
+			fromTo[i++] = range.getValue();
+		}
+		return fromTo;
+	}
+
+	/**
+	 * Returns the ranges of the games from 0 to the given number which are not
+	 * in the set, like {@link #toArray()}
+	 */
+	long[] gaps(long numberOfGames) {
+		GameRanges gaps = new GameRanges();
+		long from = 0;
+		for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+			gaps.add(from, Math.min(range.getKey(), numberOfGames));
+			from = Math.max(from, range.getValue());
+		}
+		gaps.add(from, numberOfGames);
+		return gaps.toArray();
+	}
+
+	/**
+	 * Returns the number of games in the set
+	 */
+	long size() {
+		return games;
+	}
+}
@@ -0,0 +1,336 @@
+package com.yaser.simulation;
+
+import java.util.Arrays;
+
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+/**
+ * Plays many games at once with the rules of {@link GamePlay} and
+ * {@link Player}, keeping all games in parallel primitive arrays instead of
+ * object graphs. Every call of {@link #advanceTurn()} plays one turn of every
+ * running game, phase by phase, in tight loops over the arrays.
+ * <p>
+ * Game {@code i} is seeded like game {@code i} of a {@link Simulator} run
+ * and its players draw and fill mana from the same random streams as
+ * {@link Player}s do, so with the same master seed both engines play exactly
+ * the same games.
+ * <p>
+ * Arrays are indexed by game for game values and by player (
+ * {@code 2 * game + seat}) for player values. Hand and deck histograms keep
+ * one counter per mana cost for every player, {@code player * costs + cost}.
+ * An engine is reused for many batches and must be used by one thread only.
+ * 
+ * @author yaser
+ *
+ */
+public class LockstepEngine {
+	private static final int SEATS = 2;
+	private static final int NO_WINNER = -1;
+
+	private final int capacity;
+	/**
+	 * Number of different mana costs, highest mana cost in the deck + 1
+	 */
+	private final int costs;
+	/**
+	 * Number of cards per mana cost in the starting deck
+	 */
+	private final int[] startingDeck;
+	private final int startingDeckSize;
+
+	// player values
+	private final long[] seeds;
+	private final int[] health;
+	private final int[] mana;
+	private final int[] handSize;
+	private final int[] handMask;
+	private final int[] deckSize;
+	private final int[] bleedOuts;
+	private final int[] overloads;
+	private final int[] handCounts;
+	private final int[] deckCounts;
+
+	// game values
+	private final int[] current;
+	private final int[] winner;
+	private final int[] turns;
+	/**
+	 * Games which are not finished, first runningCount elements are valid
+	 */
+	private final int[] running;
+	private int runningCount = 0;
+	private int games = 0;
+
+	/**
+	 * Creates an engine for up to the given number of games with the default
+	 * deck
+	 * 
+	 * @param capacity
+	 */
+	public LockstepEngine(int capacity) {
+		this(capacity, Player.getDefaultDeckCosts());
+	}
+
+	/**
+	 * Creates an engine for up to the given number of games whose players
+	 * start with the given deck
+	 * 
+	 * @param capacity
+	 * @param deckCosts
+	 *            mana costs of the cards in the deck
+	 */
+	public LockstepEngine(int capacity, int[] deckCosts) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive : " + capacity);
+		}
+		int maxCost = 0;
+		for (int cost : deckCosts) {
+			if (cost < 0 || cost > 30) {
+				throw new IllegalArgumentException("Mana cost must be between 0 and 30 : " + cost);
+			}
+			maxCost = Math.max(maxCost, cost);
+		}
+		this.capacity = capacity;
+		this.costs = maxCost + 1;
+		this.startingDeck = new int[costs];
+		for (int cost : deckCosts) {
+			startingDeck[cost]++;
+		}
+		this.startingDeckSize = deckCosts.length;
+		int players = capacity * SEATS;
+		seeds = new long[players];
+		health = new int[players];
+		mana = new int[players];
+		handSize = new int[players];
+		handMask = new int[players];
+		deckSize = new int[players];
+		bleedOuts = new int[players];
+		overloads = new int[players];
+		handCounts = new int[players * costs];
+		deckCounts = new int[players * costs];
+		current = new int[capacity];
+		winner = new int[capacity];
+		turns = new int[capacity];
+		running = new int[capacity];
+	}
+
+	/**
+	 * Starts a batch of games. Game {@code i} of the batch is game
+	 * {@code firstGameIndex + i} of the run with the given master seed.
+	 * 
+	 * @author yaser
+	 * @param masterSeed
+	 * @param firstGameIndex
+	 * @param numberOfGames
+	 */
+	public void start(long masterSeed, long firstGameIndex, int numberOfGames) {
+		if (numberOfGames < 0 || numberOfGames > capacity) {
+			throw new IllegalArgumentException("Number of games must be between 0 and " + capacity + " : "
+					+ numberOfGames);
+		}
+		games = numberOfGames;
+		int players = games * SEATS;
+		Arrays.fill(health, 0, players, Player.DEFAULT_HEALTH);
+		Arrays.fill(mana, 0, players, 0);
+		Arrays.fill(handSize, 0, players, 0);
+		Arrays.fill(handMask, 0, players, 0);
+		Arrays.fill(deckSize, 0, players, startingDeckSize);
+		Arrays.fill(bleedOuts, 0, players, 0);
+		Arrays.fill(overloads, 0, players, 0);
+		Arrays.fill(handCounts, 0, players * costs, 0);
+		for (int player = 0; player < players; player++) {
+			System.arraycopy(startingDeck, 0, deckCounts, player * costs, costs);
+		}
+		Arrays.fill(current, 0, games, 0);
+		Arrays.fill(winner, 0, games, NO_WINNER);
+		Arrays.fill(turns, 0, games, 0);
+		for (int game = 0; game < games; game++) {
+			// same generators as GamePlay splits for its players
+			GameRandom gameRandom = new GameRandom(GameRandom.gameSeed(masterSeed, firstGameIndex + game));
+			seeds[SEATS * game] = gameRandom.nextLong();
+			seeds[SEATS * game + 1] = gameRandom.nextLong();
+			running[game] = game;
+		}
+		for (int player = 0; player < players; player++) {
+			for (int card = 0; card < Player.STARTING_HAND_SIZE; card++) {
+				draw(player);
+			}
+		}
+		runningCount = games;
+	}
+
+	/**
+	 * Plays one turn of every running game
+	 * 
+	 * @author yaser
+	 * @return true if there are still running games
+	 */
+	public boolean advanceTurn() {
+		final int count = runningCount;
+		// fill mana
+		for (int i = 0; i < count; i++) {
+			int player = SEATS * running[i] + current[running[i]];
+			mana[player] = GameRandom.nextInt(seeds, player, Player.MAX_MANA_SLOTS - 1) + 1;
+		}
+		// pick a card
+		for (int i = 0; i < count; i++) {
+			draw(SEATS * running[i] + current[running[i]]);
+		}
+		// play cards while possible
+		for (int i = 0; i < count; i++) {
+			int game = running[i];
+			turns[game]++;
+			int player = SEATS * game + current[game];
+			int opponent = player ^ 1;
+			checkWinner(game, player, opponent);
+			for (int cost = bestCard(player); winner[game] == NO_WINNER && cost > -1; cost = bestCard(player)) {
+				play(player, opponent, cost);
+				checkWinner(game, player, opponent);
+			}
+		}
+		// end turn and drop finished games
+		for (int i = 0; i < runningCount;) {
+			int game = running[i];
+			current[game] ^= 1;
+			if (winner[game] != NO_WINNER) {
+				running[i] = running[--runningCount];
+			} else {
+				i++;
+			}
+		}
+		return runningCount > 0;
+	}
+
+	/**
+	 * Plays all running games to the end
+	 * 
+	 * @author yaser
+	 */
+	public void playAll() {
+		while (runningCount > 0) {
+			advanceTurn();
+		}
+	}
+
+	/**
+	 * Plays games {@code 0} to {@code numberOfGames - 1} of the run with the
+	 * given master seed, in batches of the capacity of the engine
+	 * 
+	 * @author yaser
+	 * @param masterSeed
+	 * @param numberOfGames
+	 * @return
+	 */
+	public SimulationResult run(long masterSeed, long numberOfGames) {
+		SimulationResult result = new SimulationResult();
+		for (long first = 0; first < numberOfGames; first += capacity) {
+			start(masterSeed, first, (int) Math.min(capacity, numberOfGames - first));
+			playAll();
+			recordInto(result);
+		}
+		return result;
+	}
+
+	/**
+	 * Records the finished games of the batch into the given result
+	 * 
+	 * @author yaser
+	 * @param result
+	 */
+	public void recordInto(SimulationResult result) {
+		for (int game = 0; game < games; game++) {
+			if (winner[game] == NO_WINNER) {
+				throw new IllegalStateException("Game is not finished yet : " + game);
+			}
+			int first = SEATS * game;
+			result.record(winner[game], turns[game], bleedOuts[first] + bleedOuts[first + 1],
+					overloads[first] + overloads[first + 1]);
+		}
+	}
+
+	private void draw(int player) {
+		if (deckSize[player] == 0) {
+			// Special Rule 1
+			health[player]--;
+			bleedOuts[player]++;
+			return;
+		}
+		int base = player * costs;
+		int index = GameRandom.nextInt(seeds, player, deckSize[player]);
+		int cost = 0;
+		while (index >= deckCounts[base + cost]) {
+			index -= deckCounts[base + cost];
+			cost++;
+		}
+		deckCounts[base + cost]--;
+		deckSize[player]--;
+		if (handSize[player] > Player.MAX_NUM_OF_HAND_CARD) {
+			// Special Rule 2
+			overloads[player]++;
+		} else {
+			handCounts[base + cost]++;
+			handMask[player] |= 1 << cost;
+			handSize[player]++;
+		}
+	}
+
+	private int bestCard(int player) {
+		int affordable = handMask[player] & ((2 << mana[player]) - 1);
+		return affordable == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(affordable);
+	}
+
+	private void play(int player, int opponent, int cost) {
+		health[opponent] -= cost;
+		if (--handCounts[player * costs + cost] == 0) {
+			handMask[player] &= ~(1 << cost);
+		}
+		handSize[player]--;
+		mana[player] -= cost;
+	}
+
+	private void checkWinner(int game, int player, int opponent) {
+		if (health[player] < 1) {
+			winner[game] = opponent & 1;
+		} else if (health[opponent] < 1) {
+			winner[game] = player & 1;
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of games of the current batch
+	 * 
+	 * @return
+	 */
+	public int getGames() {
+		return games;
+	}
+
+	public int getRunningGames() {
+		return runningCount;
+	}
+
+	/**
+	 * Returns the seat of the winner of the given game, -1 if it is not
+	 * finished
+	 * 
+	 * @param game
+	 * @return
+	 */
+	public int getWinnerSeat(int game) {
+		return winner[game];
+	}
+
+	public int getTurnCount(int game) {
+		return turns[game];
+	}
+
+	public int getHealth(int game, int seat) {
+		return health[SEATS * game + seat];
+	}
+}
@@ -0,0 +1,106 @@
+package com.yaser.simulation;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.Player;
+import com.yaser.metrics.GameMetrics;
+
+/**
+ * Two players and a {@link GamePlay} which are reset for every game instead
+ * of created again, see {@link GamePlay#reset(Player, Player, long)}. Once
+ * the arena is created a game allocates nothing, so one arena per thread can
+ * play any number of games back to back. A game played in an arena is
+ * exactly the game of a new {@link GamePlay} with the same players and seed.
+ * <p>
+ * An arena must be used by one thread at a time.
+ *
+ * @author yaser
+ *
+ */
+public class MatchArena {
+	private final Player firstPlayer;
+	private final Player secondPlayer;
+	private final GamePlay game;
+
+	/**
+	 * Creates an arena with default players
+	 */
+	public MatchArena() {
+		this(new Player("Player 1"), new Player("Player 2"));
+	}
+
+	/**
+	 * Creates an arena for the given players. Players start every game with
+	 * the health they have now. Their generators are replaced, every game
+	 * reseeds them.
+	 *
+	 * @param firstPlayer
+	 *            player who starts every game
+	 * @param secondPlayer
+	 */
+	public MatchArena(Player firstPlayer, Player secondPlayer) {
+		if (firstPlayer == null || secondPlayer == null || firstPlayer == secondPlayer) {
+			throw new IllegalArgumentException("Arena needs two different players");
+		}
+		this.firstPlayer = firstPlayer;
+		this.secondPlayer = secondPlayer;
+		firstPlayer.setStartingHealth(firstPlayer.getHealth());
+		secondPlayer.setStartingHealth(secondPlayer.getHealth());
+		this.game = new GamePlay(firstPlayer, secondPlayer, 0);
+	}
+
+	/**
+	 * Resets the game to the start of the game with the given seed, the
+	 * starting hands are drawn
+	 *
+	 * @author yaser
+	 * @param seed
+	 * @return the reset game
+	 */
+	public GamePlay reset(long seed) {
+		game.reset(firstPlayer, secondPlayer, seed);
+		return game;
+	}
+
+	/**
+	 * Plays the game with the given seed to the end
+	 *
+	 * @author yaser
+	 * @param seed
+	 * @return the finished game
+	 */
+	public GamePlay play(long seed) {
+		reset(seed).play();
+		return game;
+	}
+
+	public Player getFirstPlayer() {
+		return firstPlayer;
+	}
+
+	public Player getSecondPlayer() {
+		return secondPlayer;
+	}
+
+	public GamePlay getGame() {
+		return game;
+	}
+
+	/**
+	 * Sets the listener of the next games, null means no listener
+	 *
+	 * @param gameEventListener
+	 */
+	public void setGameEventListener(GameEventListener gameEventListener) {
+		game.setGameEventListener(gameEventListener);
+	}
+
+	/**
+	 * Sets the metrics which record the next games, null disables metrics
+	 *
+	 * @param metrics
+	 */
+	public void setMetrics(GameMetrics metrics) {
+		game.setMetrics(metrics);
+	}
+}
@@ -0,0 +1,208 @@
+package com.yaser.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.yaser.GamePlay;
+import com.yaser.Player;
+
+/**
+ * Aggregated outcome of a batch of games. Every thread fills its own instance
+ * and the instances are merged at the end, so nothing is shared while games
+ * are played.
+ * 
+ * @author yaser
+ *
+ */
+public class SimulationResult {
+	/**
+	 * Number of seats in a game
+	 */
+	public static final int SEATS = 2;
+	/**
+	 * Number of games recorded
+	 */
+	private long games;
+	/**
+	 * Number of wins, indexed by seat (0 is the player who starts)
+	 */
+	private final long[] wins = new long[SEATS];
+	/**
+	 * Total number of turns of all recorded games
+	 */
+	private long turns;
+	/**
+	 * Total number of Special Rule 1 (Bleeding Out) triggers
+	 */
+	private long bleedOuts;
+	/**
+	 * Total number of Special Rule 2 (Overload) triggers
+	 */
+	private long overloads;
+
+	/**
+	 * Records a finished game
+	 * 
+	 * @author yaser
+	 * @param game
+	 *            finished game
+	 * @param firstPlayer
+	 *            player who started the game (seat 0)
+	 */
+	public void record(GamePlay game, Player firstPlayer) {
+		Player winner = game.getWinner();
+		if (winner == null) {
+			throw new IllegalStateException("Game is not finished yet");
+		}
+		Player secondPlayer = game.getCurrentPlayer() == firstPlayer ? game.getOpponentPlayer()
+				: game.getCurrentPlayer();
+		record(winner == firstPlayer ? 0 : 1, game.getTurnCount(),
+				firstPlayer.getBleedOutCount() + secondPlayer.getBleedOutCount(),
+				firstPlayer.getOverloadCount() + secondPlayer.getOverloadCount());
+	}
+
+	/**
+	 * Records a finished game
+	 * 
+	 * @author yaser
+	 * @param winnerSeat
+	 * @param turnCount
+	 *            number of turns of the game
+	 * @param bleedOutCount
+	 *            number of bleed-outs of both players
+	 * @param overloadCount
+	 *            number of overloads of both players
+	 */
+	public void record(int winnerSeat, int turnCount, int bleedOutCount, int overloadCount) {
+		games++;
+		wins[winnerSeat]++;
+		turns += turnCount;
+		bleedOuts += bleedOutCount;
+		overloads += overloadCount;
+	}
+
+	/**
+	 * Adds the given result to this one
+	 * 
+	 * @author yaser
+	 * @param other
+	 * @return this result
+	 */
+	public SimulationResult merge(SimulationResult other) {
+		games += other.games;
+		for (int seat = 0; seat < SEATS; seat++) {
+			wins[seat] += other.wins[seat];
+		}
+		turns += other.turns;
+		bleedOuts += other.bleedOuts;
+		overloads += other.overloads;
+		return this;
+	}
+
+	/**
+	 * Writes the counters, see {@link #read(DataInput)}
+	 * 
+	 * @author yaser
+	 * @param output
+	 * @throws IOException
+	 */
+	public void write(DataOutput output) throws IOException {
+		output.writeLong(games);
+		for (int seat = 0; seat < SEATS; seat++) {
+			output.writeLong(wins[seat]);
+		}
+		output.writeLong(turns);
+		output.writeLong(bleedOuts);
+		output.writeLong(overloads);
+	}
+
+	/**
+	 * Reads a result written by {@link #write(DataOutput)}
+	 * 
+	 * @author yaser
+	 * @param input
+	 * @return
+	 * @throws IOException
+	 */
+	public static SimulationResult read(DataInput input) throws IOException {
+		SimulationResult result = new SimulationResult();
+		result.games = input.readLong();
+		for (int seat = 0; seat < SEATS; seat++) {
+			result.wins[seat] = input.readLong();
+		}
+		result.turns = input.readLong();
+		result.bleedOuts = input.readLong();
+		result.overloads = input.readLong();
+		return result;
+	}
+
+	public long getGames() {
+		return games;
+	}
+
+	public long getWins(int seat) {
+		return wins[seat];
+	}
+
+	/**
+	 * Returns the ratio of games won by the given seat, 0 if no game is
+	 * recorded
+	 * 
+	 * @author yaser
+	 * @param seat
+	 * @return
+	 */
+	public double getWinRate(int seat) {
+		return games == 0 ? 0 : (double) wins[seat] / games;
+	}
+
+	public long getTurns() {
+		return turns;
+	}
+
+	/**
+	 * Returns average number of turns per game, 0 if no game is recorded
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public double getMeanGameLength() {
+		return games == 0 ? 0 : (double) turns / games;
+	}
+
+	public long getBleedOuts() {
+		return bleedOuts;
+	}
+
+	public long getOverloads() {
+		return overloads;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(games, wins[0], wins[1], turns, bleedOuts, overloads);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SimulationResult)) {
+			return false;
+		}
+		SimulationResult other = (SimulationResult) obj;
+		return games == other.games && Arrays.equals(wins, other.wins) && turns == other.turns
+				&& bleedOuts == other.bleedOuts && overloads == other.overloads;
+	}
+
+	@Override
+	public String toString() {
+		return "SimulationResult [games=" + games + ", winRate=[" + getWinRate(0) + ", " + getWinRate(1)
+				+ "], meanGameLength=" + getMeanGameLength() + ", bleedOuts=" + bleedOuts + ", overloads="
+				+ overloads + "]";
+	}
+}
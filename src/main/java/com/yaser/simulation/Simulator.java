@@ -0,0 +1,222 @@
+package com.yaser.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.metrics.GameMetrics;
+
+/**
+ * Plays a batch of independent games on a {@link ForkJoinPool}. Every task
+ * plays its games in its own {@link MatchArena} and aggregates into its own
+ * {@link SimulationResult}, so the workers share no mutable state and a game
+ * allocates nothing.
+ * <p>
+ * Game {@code i} of a run is seeded with
+ * {@link GameRandom#gameSeed(long, long)} of the master seed and {@code i},
+ * so a run with the same master seed gives the same result on any number of
+ * threads, and any single game can be replayed with
+ * {@link #replayGame(long, GameEventListener)}.
+ * 
+ * @author yaser
+ *
+ */
+public class Simulator {
+	/**
+	 * Games played sequentially by one task before it is not split anymore
+	 */
+	private static final int DEFAULT_BATCH_SIZE = 256;
+
+	private final ForkJoinPool pool;
+	private final Supplier<Player> firstSeat;
+	private final Supplier<Player> secondSeat;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long masterSeed = new GameRandom().nextLong();
+	private Supplier<GameEventListener> gameEventListenerFactory = () -> GameEventListener.NO_OP;
+	private GameMetrics metrics;
+
+	/**
+	 * Creates a simulator with default players running on the common pool
+	 */
+	public Simulator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a simulator with default players running on the given pool
+	 * 
+	 * @param pool
+	 */
+	public Simulator(ForkJoinPool pool) {
+		this(pool, () -> new Player("Player 1"), () -> new Player("Player 2"));
+	}
+
+	/**
+	 * Creates a simulator running on the given pool. Suppliers must return a
+	 * new {@link Player} on every call, players are reused for the games of
+	 * one task.
+	 * 
+	 * @param pool
+	 * @param firstSeat
+	 *            creates the player who starts the game
+	 * @param secondSeat
+	 *            creates the opponent player
+	 */
+	public Simulator(ForkJoinPool pool, Supplier<Player> firstSeat, Supplier<Player> secondSeat) {
+		this.pool = pool;
+		this.firstSeat = firstSeat;
+		this.secondSeat = secondSeat;
+	}
+
+	/**
+	 * Plays the given number of games and returns the aggregated result
+	 * 
+	 * @author yaser
+	 * @param numberOfGames
+	 * @return
+	 */
+	public SimulationResult run(long numberOfGames) {
+		if (numberOfGames < 0) {
+			throw new IllegalArgumentException("Number of games can not be negative : " + numberOfGames);
+		}
+		return pool.invoke(newTask(0, numberOfGames));
+	}
+
+	/**
+	 * Returns a task which plays the games with index from {@code fromGame}
+	 * (inclusive) to {@code toGame} (exclusive) of the run and returns their
+	 * aggregated result. Tasks of other runs may fork it, it splits on the
+	 * pool which runs it.
+	 * 
+	 * @author yaser
+	 * @param fromGame
+	 * @param toGame
+	 * @return
+	 */
+	public RecursiveTask<SimulationResult> newTask(long fromGame, long toGame) {
+		if (fromGame < 0 || toGame < fromGame) {
+			throw new IllegalArgumentException("Invalid game range : [" + fromGame + ", " + toGame + ")");
+		}
+		return new SimulationTask(fromGame, toGame);
+	}
+
+	/**
+	 * Plays the game with the given index in the given arena and records it
+	 * into the given result
+	 * 
+	 * @author yaser
+	 * @param arena
+	 * @param gameIndex
+	 * @param result
+	 */
+	void playGame(MatchArena arena, long gameIndex, SimulationResult result) {
+		arena.setGameEventListener(gameEventListenerFactory.get());
+		arena.setMetrics(metrics);
+		GamePlay game = arena.play(GameRandom.gameSeed(masterSeed, gameIndex));
+		result.record(game, arena.getFirstPlayer());
+	}
+
+	/**
+	 * Plays the game with the given index of a run again, exactly as it was
+	 * played in the run, and reports its events to the given listener
+	 * 
+	 * @author yaser
+	 * @param gameIndex
+	 * @param listener
+	 * @return the finished game
+	 */
+	public GamePlay replayGame(long gameIndex, GameEventListener listener) {
+		GamePlay game = new GamePlay(firstSeat.get(), secondSeat.get(), GameRandom.gameSeed(masterSeed, gameIndex),
+				listener);
+		game.play();
+		return game;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	public void setMasterSeed(long masterSeed) {
+		this.masterSeed = masterSeed;
+	}
+
+	public Supplier<GameEventListener> getGameEventListenerFactory() {
+		return gameEventListenerFactory;
+	}
+
+	/**
+	 * Sets the factory of the listeners of the played games. It is called
+	 * once per game, by the thread which plays the game.
+	 * 
+	 * @author yaser
+	 * @param gameEventListenerFactory
+	 */
+	public void setGameEventListenerFactory(Supplier<GameEventListener> gameEventListenerFactory) {
+		this.gameEventListenerFactory = gameEventListenerFactory;
+	}
+
+	public GameMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics which record all played games, null disables metrics
+	 * 
+	 * @author yaser
+	 * @param metrics
+	 */
+	public void setMetrics(GameMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive : " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Splits the game range [from, to) in halves until it is small enough to
+	 * be played sequentially
+	 */
+	private class SimulationTask extends RecursiveTask<SimulationResult> {
+		private static final long serialVersionUID = 1L;
+		private final long from;
+		private final long to;
+
+		SimulationTask(long from, long to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected SimulationResult compute() {
+			if (to - from <= batchSize) {
+				SimulationResult result = new SimulationResult();
+				MatchArena arena = new MatchArena(firstSeat.get(), secondSeat.get());
+				for (long game = from; game < to; game++) {
+					playGame(arena, game, result);
+				}
+				return result;
+			}
+			long middle = (from + to) >>> 1;
+			SimulationTask left = new SimulationTask(from, middle);
+			left.fork();
+			SimulationResult right = new SimulationTask(middle, to).compute();
+			return right.merge(left.join());
+		}
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Batch simulation of many independent games
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.simulation;
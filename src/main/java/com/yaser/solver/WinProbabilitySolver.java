@@ -0,0 +1,570 @@
+package com.yaser.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.yaser.CardHistogram;
+import com.yaser.Player;
+import com.yaser.exceptions.InsufficientManaException;
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Computes the exact probability that the first player wins, with the rules
+ * of {@link com.yaser.GamePlay} and {@link Player} : mana from 1 to
+ * {@code MAX_MANA_SLOTS - 1}, one card drawn per turn, bleeding out,
+ * overload and the strategies of both seats.
+ * <p>
+ * A state is the start of a turn, before the mana is filled, packed into a
+ * long : the seat to move in bit 0, then 31 bits for each seat. A seat keeps
+ * its health in the lowest bits and its hand and deck histograms above, as
+ * one mixed radix number of the (in hand, in deck) pairs of every mana cost.
+ * The value of a state is the expected win of the first seat over the mana
+ * rolls and drawn cards of the turn. Values are kept in a lock-free table
+ * shared by all threads, and the first turns below a solved state are
+ * evaluated in parallel on a {@link ForkJoinPool}.
+ * <p>
+ * The number of states grows with the square of the hand and deck
+ * combinations of a seat. Solving a whole game is practical for short decks
+ * and low health; with the default deck and health, states of the end of
+ * the game can be queried with {@link #winProbability(long)}.
+ *
+ * @author yaser
+ *
+ */
+public class WinProbabilitySolver {
+	/**
+	 * Highest number of entries of the value table, as a power of two
+	 */
+	public static final int MAX_TABLE_BITS = 28;
+	/**
+	 * Highest number of entries of a table which is sized by the solver
+	 */
+	public static final int DEFAULT_MAX_TABLE_BITS = 22;
+
+	private static final int SEATS = 2;
+	private static final int PLAYER_BITS = 31;
+	private static final long PLAYER_MASK = (1L << PLAYER_BITS) - 1;
+	private static final int MIN_MANA = 1;
+	private static final int MAX_MANA = Player.MAX_MANA_SLOTS - 1;
+	/**
+	 * Turns below a solved state whose outcomes are evaluated in parallel
+	 */
+	private static final int FORK_DEPTH = 2;
+	/**
+	 * Outcomes of a turn which end the game, states are never negative
+	 */
+	private static final long FIRST_SEAT_WINS = -1;
+	private static final long SECOND_SEAT_WINS = -2;
+
+	private final ForkJoinPool pool;
+	private final int startingHealth;
+	private final long startingDeck;
+	private final Strategy[] strategies;
+	private final int healthBits;
+	/**
+	 * Number of (in hand, in deck) pairs per mana cost
+	 */
+	private final int[] radix;
+	/**
+	 * Cards in the starting deck per mana cost
+	 */
+	private final int[] deckCounts;
+
+	/**
+	 * Keys and values of the table : a key is a state, a value is the bitwise
+	 * complement of the bits of the probability, so 0 is an empty entry
+	 */
+	private final AtomicLongArray keys;
+	private final AtomicLongArray values;
+	private final int tableMask;
+	private final int maxSolvedStates;
+	private final AtomicInteger solvedStates = new AtomicInteger();
+
+	/**
+	 * Creates a solver for the default deck and health with greedy players
+	 */
+	public WinProbabilitySolver() {
+		this(Player.DEFAULT_HEALTH, Player.getDefaultDeckCosts());
+	}
+
+	/**
+	 * Creates a solver for games whose players start with the given health
+	 * and deck, with greedy players
+	 *
+	 * @param startingHealth
+	 * @param deckCosts
+	 *            mana costs of the cards in the deck
+	 */
+	public WinProbabilitySolver(int startingHealth, int[] deckCosts) {
+		this(ForkJoinPool.commonPool(), startingHealth, deckCosts, GreedyStrategy.INSTANCE,
+				GreedyStrategy.INSTANCE, 0);
+	}
+
+	/**
+	 * Creates a solver running on the given pool. The strategies must not
+	 * depend on the order of the cards of the deck.
+	 *
+	 * @param pool
+	 * @param startingHealth
+	 * @param deckCosts
+	 *            mana costs of the cards in the deck
+	 * @param firstSeat
+	 *            strategy of the player who starts the game
+	 * @param secondSeat
+	 *            strategy of the opponent player
+	 * @param tableBits
+	 *            the table keeps {@code 2^tableBits} states, 0 sizes it for
+	 *            the number of states of the rules up to
+	 *            {@link #DEFAULT_MAX_TABLE_BITS}
+	 */
+	public WinProbabilitySolver(ForkJoinPool pool, int startingHealth, int[] deckCosts, Strategy firstSeat,
+			Strategy secondSeat, int tableBits) {
+		if (startingHealth < 1) {
+			throw new IllegalArgumentException("Starting health must be positive : " + startingHealth);
+		}
+		if (firstSeat == null || secondSeat == null) {
+			throw new IllegalArgumentException("Strategy can not be null");
+		}
+		if (tableBits < 0 || tableBits > MAX_TABLE_BITS) {
+			throw new IllegalArgumentException("Table bits must be between 0 and " + MAX_TABLE_BITS + " : "
+					+ tableBits);
+		}
+		if (deckCosts.length < Player.STARTING_HAND_SIZE) {
+			throw new IllegalArgumentException("Deck must have at least " + Player.STARTING_HAND_SIZE + " cards");
+		}
+		this.pool = pool;
+		this.startingHealth = startingHealth;
+		this.startingDeck = CardHistogram.of(deckCosts);
+		this.strategies = new Strategy[] { firstSeat, secondSeat };
+		this.healthBits = 32 - Integer.numberOfLeadingZeros(startingHealth);
+		this.deckCounts = new int[CardHistogram.MAX_COST + 1];
+		this.radix = new int[CardHistogram.MAX_COST + 1];
+		double combinations = 1;
+		for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+			deckCounts[cost] = CardHistogram.count(startingDeck, cost);
+			radix[cost] = (deckCounts[cost] + 1) * (deckCounts[cost] + 2) / 2;
+			combinations *= radix[cost];
+		}
+		if (healthBits + Math.log(combinations) / Math.log(2) > PLAYER_BITS) {
+			throw new IllegalArgumentException("Health and deck do not fit into " + PLAYER_BITS
+					+ " bits per player");
+		}
+		if (tableBits == 0) {
+			// every state of the rules, at most half full
+			double states = SEATS * Math.pow(startingHealth * combinations, SEATS);
+			tableBits = (int) Math.min(DEFAULT_MAX_TABLE_BITS, Math.ceil(Math.log(2 * states) / Math.log(2)));
+		}
+		this.keys = new AtomicLongArray(1 << tableBits);
+		this.values = new AtomicLongArray(1 << tableBits);
+		this.tableMask = (1 << tableBits) - 1;
+		this.maxSolvedStates = (1 << tableBits) / 4 * 3;
+	}
+
+	/**
+	 * Returns the probability that the first player wins a new game, over
+	 * the starting hands of both players
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public double solve() {
+		Map<Long, Double> firstHands = startingHands();
+		Map<Long, Double> secondHands = startingHands();
+		List<StateTask> tasks = new ArrayList<>(firstHands.size() * secondHands.size());
+		List<Double> probabilities = new ArrayList<>(firstHands.size() * secondHands.size());
+		for (Map.Entry<Long, Double> first : firstHands.entrySet()) {
+			for (Map.Entry<Long, Double> second : secondHands.entrySet()) {
+				tasks.add(new StateTask(pack(0, first.getKey(), second.getKey()), 0));
+				probabilities.add(first.getValue() * second.getValue());
+			}
+		}
+		return pool.invoke(new RecursiveTask<Double>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Double compute() {
+				invokeAll(tasks);
+				double win = 0;
+				for (int i = 0; i < tasks.size(); i++) {
+					win += probabilities.get(i) * tasks.get(i).getRawResult();
+				}
+				return win;
+			}
+		});
+	}
+
+	/**
+	 * Returns the probability that the first player wins from the given
+	 * state. Every state reached from it is solved and kept, so later queries
+	 * of them are one table lookup.
+	 *
+	 * @author yaser
+	 * @param state
+	 *            see {@link #state(int, int, long, long, int, long, long)}
+	 * @return
+	 */
+	public double winProbability(long state) {
+		if (state <= 0) {
+			throw new IllegalArgumentException("Not a state : " + state);
+		}
+		double value = lookup(state);
+		return Double.isNaN(value) ? pool.invoke(new StateTask(state, 0)) : value;
+	}
+
+	/**
+	 * Returns the state at the start of a turn of the given seat
+	 *
+	 * @author yaser
+	 * @param seatToMove
+	 *            0 for the player who starts the game, 1 for the opponent
+	 * @param firstHealth
+	 * @param firstHand
+	 *            cards in hand of the first player, see {@link CardHistogram}
+	 * @param firstDeck
+	 *            cards in deck of the first player
+	 * @param secondHealth
+	 * @param secondHand
+	 * @param secondDeck
+	 * @return
+	 */
+	public long state(int seatToMove, int firstHealth, long firstHand, long firstDeck, int secondHealth,
+			long secondHand, long secondDeck) {
+		if (seatToMove != 0 && seatToMove != 1) {
+			throw new IllegalArgumentException("Seat must be 0 or 1 : " + seatToMove);
+		}
+		return pack(seatToMove, packPlayer(firstHealth, firstHand, firstDeck),
+				packPlayer(secondHealth, secondHand, secondDeck));
+	}
+
+	public int getSeatToMove(long state) {
+		return (int) state & 1;
+	}
+
+	public int getHealth(long state, int seat) {
+		return (int) player(state, seat) & ((1 << healthBits) - 1);
+	}
+
+	/**
+	 * Returns the cards in hand of the given seat, see {@link CardHistogram}
+	 *
+	 * @author yaser
+	 * @param state
+	 * @param seat
+	 * @return
+	 */
+	public long getHand(long state, int seat) {
+		return cards(player(state, seat), true);
+	}
+
+	/**
+	 * Returns the cards in deck of the given seat, see {@link CardHistogram}
+	 *
+	 * @author yaser
+	 * @param state
+	 * @param seat
+	 * @return
+	 */
+	public long getDeck(long state, int seat) {
+		return cards(player(state, seat), false);
+	}
+
+	/**
+	 * Returns the number of states whose values are kept
+	 *
+	 * @return
+	 */
+	public int getSolvedStates() {
+		return solvedStates.get();
+	}
+
+	public int getStartingHealth() {
+		return startingHealth;
+	}
+
+	/**
+	 * Returns the value of the given state, computing the first turns in
+	 * parallel below the given depth
+	 *
+	 * @author yaser
+	 * @param state
+	 * @param depth
+	 * @return
+	 */
+	private double value(long state, int depth) {
+		double value = lookup(state);
+		if (!Double.isNaN(value)) {
+			return value;
+		}
+		value = depth < FORK_DEPTH ? expectParallel(state, depth) : expect(state);
+		store(state, value);
+		return value;
+	}
+
+	/**
+	 * Returns the expected win of the first seat over the outcomes of one
+	 * turn
+	 */
+	private double expect(long state) {
+		long deck = cards(player(state, getSeatToMove(state)), false);
+		int deckSize = CardHistogram.size(deck);
+		double win = 0;
+		for (int cost = deckSize == 0 ? -1 : 0; cost <= CardHistogram.MAX_COST; cost++) {
+			int cards = cost < 0 ? 1 : CardHistogram.count(deck, cost);
+			if (cards == 0) {
+				continue;
+			}
+			double drawProbability = cost < 0 ? 1 : (double) cards / deckSize;
+			for (int mana = MIN_MANA; mana <= MAX_MANA; mana++) {
+				win += drawProbability * outcomeValue(playTurn(state, mana, cost), FORK_DEPTH);
+			}
+			if (cost < 0) {
+				break;
+			}
+		}
+		return win / (MAX_MANA - MIN_MANA + 1);
+	}
+
+	private double expectParallel(long state, int depth) {
+		long deck = cards(player(state, getSeatToMove(state)), false);
+		int deckSize = CardHistogram.size(deck);
+		List<StateTask> tasks = new ArrayList<>();
+		List<Double> probabilities = new ArrayList<>();
+		double win = 0;
+		for (int cost = deckSize == 0 ? -1 : 0; cost <= CardHistogram.MAX_COST; cost++) {
+			int cards = cost < 0 ? 1 : CardHistogram.count(deck, cost);
+			if (cards == 0) {
+				continue;
+			}
+			double drawProbability = cost < 0 ? 1 : (double) cards / deckSize;
+			for (int mana = MIN_MANA; mana <= MAX_MANA; mana++) {
+				long outcome = playTurn(state, mana, cost);
+				if (outcome < 0) {
+					win += drawProbability * outcomeValue(outcome, depth + 1);
+				} else {
+					tasks.add(new StateTask(outcome, depth + 1));
+					probabilities.add(drawProbability);
+				}
+			}
+			if (cost < 0) {
+				break;
+			}
+		}
+		RecursiveTask.invokeAll(tasks);
+		for (int i = 0; i < tasks.size(); i++) {
+			win += probabilities.get(i) * tasks.get(i).getRawResult();
+		}
+		return win / (MAX_MANA - MIN_MANA + 1);
+	}
+
+	private double outcomeValue(long outcome, int depth) {
+		if (outcome == FIRST_SEAT_WINS) {
+			return 1;
+		}
+		if (outcome == SECOND_SEAT_WINS) {
+			return 0;
+		}
+		return value(outcome, depth);
+	}
+
+	/**
+	 * Plays a turn of the seat to move like {@link com.yaser.GamePlay#play()}
+	 * does
+	 *
+	 * @author yaser
+	 * @param state
+	 * @param mana
+	 *            filled mana
+	 * @param drawnCost
+	 *            mana cost of the drawn card, -1 if the deck is empty
+	 * @return the state of the next turn, or the winner of the game
+	 */
+	private long playTurn(long state, int mana, int drawnCost) {
+		int seat = getSeatToMove(state);
+		long mover = player(state, seat);
+		int health = (int) mover & ((1 << healthBits) - 1);
+		long hand = cards(mover, true);
+		long deck = cards(mover, false);
+		long opponent = player(state, seat ^ 1);
+		int opponentHealth = (int) opponent & ((1 << healthBits) - 1);
+		if (drawnCost < 0) {
+			// Special Rule 1
+			health--;
+		} else {
+			deck = CardHistogram.remove(deck, drawnCost);
+			// Special Rule 2 drops the card
+			if (CardHistogram.size(hand) <= Player.MAX_NUM_OF_HAND_CARD) {
+				hand = CardHistogram.add(hand, drawnCost);
+			}
+		}
+		if (health < 1) {
+			return seat == 0 ? SECOND_SEAT_WINS : FIRST_SEAT_WINS;
+		}
+		Strategy strategy = strategies[seat];
+		for (int cost = strategy.selectCard(hand, mana, health, opponentHealth); cost > -1; cost = strategy
+				.selectCard(hand, mana, health, opponentHealth)) {
+			if (CardHistogram.count(hand, cost) == 0) {
+				throw new IllegalStateException("Strategy has selected a card which is not in hand : " + cost);
+			}
+			if (mana < cost) {
+				throw new InsufficientManaException();
+			}
+			hand = CardHistogram.remove(hand, cost);
+			mana -= cost;
+			opponentHealth -= cost;
+			if (opponentHealth < 1) {
+				return seat == 0 ? FIRST_SEAT_WINS : SECOND_SEAT_WINS;
+			}
+		}
+		long moved = packPlayer(health, hand, deck);
+		long hit = (opponent & ~((1L << healthBits) - 1)) | opponentHealth;
+		return seat == 0 ? pack(1, moved, hit) : pack(0, hit, moved);
+	}
+
+	/**
+	 * Returns the packed hand and deck of a player after drawing the starting
+	 * hand from the starting deck, with their probabilities
+	 */
+	private Map<Long, Double> startingHands() {
+		Map<Long, Double> players = new HashMap<>();
+		players.put(packPlayer(startingHealth, CardHistogram.EMPTY, startingDeck), 1.0);
+		for (int card = 0; card < Player.STARTING_HAND_SIZE; card++) {
+			Map<Long, Double> drawn = new HashMap<>();
+			for (Map.Entry<Long, Double> player : players.entrySet()) {
+				long hand = cards(player.getKey(), true);
+				long deck = cards(player.getKey(), false);
+				int deckSize = CardHistogram.size(deck);
+				for (int cost = 0; deckSize > 0 && cost <= CardHistogram.MAX_COST; cost++) {
+					int cards = CardHistogram.count(deck, cost);
+					if (cards > 0) {
+						drawn.merge(packPlayer(startingHealth, CardHistogram.add(hand, cost),
+								CardHistogram.remove(deck, cost)), player.getValue() * cards / deckSize, Double::sum);
+					}
+				}
+			}
+			players = drawn;
+		}
+		return players;
+	}
+
+	private long pack(int seatToMove, long first, long second) {
+		return seatToMove | first << 1 | second << (1 + PLAYER_BITS);
+	}
+
+	private long player(long state, int seat) {
+		return (state >>> (1 + seat * PLAYER_BITS)) & PLAYER_MASK;
+	}
+
+	private long packPlayer(int health, long hand, long deck) {
+		if (health < 1 || health >= (1 << healthBits)) {
+			throw new IllegalArgumentException("Health must be between 1 and " + ((1 << healthBits) - 1) + " : "
+					+ health);
+		}
+		long cards = 0;
+		for (int cost = CardHistogram.MAX_COST; cost >= 0; cost--) {
+			int inHand = CardHistogram.count(hand, cost);
+			int inDeck = CardHistogram.count(deck, cost);
+			if (inHand + inDeck > deckCounts[cost]) {
+				throw new IllegalArgumentException("There are more cards with mana cost " + cost
+						+ " than in the starting deck");
+			}
+			// pairs with fewer cards in hand come first
+			int pair = inHand * (deckCounts[cost] + 1) - inHand * (inHand - 1) / 2 + inDeck;
+			cards = cards * radix[cost] + pair;
+		}
+		return cards << healthBits | health;
+	}
+
+	/**
+	 * Returns the cards in hand or in deck of a packed player
+	 */
+	private long cards(long player, boolean inHand) {
+		long cards = player >>> healthBits;
+		long histogram = CardHistogram.EMPTY;
+		for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+			int pair = (int) (cards % radix[cost]);
+			cards /= radix[cost];
+			int hand = 0;
+			while (pair > deckCounts[cost] - hand) {
+				pair -= deckCounts[cost] - hand + 1;
+				hand++;
+			}
+			int count = inHand ? hand : pair;
+			for (int card = 0; card < count; card++) {
+				histogram = CardHistogram.add(histogram, cost);
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Returns the value of the given state, NaN if it is not solved yet
+	 */
+	private double lookup(long state) {
+		for (int index = slot(state);; index = (index + 1) & tableMask) {
+			long key = keys.get(index);
+			if (key == 0) {
+				return Double.NaN;
+			}
+			if (key == state) {
+				long value = values.get(index);
+				// the value may not be written yet by the thread which has
+				// taken the entry
+				return value == 0 ? Double.NaN : Double.longBitsToDouble(~value);
+			}
+		}
+	}
+
+	private void store(long state, double value) {
+		for (int index = slot(state);; index = (index + 1) & tableMask) {
+			long key = keys.get(index);
+			if (key == 0) {
+				if (solvedStates.get() >= maxSolvedStates) {
+					throw new IllegalStateException("Value table is full : " + maxSolvedStates + " states");
+				}
+				if (!keys.compareAndSet(index, 0, state)) {
+					// taken by another thread, check the key again
+					index = (index - 1) & tableMask;
+					continue;
+				}
+				solvedStates.incrementAndGet();
+				key = state;
+			}
+			if (key == state) {
+				values.set(index, ~Double.doubleToRawLongBits(value));
+				return;
+			}
+		}
+	}
+
+	private int slot(long state) {
+		state = (state ^ (state >>> 33)) * 0xff51afd7ed558ccdL;
+		state = (state ^ (state >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return (int) (state ^ (state >>> 33)) & tableMask;
+	}
+
+	/**
+	 * Solves a state and the states reached from it
+	 */
+	private class StateTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+		private final long state;
+		private final int depth;
+
+		StateTask(long state, int depth) {
+			this.state = state;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Double compute() {
+			return value(state, depth);
+		}
+	}
+}
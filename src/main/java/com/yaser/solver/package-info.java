@@ -0,0 +1,7 @@
+/**
+ * Exact analysis of the game without sampling
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.solver;
@@ -0,0 +1,169 @@
+package com.yaser.statistics;
+
+import com.yaser.GamePlay;
+import com.yaser.Player;
+
+/**
+ * Distributions of finished games : game length in turns, remaining health
+ * of the winner and cards left in both decks, each with a
+ * {@link RunningStatistics} and a {@link QuantileSketch}, and the wins of
+ * both seats. Memory does not grow with the number of games but slowly with
+ * the sketches. Every thread fills its own instance and the instances are
+ * merged at the end, like {@link com.yaser.simulation.SimulationResult}.
+ *
+ * @author yaser
+ *
+ */
+public class GameStatistics {
+	/**
+	 * Number of seats in a game
+	 */
+	public static final int SEATS = 2;
+
+	private final long[] wins = new long[SEATS];
+	private final RunningStatistics turns = new RunningStatistics();
+	private final QuantileSketch turnQuantiles = new QuantileSketch();
+	private final RunningStatistics winnerHealth = new RunningStatistics();
+	private final QuantileSketch winnerHealthQuantiles = new QuantileSketch();
+	private final RunningStatistics cardsLeft = new RunningStatistics();
+	private final QuantileSketch cardsLeftQuantiles = new QuantileSketch();
+
+	/**
+	 * Records a finished game
+	 *
+	 * @author yaser
+	 * @param game
+	 *            finished game
+	 * @param firstPlayer
+	 *            player who started the game (seat 0)
+	 */
+	public void record(GamePlay game, Player firstPlayer) {
+		Player winner = game.getWinner();
+		if (winner == null) {
+			throw new IllegalStateException("Game is not finished yet");
+		}
+		record(game, firstPlayer, winner);
+	}
+
+	void record(GamePlay game, Player firstPlayer, Player winner) {
+		Player secondPlayer = game.getCurrentPlayer() == firstPlayer ? game.getOpponentPlayer()
+				: game.getCurrentPlayer();
+		record(winner == firstPlayer ? 0 : 1, game.getTurnCount(), winner.getHealth(),
+				firstPlayer.getSizeOfPlayerDeck() + secondPlayer.getSizeOfPlayerDeck());
+	}
+
+	/**
+	 * Records a finished game
+	 *
+	 * @author yaser
+	 * @param winnerSeat
+	 * @param turnCount
+	 *            number of turns of the game
+	 * @param winnerHealth
+	 *            health of the winner at the end of the game
+	 * @param cardsLeft
+	 *            number of cards left in the decks of both players
+	 */
+	public void record(int winnerSeat, int turnCount, int winnerHealth, int cardsLeft) {
+		wins[winnerSeat]++;
+		turns.add(turnCount);
+		turnQuantiles.add(turnCount);
+		this.winnerHealth.add(winnerHealth);
+		winnerHealthQuantiles.add(winnerHealth);
+		this.cardsLeft.add(cardsLeft);
+		cardsLeftQuantiles.add(cardsLeft);
+	}
+
+	/**
+	 * Adds the given statistics to this one
+	 *
+	 * @author yaser
+	 * @param other
+	 * @return this statistics
+	 */
+	public GameStatistics merge(GameStatistics other) {
+		for (int seat = 0; seat < SEATS; seat++) {
+			wins[seat] += other.wins[seat];
+		}
+		turns.merge(other.turns);
+		turnQuantiles.merge(other.turnQuantiles);
+		winnerHealth.merge(other.winnerHealth);
+		winnerHealthQuantiles.merge(other.winnerHealthQuantiles);
+		cardsLeft.merge(other.cardsLeft);
+		cardsLeftQuantiles.merge(other.cardsLeftQuantiles);
+		return this;
+	}
+
+	public long getGames() {
+		return turns.getCount();
+	}
+
+	public long getWins(int seat) {
+		return wins[seat];
+	}
+
+	/**
+	 * Returns the ratio of games won by the given seat, 0 if no game is
+	 * recorded
+	 *
+	 * @param seat
+	 * @return
+	 */
+	public double getWinRate(int seat) {
+		return getGames() == 0 ? 0 : (double) wins[seat] / getGames();
+	}
+
+	/**
+	 * Returns the lower bound of the 95% Wilson interval of the win rate of
+	 * the given seat
+	 *
+	 * @param seat
+	 * @return
+	 */
+	public double getWinRateLower(int seat) {
+		return WilsonInterval.lower(wins[seat], getGames());
+	}
+
+	/**
+	 * Returns the upper bound of the 95% Wilson interval of the win rate of
+	 * the given seat
+	 *
+	 * @param seat
+	 * @return
+	 */
+	public double getWinRateUpper(int seat) {
+		return WilsonInterval.upper(wins[seat], getGames());
+	}
+
+	public RunningStatistics getTurns() {
+		return turns;
+	}
+
+	public QuantileSketch getTurnQuantiles() {
+		return turnQuantiles;
+	}
+
+	public RunningStatistics getWinnerHealth() {
+		return winnerHealth;
+	}
+
+	public QuantileSketch getWinnerHealthQuantiles() {
+		return winnerHealthQuantiles;
+	}
+
+	public RunningStatistics getCardsLeft() {
+		return cardsLeft;
+	}
+
+	public QuantileSketch getCardsLeftQuantiles() {
+		return cardsLeftQuantiles;
+	}
+
+	@Override
+	public String toString() {
+		return "GameStatistics [games=" + getGames() + ", winRate=[" + getWinRate(0) + ", " + getWinRate(1)
+				+ "], turns=" + turns.getMean() + " (median " + turnQuantiles.getQuantile(0.5) + "), winnerHealth="
+				+ winnerHealth.getMean() + " (median " + winnerHealthQuantiles.getQuantile(0.5) + "), cardsLeft="
+				+ cardsLeft.getMean() + " (median " + cardsLeftQuantiles.getQuantile(0.5) + ")]";
+	}
+}
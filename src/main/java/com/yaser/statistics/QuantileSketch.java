@@ -0,0 +1,250 @@
+package com.yaser.statistics;
+
+import java.util.Arrays;
+
+import com.yaser.GameRandom;
+
+/**
+ * KLL quantile sketch : approximate quantiles of a stream of values in
+ * memory which grows with the logarithm of the number of values only.
+ * <p>
+ * Values are kept in levels, a value of level {@code h} stands for
+ * {@code 2^h} values. When a level is full, it is sorted and every other
+ * value, starting from a random one of the first two, moves up a level, the
+ * others are dropped. Lower levels hold fewer values : the capacity of a
+ * level is {@code k} times {@code 2/3} to the power of its distance from the
+ * top level. The rank error is about {@code 1.7 / k} of the number of values.
+ * Sketches of different threads are merged by adding their levels together
+ * and compacting them again.
+ *
+ * @author yaser
+ *
+ */
+public final class QuantileSketch {
+	public static final int DEFAULT_K = 200;
+	private static final int MIN_LEVEL_CAPACITY = 8;
+	private static final double LEVEL_RATIO = 2.0 / 3;
+	private static final long SEED = 0x5EED;
+
+	private final int k;
+	private final GameRandom random = new GameRandom(SEED);
+	private double[][] levels = { new double[MIN_LEVEL_CAPACITY] };
+	private int[] sizes = new int[1];
+	private long count = 0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	public QuantileSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * Creates a sketch whose top level holds the given number of values
+	 *
+	 * @param k
+	 */
+	public QuantileSketch(int k) {
+		if (k < MIN_LEVEL_CAPACITY) {
+			throw new IllegalArgumentException("K must be at least " + MIN_LEVEL_CAPACITY + " : " + k);
+		}
+		this.k = k;
+	}
+
+	/**
+	 * Adds a value
+	 *
+	 * @author yaser
+	 * @param value
+	 */
+	public void add(double value) {
+		if (Double.isNaN(value)) {
+			throw new IllegalArgumentException("Value can not be NaN");
+		}
+		count++;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+		append(0, value);
+		if (sizes[0] >= capacity(0)) {
+			while (compactFullLevel()) {
+				// a compacted level may fill the next one
+			}
+		}
+	}
+
+	/**
+	 * Adds the values of the given sketch to this one
+	 *
+	 * @author yaser
+	 * @param other
+	 * @return this sketch
+	 */
+	public QuantileSketch merge(QuantileSketch other) {
+		for (int level = 0; level < other.levels.length; level++) {
+			for (int i = 0; i < other.sizes[level]; i++) {
+				append(level, other.levels[level][i]);
+			}
+		}
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		while (compactFullLevel()) {
+			// a compacted level may fill the next one
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the approximate value below which the given ratio of the
+	 * values is, NaN if there is no value
+	 *
+	 * @author yaser
+	 * @param ratio
+	 *            between 0 and 1
+	 * @return
+	 */
+	public double getQuantile(double ratio) {
+		if (ratio < 0 || ratio > 1) {
+			throw new IllegalArgumentException("Ratio must be between 0 and 1 : " + ratio);
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		if (ratio == 0) {
+			return min;
+		}
+		if (ratio == 1) {
+			return max;
+		}
+		// merge the sorted levels, every value counts with the weight of its level
+		int[] positions = new int[levels.length];
+		double[][] sorted = new double[levels.length][];
+		for (int level = 0; level < levels.length; level++) {
+			sorted[level] = Arrays.copyOf(levels[level], sizes[level]);
+			Arrays.sort(sorted[level]);
+		}
+		double target = ratio * count;
+		long weight = 0;
+		for (;;) {
+			int lowest = -1;
+			for (int level = 0; level < sorted.length; level++) {
+				if (positions[level] < sorted[level].length && (lowest < 0
+						|| sorted[level][positions[level]] < sorted[lowest][positions[lowest]])) {
+					lowest = level;
+				}
+			}
+			if (lowest < 0) {
+				return max;
+			}
+			double value = sorted[lowest][positions[lowest]++];
+			weight += 1L << lowest;
+			if (weight >= target) {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * Returns the approximate ratio of the values which are not more than the
+	 * given value, 0 if there is no value
+	 *
+	 * @author yaser
+	 * @param value
+	 * @return
+	 */
+	public double getRank(double value) {
+		if (count == 0) {
+			return 0;
+		}
+		long weight = 0;
+		for (int level = 0; level < levels.length; level++) {
+			for (int i = 0; i < sizes[level]; i++) {
+				if (levels[level][i] <= value) {
+					weight += 1L << level;
+				}
+			}
+		}
+		return (double) weight / count;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the lowest value, NaN if there is no value
+	 *
+	 * @return
+	 */
+	public double getMin() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * Returns the highest value, NaN if there is no value
+	 *
+	 * @return
+	 */
+	public double getMax() {
+		return count == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * Returns the number of values kept in the sketch
+	 *
+	 * @return
+	 */
+	public int getRetainedValues() {
+		int retained = 0;
+		for (int size : sizes) {
+			retained += size;
+		}
+		return retained;
+	}
+
+	public int getK() {
+		return k;
+	}
+
+	private int capacity(int level) {
+		int depth = levels.length - 1 - level;
+		return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(LEVEL_RATIO, depth)));
+	}
+
+	private void append(int level, double value) {
+		if (level >= levels.length) {
+			int oldLevels = levels.length;
+			levels = Arrays.copyOf(levels, level + 1);
+			sizes = Arrays.copyOf(sizes, level + 1);
+			for (int added = oldLevels; added <= level; added++) {
+				levels[added] = new double[MIN_LEVEL_CAPACITY];
+			}
+		}
+		if (sizes[level] == levels[level].length) {
+			levels[level] = Arrays.copyOf(levels[level], sizes[level] * 2);
+		}
+		levels[level][sizes[level]++] = value;
+	}
+
+	/**
+	 * Compacts the lowest full level into the next one, returns false if no
+	 * level is full
+	 */
+	private boolean compactFullLevel() {
+		for (int level = 0; level < levels.length; level++) {
+			int size = sizes[level];
+			if (size >= capacity(level)) {
+				double[] values = levels[level];
+				Arrays.sort(values, 0, size);
+				// the lowest value stays when the size is odd, so the weight
+				// of the sketch does not change
+				int kept = size & 1;
+				for (int i = kept + random.nextInt(2); i < size; i += 2) {
+					append(level + 1, values[i]);
+				}
+				sizes[level] = kept;
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,126 @@
+package com.yaser.statistics;
+
+/**
+ * Count, mean, variance, min and max of a stream of values in constant
+ * memory. Values are added with Welford's update, which does not lose
+ * precision like a sum of squares does, and two instances are merged with
+ * the pairwise update of Chan et al., so every thread can keep its own
+ * instance.
+ *
+ * @author yaser
+ *
+ */
+public final class RunningStatistics {
+	private long count = 0;
+	private double mean = 0;
+	/**
+	 * Sum of squared differences from the mean
+	 */
+	private double squares = 0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Adds a value
+	 *
+	 * @author yaser
+	 * @param value
+	 */
+	public void add(double value) {
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		squares += delta * (value - mean);
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds the values of the given statistics to this one
+	 *
+	 * @author yaser
+	 * @param other
+	 * @return this statistics
+	 */
+	public RunningStatistics merge(RunningStatistics other) {
+		if (other.count == 0) {
+			return this;
+		}
+		if (count == 0) {
+			count = other.count;
+			mean = other.mean;
+			squares = other.squares;
+			min = other.min;
+			max = other.max;
+			return this;
+		}
+		long total = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		squares += other.squares + delta * delta * ((double) count * other.count / total);
+		count = total;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		return this;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the mean, 0 if there is no value
+	 *
+	 * @return
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Returns the sample variance, 0 if there are less than two values
+	 *
+	 * @return
+	 */
+	public double getVariance() {
+		return count < 2 ? 0 : squares / (count - 1);
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * Returns the standard error of the mean, 0 if there are less than two
+	 * values
+	 *
+	 * @return
+	 */
+	public double getStandardError() {
+		return count < 2 ? 0 : Math.sqrt(getVariance() / count);
+	}
+
+	/**
+	 * Returns the lowest value, NaN if there is no value
+	 *
+	 * @return
+	 */
+	public double getMin() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * Returns the highest value, NaN if there is no value
+	 *
+	 * @return
+	 */
+	public double getMax() {
+		return count == 0 ? Double.NaN : max;
+	}
+
+	@Override
+	public String toString() {
+		return "RunningStatistics [count=" + count + ", mean=" + mean + ", standardDeviation="
+				+ getStandardDeviation() + ", min=" + getMin() + ", max=" + getMax() + "]";
+	}
+}
@@ -0,0 +1,78 @@
+package com.yaser.statistics;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.Player;
+
+/**
+ * Collects the {@link GameStatistics} of the games played by many threads.
+ * Every thread records into its own statistics, so the game loop never
+ * waits for another thread; the statistics are merged when they are asked
+ * for. {@link #listener()} can be given to
+ * {@link com.yaser.simulation.Simulator#setGameEventListenerFactory(java.util.function.Supplier)}
+ * as {@code collector::listener}.
+ *
+ * @author yaser
+ *
+ */
+public class StatisticsCollector {
+	private final Queue<Listener> listeners = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<Listener> threadListener = ThreadLocal.withInitial(this::newListener);
+
+	/**
+	 * Returns the listener of the calling thread, which records every game it
+	 * listens to
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public GameEventListener listener() {
+		return threadListener.get();
+	}
+
+	private Listener newListener() {
+		Listener listener = new Listener();
+		listeners.add(listener);
+		return listener;
+	}
+
+	/**
+	 * Returns the merged statistics of all threads. Must be called after the
+	 * threads have finished playing.
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public GameStatistics getStatistics() {
+		GameStatistics merged = new GameStatistics();
+		for (Listener listener : listeners) {
+			merged.merge(listener.statistics);
+		}
+		return merged;
+	}
+
+	/**
+	 * Records the games of one thread into its own statistics
+	 */
+	private static class Listener implements GameEventListener {
+		private final GameStatistics statistics = new GameStatistics();
+		private GamePlay game;
+		private Player firstPlayer;
+
+		@Override
+		public void gameStarted(GamePlay game) {
+			this.game = game;
+			this.firstPlayer = game.getCurrentPlayer();
+		}
+
+		@Override
+		public void gameWon(Player winner) {
+			statistics.record(game, firstPlayer, winner);
+			game = null;
+			firstPlayer = null;
+		}
+	}
+}
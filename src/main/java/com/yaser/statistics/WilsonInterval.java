@@ -0,0 +1,88 @@
+package com.yaser.statistics;
+
+/**
+ * Wilson score interval of a ratio, like the win rate of a seat. Unlike the
+ * normal interval, it stays inside [0, 1] and is not empty when the ratio is
+ * 0 or 1.
+ *
+ * @author yaser
+ *
+ */
+public final class WilsonInterval {
+	/**
+	 * Standard normal quantile of the 95% confidence interval
+	 */
+	public static final double Z_95 = 1.959964;
+
+	private WilsonInterval() {
+	}
+
+	/**
+	 * Returns the center of the 95% interval
+	 *
+	 * @author yaser
+	 * @param successes
+	 * @param trials
+	 * @return
+	 */
+	public static double center(long successes, long trials) {
+		return center(successes, trials, Z_95);
+	}
+
+	public static double center(long successes, long trials, double z) {
+		if (trials == 0) {
+			return 0.5;
+		}
+		double z2 = z * z;
+		return ((double) successes / trials + z2 / (2.0 * trials)) / (1 + z2 / trials);
+	}
+
+	/**
+	 * Returns the half width of the 95% interval, 1 if there is no trial
+	 *
+	 * @author yaser
+	 * @param successes
+	 * @param trials
+	 * @return
+	 */
+	public static double halfWidth(long successes, long trials) {
+		return halfWidth(successes, trials, Z_95);
+	}
+
+	public static double halfWidth(long successes, long trials, double z) {
+		if (trials < 0 || successes < 0 || successes > trials) {
+			throw new IllegalArgumentException("Invalid number of successes " + successes + " in " + trials
+					+ " trials");
+		}
+		if (trials == 0) {
+			return 1;
+		}
+		double rate = (double) successes / trials;
+		double z2 = z * z;
+		return z * Math.sqrt(rate * (1 - rate) / trials + z2 / (4.0 * trials * trials)) / (1 + z2 / trials);
+	}
+
+	/**
+	 * Returns the lower bound of the 95% interval
+	 *
+	 * @author yaser
+	 * @param successes
+	 * @param trials
+	 * @return
+	 */
+	public static double lower(long successes, long trials) {
+		return Math.max(0, center(successes, trials) - halfWidth(successes, trials));
+	}
+
+	/**
+	 * Returns the upper bound of the 95% interval
+	 *
+	 * @author yaser
+	 * @param successes
+	 * @param trials
+	 * @return
+	 */
+	public static double upper(long successes, long trials) {
+		return Math.min(1, center(successes, trials) + halfWidth(successes, trials));
+	}
+}
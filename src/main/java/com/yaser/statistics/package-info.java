@@ -0,0 +1,7 @@
+/**
+ * Mergeable streaming estimators of game distributions and win rates
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.statistics;
@@ -0,0 +1,312 @@
+package com.yaser.store;
+
+import java.nio.ByteBuffer;
+
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.GameState;
+import com.yaser.Player;
+import com.yaser.exceptions.InsufficientManaException;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Flyweight over the record of one match of a {@link MatchStore}. It is
+ * moved to a match with {@link #wrap(int)} and reads and plays that match in
+ * place, with the rules of {@link com.yaser.GamePlay} and {@link Player},
+ * without creating any object. One flyweight is enough to play any number of
+ * matches one after the other.
+ * <p>
+ * Seats are fixed : seat 0 is the player who starts the match. The events of
+ * the players are not reported.
+ *
+ * @author yaser
+ *
+ */
+public final class Match {
+	private static final int SEATS = 2;
+
+	private final MatchStore store;
+	private final Strategy strategy;
+	/**
+	 * Seed of the generator of the drawing player, see
+	 * {@link GameRandom#nextInt(long[], int, int)}
+	 */
+	private final long[] randomSeed = new long[1];
+	private ByteBuffer slab;
+	private int record;
+	private int id = -1;
+
+	Match(MatchStore store) {
+		this.store = store;
+		this.strategy = store.getStrategy();
+	}
+
+	/**
+	 * Moves the flyweight to the match with the given id
+	 *
+	 * @author yaser
+	 * @param id
+	 * @return this flyweight
+	 */
+	public Match wrap(int id) {
+		ByteBuffer slab = store.slab(id);
+		int record = MatchStore.offset(id);
+		if (slab.get(record + MatchStore.STATUS) == MatchStore.FREE) {
+			throw new IllegalArgumentException("Match is released : " + id);
+		}
+		this.slab = slab;
+		this.record = record;
+		this.id = id;
+		return this;
+	}
+
+	/**
+	 * Draws the starting hands like {@link com.yaser.GamePlay} does, first
+	 * player first
+	 */
+	void drawStartingHands() {
+		for (int seat = 0; seat < SEATS; seat++) {
+			for (int card = 0; card < Player.STARTING_HAND_SIZE; card++) {
+				pickOneCard(seat);
+			}
+		}
+	}
+
+	/**
+	 * Plays one turn like {@link com.yaser.GamePlay#play()} does : the current
+	 * player fills mana, picks a card and plays cards until the turn or the
+	 * match is over, then the other player becomes the current player
+	 *
+	 * @author yaser
+	 * @return true if the match is not over
+	 */
+	public boolean advance() {
+		if (isFinished()) {
+			throw new IllegalStateException("Match is already finished : " + id);
+		}
+		int seat = getCurrentSeat();
+		slab.putInt(record + MatchStore.TURN_COUNT, getTurnCount() + 1);
+		fillMana(seat);
+		pickOneCard(seat);
+		int winner = checkWinner(seat);
+		while (winner < 0 && playNextCard(seat)) {
+			winner = checkWinner(seat);
+		}
+		slab.put(record + MatchStore.CURRENT_SEAT, (byte) (seat ^ 1));
+		if (winner < 0) {
+			return true;
+		}
+		slab.put(record + MatchStore.WINNER_SEAT, (byte) winner);
+		slab.put(record + MatchStore.STATUS, MatchStore.FINISHED);
+		return false;
+	}
+
+	/**
+	 * Plays the match to the end
+	 *
+	 * @author yaser
+	 * @return seat of the winner
+	 */
+	public int play() {
+		while (!isFinished() && advance()) {
+		}
+		return getWinnerSeat();
+	}
+
+	private void fillMana(int seat) {
+		int player = player(seat);
+		randomSeed[0] = slab.getLong(player + MatchStore.RANDOM_SEED);
+		slab.putInt(player + MatchStore.MANA, GameRandom.nextInt(randomSeed, 0, Player.MAX_MANA_SLOTS - 1) + 1);
+		slab.putLong(player + MatchStore.RANDOM_SEED, randomSeed[0]);
+	}
+
+	/**
+	 * Picks a card like {@link Player#pickOneCard()}. The deck of a player is
+	 * ordered by mana cost, so the card at a random index of the deck is found
+	 * by counting the cards of each cost.
+	 */
+	private void pickOneCard(int seat) {
+		int player = player(seat);
+		long deck = slab.getLong(player + MatchStore.DECK);
+		if (deck == CardHistogram.EMPTY) {
+			// Special Rule 1
+			slab.putInt(player + MatchStore.HEALTH, slab.getInt(player + MatchStore.HEALTH) - 1);
+			increment(player + MatchStore.BLEED_OUTS);
+			return;
+		}
+		randomSeed[0] = slab.getLong(player + MatchStore.RANDOM_SEED);
+		int index = GameRandom.nextInt(randomSeed, 0, CardHistogram.size(deck));
+		slab.putLong(player + MatchStore.RANDOM_SEED, randomSeed[0]);
+		int cost = 0;
+		while (index >= CardHistogram.count(deck, cost)) {
+			index -= CardHistogram.count(deck, cost);
+			cost++;
+		}
+		slab.putLong(player + MatchStore.DECK, CardHistogram.remove(deck, cost));
+		long hand = slab.getLong(player + MatchStore.HAND);
+		if (CardHistogram.size(hand) > Player.MAX_NUM_OF_HAND_CARD) {
+			// Special Rule 2
+			increment(player + MatchStore.OVERLOADS);
+		} else {
+			slab.putLong(player + MatchStore.HAND, CardHistogram.add(hand, cost));
+		}
+	}
+
+	/**
+	 * Plays the card selected by the strategy like
+	 * {@link Player#playNextCard(Player)}
+	 */
+	private boolean playNextCard(int seat) {
+		int player = player(seat);
+		int opponent = player(seat ^ 1);
+		long hand = slab.getLong(player + MatchStore.HAND);
+		int mana = slab.getInt(player + MatchStore.MANA);
+		int health = slab.getInt(player + MatchStore.HEALTH);
+		int opponentHealth = slab.getInt(opponent + MatchStore.HEALTH);
+		int cost = strategy.selectCard(hand, mana, health, opponentHealth);
+		if (cost < 0) {
+			return false;
+		}
+		if (CardHistogram.count(hand, cost) == 0) {
+			throw new IllegalStateException("Strategy has selected a card which is not in hand : " + cost);
+		}
+		if (mana < cost) {
+			throw new InsufficientManaException();
+		}
+		increment(player + MatchStore.PLAYED_CARDS);
+		if (cost == 0) {
+			// Special Rule 3
+			increment(player + MatchStore.DUD_CARDS);
+		}
+		slab.putInt(opponent + MatchStore.HEALTH, opponentHealth - cost);
+		slab.putLong(player + MatchStore.HAND, CardHistogram.remove(hand, cost));
+		slab.putInt(player + MatchStore.MANA, mana - cost);
+		return true;
+	}
+
+	/**
+	 * Returns the winner like {@link com.yaser.GamePlay#checkWinner()}, -1 if
+	 * the match is not over
+	 */
+	private int checkWinner(int seat) {
+		if (getHealth(seat) < 1) {
+			return seat ^ 1;
+		} else if (getHealth(seat ^ 1) < 1) {
+			return seat;
+		}
+		return -1;
+	}
+
+	private void increment(int position) {
+		slab.putShort(position, (short) (slab.getShort(position) + 1));
+	}
+
+	private int player(int seat) {
+		if (seat < 0 || seat >= SEATS) {
+			throw new IllegalArgumentException("Seat must be 0 or 1 : " + seat);
+		}
+		return record + MatchStore.PLAYERS + seat * MatchStore.PLAYER_SIZE;
+	}
+
+	/**
+	 * Returns the state of the match, see {@link GameState}
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public GameState exportState() {
+		int current = player(getCurrentSeat());
+		int opponent = player(getCurrentSeat() ^ 1);
+		return new GameState(getTurnCount(), slab.getInt(current + MatchStore.HEALTH),
+				slab.getInt(current + MatchStore.MANA), slab.getLong(current + MatchStore.HAND),
+				slab.getLong(current + MatchStore.DECK), slab.getLong(current + MatchStore.RANDOM_SEED),
+				slab.getInt(opponent + MatchStore.HEALTH), slab.getInt(opponent + MatchStore.MANA),
+				slab.getLong(opponent + MatchStore.HAND), slab.getLong(opponent + MatchStore.DECK),
+				slab.getLong(opponent + MatchStore.RANDOM_SEED));
+	}
+
+	/**
+	 * Returns the id of the match, -1 before the first {@link #wrap(int)}
+	 *
+	 * @return
+	 */
+	public int getId() {
+		return id;
+	}
+
+	public long getSeed() {
+		return slab.getLong(record + MatchStore.SEED);
+	}
+
+	public int getTurnCount() {
+		return slab.getInt(record + MatchStore.TURN_COUNT);
+	}
+
+	/**
+	 * Returns the seat of the player whose turn is next
+	 *
+	 * @return
+	 */
+	public int getCurrentSeat() {
+		return slab.get(record + MatchStore.CURRENT_SEAT);
+	}
+
+	public boolean isFinished() {
+		return slab.get(record + MatchStore.STATUS) == MatchStore.FINISHED;
+	}
+
+	/**
+	 * Returns the seat of the winner, -1 if the match is not finished
+	 *
+	 * @return
+	 */
+	public int getWinnerSeat() {
+		return slab.get(record + MatchStore.WINNER_SEAT);
+	}
+
+	public int getHealth(int seat) {
+		return slab.getInt(player(seat) + MatchStore.HEALTH);
+	}
+
+	public int getMana(int seat) {
+		return slab.getInt(player(seat) + MatchStore.MANA);
+	}
+
+	/**
+	 * Returns the cards in the hand of the given seat, see
+	 * {@link CardHistogram}
+	 *
+	 * @param seat
+	 * @return
+	 */
+	public long getHand(int seat) {
+		return slab.getLong(player(seat) + MatchStore.HAND);
+	}
+
+	/**
+	 * Returns the cards in the deck of the given seat, see
+	 * {@link CardHistogram}
+	 *
+	 * @param seat
+	 * @return
+	 */
+	public long getDeck(int seat) {
+		return slab.getLong(player(seat) + MatchStore.DECK);
+	}
+
+	public int getBleedOutCount(int seat) {
+		return slab.getShort(player(seat) + MatchStore.BLEED_OUTS);
+	}
+
+	public int getOverloadCount(int seat) {
+		return slab.getShort(player(seat) + MatchStore.OVERLOADS);
+	}
+
+	public int getPlayedCardCount(int seat) {
+		return slab.getShort(player(seat) + MatchStore.PLAYED_CARDS);
+	}
+
+	public int getDudCardCount(int seat) {
+		return slab.getShort(player(seat) + MatchStore.DUD_CARDS);
+	}
+}
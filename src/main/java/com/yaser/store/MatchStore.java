@@ -0,0 +1,323 @@
+package com.yaser.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Keeps the state of live matches in fixed-size records outside of the
+ * heap, so the heap and the work of the garbage collector do not grow with
+ * the number of matches. Records are kept in slabs of {@link #SLAB_MATCHES}
+ * matches, which are direct buffers or regions of a mapped file and are
+ * added when the store grows.
+ * <p>
+ * A match is identified by the index of its record and is read and played
+ * through a {@link Match} flyweight, which follows the rules of
+ * {@link com.yaser.GamePlay} and {@link Player} for two players with the
+ * same {@link Strategy}. A match created with a seed plays exactly as a
+ * {@link com.yaser.GamePlay} created with that seed. Records of released
+ * matches are reused.
+ * <p>
+ * A store and its flyweights must be used by one thread at a time.
+ *
+ * @author yaser
+ *
+ */
+public class MatchStore implements Closeable {
+	/**
+	 * Number of matches in one slab
+	 */
+	public static final int SLAB_MATCHES = 1 << 16;
+	private static final int SLAB_SHIFT = 16;
+
+	// match record
+	static final int SEED = 0;
+	static final int TURN_COUNT = 8;
+	/**
+	 * Index of the next free record while the record is free
+	 */
+	static final int NEXT_FREE = 8;
+	static final int CURRENT_SEAT = 12;
+	static final int STATUS = 13;
+	static final int WINNER_SEAT = 14;
+	static final int PLAYERS = 16;
+
+	// player record, at PLAYERS + seat * PLAYER_SIZE
+	static final int RANDOM_SEED = 0;
+	static final int HAND = 8;
+	static final int DECK = 16;
+	static final int HEALTH = 24;
+	static final int MANA = 28;
+	static final int BLEED_OUTS = 32;
+	static final int OVERLOADS = 34;
+	static final int PLAYED_CARDS = 36;
+	static final int DUD_CARDS = 38;
+	static final int PLAYER_SIZE = 40;
+
+	/**
+	 * Size of the record of a match in bytes
+	 */
+	public static final int RECORD_SIZE = PLAYERS + 2 * PLAYER_SIZE;
+
+	static final byte FREE = 0;
+	static final byte LIVE = 1;
+	static final byte FINISHED = 2;
+	private static final int NONE = -1;
+
+	private final int capacity;
+	private final long startingDeck;
+	private final Strategy strategy;
+	private final FileChannel channel;
+	/**
+	 * Draws the starting hands of the created matches
+	 */
+	private final Match dealer = new Match(this);
+	/**
+	 * Splits the generators of the players from the seed of a created match
+	 */
+	private final GameRandom splitter = new GameRandom(0);
+	private ByteBuffer[] slabs = new ByteBuffer[0];
+	/**
+	 * Number of records which have been used at least once
+	 */
+	private int used = 0;
+	private int liveCount = 0;
+	private int firstFree = NONE;
+
+	/**
+	 * Creates a store of direct buffers for up to the given number of matches
+	 * of players with the default deck and the default strategy
+	 *
+	 * @param capacity
+	 */
+	public MatchStore(int capacity) {
+		this(capacity, Player.getDefaultDeckCosts(), GreedyStrategy.INSTANCE);
+	}
+
+	/**
+	 * Creates a store of direct buffers for up to the given number of matches
+	 *
+	 * @param capacity
+	 * @param deckCosts
+	 *            mana costs of the cards in the starting deck of both players
+	 * @param strategy
+	 *            strategy of both players
+	 */
+	public MatchStore(int capacity, int[] deckCosts, Strategy strategy) {
+		this(capacity, deckCosts, strategy, null);
+	}
+
+	private MatchStore(int capacity, int[] deckCosts, Strategy strategy, FileChannel channel) {
+		if (capacity < 1 || capacity > Integer.MAX_VALUE - SLAB_MATCHES) {
+			throw new IllegalArgumentException("Capacity must be between 1 and "
+					+ (Integer.MAX_VALUE - SLAB_MATCHES) + " : " + capacity);
+		}
+		if (strategy == null) {
+			throw new IllegalArgumentException("Strategy can not be null");
+		}
+		this.capacity = capacity;
+		this.startingDeck = CardHistogram.of(deckCosts);
+		this.strategy = strategy;
+		this.channel = channel;
+	}
+
+	/**
+	 * Creates a store whose slabs are mapped regions of the given file, so the
+	 * matches are paged by the operating system. The file is created if it
+	 * does not exist and its content is overwritten.
+	 *
+	 * @author yaser
+	 * @param file
+	 * @param capacity
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatchStore mapped(Path file, int capacity) throws IOException {
+		return mapped(file, capacity, Player.getDefaultDeckCosts(), GreedyStrategy.INSTANCE);
+	}
+
+	/**
+	 * Creates a store whose slabs are mapped regions of the given file
+	 *
+	 * @author yaser
+	 * @param file
+	 * @param capacity
+	 * @param deckCosts
+	 * @param strategy
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatchStore mapped(Path file, int capacity, int[] deckCosts, Strategy strategy)
+			throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			return new MatchStore(capacity, deckCosts, strategy, channel);
+		} catch (RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Creates a live match like {@link com.yaser.GamePlay} does with the given
+	 * seed : both players get a generator split from the seed and draw their
+	 * starting hands, the first player starts
+	 *
+	 * @author yaser
+	 * @param seed
+	 * @return id of the match
+	 * @throws IOException
+	 *             if a slab can not be mapped
+	 */
+	public int create(long seed) throws IOException {
+		int id;
+		if (firstFree != NONE) {
+			id = firstFree;
+			firstFree = slab(id).getInt(offset(id) + NEXT_FREE);
+		} else {
+			if (used == capacity) {
+				throw new IllegalStateException("Store is full : " + capacity + " matches");
+			}
+			id = used;
+			if ((id >>> SLAB_SHIFT) == slabs.length) {
+				addSlab();
+			}
+			used++;
+		}
+		liveCount++;
+		ByteBuffer slab = slab(id);
+		int record = offset(id);
+		slab.putLong(record + SEED, seed);
+		slab.putInt(record + TURN_COUNT, 0);
+		slab.put(record + CURRENT_SEAT, (byte) 0);
+		slab.put(record + STATUS, LIVE);
+		slab.put(record + WINNER_SEAT, (byte) NONE);
+		splitter.setSeed(seed);
+		for (int seat = 0; seat < 2; seat++) {
+			int player = record + PLAYERS + seat * PLAYER_SIZE;
+			slab.putLong(player + RANDOM_SEED, splitter.nextLong());
+			slab.putLong(player + HAND, CardHistogram.EMPTY);
+			slab.putLong(player + DECK, startingDeck);
+			slab.putInt(player + HEALTH, Player.DEFAULT_HEALTH);
+			slab.putInt(player + MANA, 0);
+			slab.putShort(player + BLEED_OUTS, (short) 0);
+			slab.putShort(player + OVERLOADS, (short) 0);
+			slab.putShort(player + PLAYED_CARDS, (short) 0);
+			slab.putShort(player + DUD_CARDS, (short) 0);
+		}
+		dealer.wrap(id).drawStartingHands();
+		return id;
+	}
+
+	/**
+	 * Releases the record of the given match to be reused by a new match
+	 *
+	 * @author yaser
+	 * @param id
+	 */
+	public void release(int id) {
+		ByteBuffer slab = slab(id);
+		int record = offset(id);
+		if (slab.get(record + STATUS) == FREE) {
+			throw new IllegalArgumentException("Match is already released : " + id);
+		}
+		slab.put(record + STATUS, FREE);
+		slab.putInt(record + NEXT_FREE, firstFree);
+		firstFree = id;
+		liveCount--;
+	}
+
+	/**
+	 * Returns a new flyweight for the matches of this store
+	 *
+	 * @author yaser
+	 * @return
+	 */
+	public Match flyweight() {
+		return new Match(this);
+	}
+
+	private void addSlab() throws IOException {
+		int size = SLAB_MATCHES * RECORD_SIZE;
+		ByteBuffer slab;
+		if (channel == null) {
+			slab = ByteBuffer.allocateDirect(size);
+		} else {
+			slab = channel.map(FileChannel.MapMode.READ_WRITE, (long) slabs.length * size, size);
+		}
+		slab.order(ByteOrder.nativeOrder());
+		slabs = Arrays.copyOf(slabs, slabs.length + 1);
+		slabs[slabs.length - 1] = slab;
+	}
+
+	/**
+	 * Returns the slab of the given match, checking that the match exists
+	 */
+	ByteBuffer slab(int id) {
+		if (id < 0 || id >= used) {
+			throw new IllegalArgumentException("There is no match with id " + id);
+		}
+		return slabs[id >>> SLAB_SHIFT];
+	}
+
+	static int offset(int id) {
+		return (id & (SLAB_MATCHES - 1)) * RECORD_SIZE;
+	}
+
+	Strategy getStrategy() {
+		return strategy;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of created matches which are not released, finished
+	 * or not
+	 *
+	 * @return
+	 */
+	public int getLiveCount() {
+		return liveCount;
+	}
+
+	public int getSlabCount() {
+		return slabs.length;
+	}
+
+	/**
+	 * Returns the bytes taken by the slabs
+	 *
+	 * @return
+	 */
+	public long getSize() {
+		return (long) slabs.length * SLAB_MATCHES * RECORD_SIZE;
+	}
+
+	/**
+	 * Closes the file of a mapped store, matches can not be used afterwards
+	 */
+	@Override
+	public void close() throws IOException {
+		slabs = new ByteBuffer[0];
+		used = 0;
+		liveCount = 0;
+		firstFree = NONE;
+		if (channel != null) {
+			channel.close();
+		}
+	}
+}
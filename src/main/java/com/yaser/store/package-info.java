@@ -0,0 +1,7 @@
+/**
+ * Off-heap store of live matches
+ *
+ * @author yaser
+ *
+ */
+package com.yaser.store;
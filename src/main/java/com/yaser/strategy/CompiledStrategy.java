@@ -0,0 +1,135 @@
+package com.yaser.strategy;
+
+import com.yaser.CardHistogram;
+
+/**
+ * {@link Strategy} whose decisions are read from a dense table made by
+ * {@link StrategyCompiler}. A decision is one read of the table, at an index
+ * computed from the hand, the mana and the health buckets. Arguments out of
+ * the table, such as more mana than a turn has, are passed to the compiled
+ * strategy, so a compiled strategy always selects the same cards as its
+ * source.
+ * <p>
+ * Hands are indexed by their rank in colex order : a hand of k cards with
+ * ascending costs {@code a_0 .. a_(k-1)} has the rank
+ * {@code sum of C(a_j + j, j + 1)} after all smaller hands.
+ *
+ * @author yaser
+ *
+ */
+public final class CompiledStrategy implements Strategy {
+	private static final int MAX_HAND_SIZE = StrategyCompiler.MAX_HAND_SIZE;
+	private static final int MANA_VALUES = StrategyCompiler.MAX_MANA + 1;
+	private static final int[][] BINOMIAL = new int[CardHistogram.MAX_COST + MAX_HAND_SIZE + 2][MAX_HAND_SIZE + 1];
+
+	static {
+		for (int n = 0; n < BINOMIAL.length; n++) {
+			BINOMIAL[n][0] = 1;
+			for (int k = 1; k <= Math.min(n, MAX_HAND_SIZE); k++) {
+				BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+			}
+		}
+	}
+
+	private final Strategy source;
+	private final int maxCost;
+	private final int[] healthBounds;
+	private final int buckets;
+	/**
+	 * Number of hands with fewer cards, by number of cards
+	 */
+	private final int[] handOffsets = new int[MAX_HAND_SIZE + 1];
+	/**
+	 * Selected card + 1 by hand, mana, health bucket and opponent health
+	 * bucket
+	 */
+	private final byte[] table;
+
+	CompiledStrategy(Strategy source, int maxCost, int[] healthBounds) {
+		this.source = source;
+		this.maxCost = maxCost;
+		this.healthBounds = healthBounds;
+		this.buckets = healthBounds.length + 1;
+		for (int size = 1; size <= MAX_HAND_SIZE; size++) {
+			handOffsets[size] = handOffsets[size - 1] + BINOMIAL[maxCost + size - 1][size - 1];
+		}
+		this.table = new byte[handCount(maxCost) * MANA_VALUES * buckets * buckets];
+	}
+
+	@Override
+	public int selectCard(long hand, int mana, int health, int opponentHealth) {
+		int rank = rank(hand);
+		if (rank < 0 || mana < 0 || mana >= MANA_VALUES) {
+			return source.selectCard(hand, mana, health, opponentHealth);
+		}
+		return table[((rank * MANA_VALUES + mana) * buckets + bucket(health)) * buckets + bucket(opponentHealth)] - 1;
+	}
+
+	/**
+	 * Returns the index of a decision in the table
+	 */
+	int index(long hand, int mana, int healthBucket, int opponentHealthBucket) {
+		return ((rank(hand) * MANA_VALUES + mana) * buckets + healthBucket) * buckets + opponentHealthBucket;
+	}
+
+	/**
+	 * Returns the rank of the hand among the hands of the table, -1 if it is
+	 * not in the table
+	 */
+	private int rank(long hand) {
+		if (maxCost < CardHistogram.MAX_COST && (hand >>> ((maxCost + 1) * 4)) != 0) {
+			return -1;
+		}
+		int size = 0;
+		int rank = 0;
+		for (int cost = 0; hand != 0; cost++, hand >>>= 4) {
+			for (int card = (int) hand & CardHistogram.MAX_COUNT; card > 0; card--) {
+				if (size == MAX_HAND_SIZE) {
+					return -1;
+				}
+				rank += BINOMIAL[cost + size][size + 1];
+				size++;
+			}
+		}
+		return handOffsets[size] + rank;
+	}
+
+	private int bucket(int health) {
+		int bucket = 0;
+		while (bucket < healthBounds.length && health >= healthBounds[bucket]) {
+			bucket++;
+		}
+		return bucket;
+	}
+
+	/**
+	 * Returns the number of hands of up to {@link StrategyCompiler#MAX_HAND_SIZE}
+	 * cards with mana costs up to the given cost
+	 */
+	static int handCount(int maxCost) {
+		// hands of up to k cards of n costs are hands of k cards of n + 1 costs
+		return BINOMIAL[maxCost + 1 + MAX_HAND_SIZE][MAX_HAND_SIZE];
+	}
+
+	/**
+	 * Returns the strategy which is compiled
+	 *
+	 * @return
+	 */
+	public Strategy getSource() {
+		return source;
+	}
+
+	/**
+	 * Returns the number of decisions in the table
+	 *
+	 * @return
+	 */
+	public int getTableSize() {
+		return table.length;
+	}
+
+	byte[] getTable() {
+		return table;
+	}
+}
@@ -0,0 +1,22 @@
+package com.yaser.strategy;
+
+import com.yaser.CardHistogram;
+
+/**
+ * Default strategy : always plays the most expensive card which can be paid,
+ * to give max damage with each card
+ * 
+ * @author yaser
+ *
+ */
+public final class GreedyStrategy implements Strategy {
+	public static final GreedyStrategy INSTANCE = new GreedyStrategy();
+
+	private GreedyStrategy() {
+	}
+
+	@Override
+	public int selectCard(long hand, int mana, int health, int opponentHealth) {
+		return CardHistogram.highestAffordable(CardHistogram.mask(hand), mana);
+	}
+}
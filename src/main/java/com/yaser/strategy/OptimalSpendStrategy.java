@@ -0,0 +1,125 @@
+package com.yaser.strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.yaser.CardHistogram;
+
+/**
+ * Spends the mana of a turn in the way which gives the max damage : the
+ * played cards are the subset of the hand with the largest total mana cost
+ * which can be paid. Cards of the subset are played from the most expensive
+ * one, and free cards (Special Rule 3) are played last.
+ * <p>
+ * Each decision is looked up in a table keyed on (hand histogram, mana),
+ * which is filled on first use and shared by all threads. Playing a card of
+ * an optimal subset leaves an optimal subset for the rest of the hand and
+ * mana, so every card of a turn is one lookup.
+ * 
+ * @author yaser
+ *
+ */
+public final class OptimalSpendStrategy implements Strategy {
+	public static final OptimalSpendStrategy INSTANCE = new OptimalSpendStrategy();
+
+	private static final int TABLE_BITS = 18;
+	private static final int MAX_PROBES = 16;
+	/**
+	 * Hands with a card more expensive than 11 and mana above 255 are not
+	 * kept in the table
+	 */
+	private static final int HAND_BITS = 48;
+	private static final int MANA_BITS = 8;
+	private static final long KEY_MASK = (1L << (HAND_BITS + MANA_BITS)) - 1;
+
+	/**
+	 * Table entries : hand histogram in the lowest 48 bits, mana in the next
+	 * 8 bits and selected card + 1 in the highest 8 bits. 0 is an empty
+	 * entry.
+	 */
+	private final AtomicLongArray table = new AtomicLongArray(1 << TABLE_BITS);
+
+	private OptimalSpendStrategy() {
+	}
+
+	@Override
+	public int selectCard(long hand, int mana, int health, int opponentHealth) {
+		if (hand == CardHistogram.EMPTY || mana < 0) {
+			return -1;
+		}
+		// more mana than the whole hand costs is the same as just enough mana
+		int budget = Math.min(mana, CardHistogram.totalCost(hand));
+		if ((hand >>> HAND_BITS) != 0 || budget >= (1 << MANA_BITS)) {
+			return nextCard(hand, budget);
+		}
+		long key = hand | ((long) budget << HAND_BITS);
+		int index = (int) (mix(key) >>> (64 - TABLE_BITS));
+		for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & ((1 << TABLE_BITS) - 1)) {
+			long entry = table.get(index);
+			if (entry == 0) {
+				int card = nextCard(hand, budget);
+				table.compareAndSet(index, 0, key | ((long) (card + 1) << (HAND_BITS + MANA_BITS)));
+				return card;
+			}
+			if ((entry & KEY_MASK) == key) {
+				return (int) (entry >>> (HAND_BITS + MANA_BITS)) - 1;
+			}
+		}
+		// table is too crowded around this key
+		return nextCard(hand, budget);
+	}
+
+	/**
+	 * Returns the next card of the best subset of the hand for the given
+	 * mana, -1 if no card can be played
+	 * 
+	 * @author yaser
+	 * @param hand
+	 * @param mana
+	 * @return
+	 */
+	static int nextCard(long hand, int mana) {
+		int best = maxSpend(hand, mana);
+		if (best == 0) {
+			return CardHistogram.count(hand, 0) > 0 ? 0 : -1;
+		}
+		for (int cost = Math.min(best, CardHistogram.MAX_COST); cost > 0; cost--) {
+			if (CardHistogram.count(hand, cost) > 0
+					&& maxSpend(CardHistogram.remove(hand, cost), best - cost) == best - cost) {
+				return cost;
+			}
+		}
+		throw new IllegalStateException("No card of the best subset is found");
+	}
+
+	/**
+	 * Returns the largest total mana cost of a subset of the hand which is
+	 * not more than the given mana
+	 * 
+	 * @author yaser
+	 * @param hand
+	 * @param mana
+	 * @return
+	 */
+	static int maxSpend(long hand, int mana) {
+		boolean[] reachable = new boolean[mana + 1];
+		reachable[0] = true;
+		for (int cost = 1; cost <= Math.min(mana, CardHistogram.MAX_COST); cost++) {
+			for (int card = CardHistogram.count(hand, cost); card > 0; card--) {
+				for (int sum = mana; sum >= cost; sum--) {
+					reachable[sum] |= reachable[sum - cost];
+				}
+			}
+		}
+		int best = mana;
+		while (!reachable[best]) {
+			best--;
+		}
+		return best;
+	}
+
+	private static long mix(long key) {
+		key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+		key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return key ^ (key >>> 33);
+	}
+}
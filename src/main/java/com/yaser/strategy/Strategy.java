@@ -0,0 +1,31 @@
+package com.yaser.strategy;
+
+import com.yaser.CardHistogram;
+
+/**
+ * Decides which card a {@link com.yaser.Player} plays next. A strategy must
+ * be a pure function of its arguments : it must return the same card for the
+ * same arguments and keep no state, so that it can be shared by all players
+ * and threads.
+ * 
+ * @author yaser
+ *
+ */
+public interface Strategy {
+
+	/**
+	 * Returns the mana cost of the next card to play, or -1 to end the turn.
+	 * The returned card must be in hand and cost no more than the mana.
+	 * 
+	 * @param hand
+	 *            cards in hand, see {@link CardHistogram}
+	 * @param mana
+	 *            mana left in this turn
+	 * @param health
+	 *            health of the player
+	 * @param opponentHealth
+	 *            health of the opponent
+	 * @return
+	 */
+	int selectCard(long hand, int mana, int health, int opponentHealth);
+}
@@ -0,0 +1,123 @@
+package com.yaser.strategy;
+
+import java.util.Arrays;
+
+import com.yaser.CardHistogram;
+import com.yaser.Player;
+
+/**
+ * Compiles a {@link Strategy} into a {@link CompiledStrategy} : every
+ * decision of the strategy is computed once and kept in a dense table.
+ * <p>
+ * The table covers hands of up to {@code MAX_NUM_OF_HAND_CARD + 1} cards
+ * with mana costs up to a max cost, mana from 0 to
+ * {@code MAX_MANA_SLOTS - 1} and health buckets of both players. Healths are
+ * split into buckets by ascending bounds : bounds {@code {5, 10}} make the
+ * buckets below 5, from 5 to 9 and from 10. The strategy is asked with the
+ * lowest health of each bucket (the highest for the first bucket), so it
+ * must only depend on the buckets of the healths to be compiled exactly.
+ * Without bounds, the strategy must not depend on health at all.
+ *
+ * @author yaser
+ *
+ */
+public final class StrategyCompiler {
+	/**
+	 * Highest number of cards in hand, a card is dropped only when the hand
+	 * has more cards than {@link Player#MAX_NUM_OF_HAND_CARD}
+	 */
+	public static final int MAX_HAND_SIZE = Player.MAX_NUM_OF_HAND_CARD + 1;
+	/**
+	 * Highest mana of a turn
+	 */
+	public static final int MAX_MANA = Player.MAX_MANA_SLOTS - 1;
+
+	private StrategyCompiler() {
+	}
+
+	/**
+	 * Compiles a strategy which does not depend on health, for hands of any
+	 * card
+	 *
+	 * @author yaser
+	 * @param strategy
+	 * @return
+	 */
+	public static CompiledStrategy compile(Strategy strategy) {
+		return compile(strategy, CardHistogram.MAX_COST, new int[0]);
+	}
+
+	/**
+	 * Compiles a strategy for hands of cards up to the given mana cost and
+	 * the given health buckets
+	 *
+	 * @author yaser
+	 * @param strategy
+	 * @param maxCost
+	 *            highest mana cost of a card in the table
+	 * @param healthBounds
+	 *            ascending lower bounds of the health buckets after the first
+	 *            one
+	 * @return
+	 */
+	public static CompiledStrategy compile(Strategy strategy, int maxCost, int[] healthBounds) {
+		if (strategy instanceof CompiledStrategy) {
+			strategy = ((CompiledStrategy) strategy).getSource();
+		}
+		if (maxCost < 0 || maxCost > CardHistogram.MAX_COST) {
+			throw new IllegalArgumentException("Mana cost must be between 0 and " + CardHistogram.MAX_COST + " : "
+					+ maxCost);
+		}
+		for (int bound = 1; bound < healthBounds.length; bound++) {
+			if (healthBounds[bound] <= healthBounds[bound - 1]) {
+				throw new IllegalArgumentException("Health bounds must be ascending : "
+						+ Arrays.toString(healthBounds));
+			}
+		}
+		int buckets = healthBounds.length + 1;
+		int[] healths = new int[buckets];
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			healths[bucket] = bucket == 0 ? (buckets == 1 ? Player.DEFAULT_HEALTH : healthBounds[0] - 1)
+					: healthBounds[bucket - 1];
+		}
+		CompiledStrategy compiled = new CompiledStrategy(strategy, maxCost, healthBounds.clone());
+		byte[] table = compiled.getTable();
+		for (long hand : hands(maxCost)) {
+			for (int mana = 0; mana <= MAX_MANA; mana++) {
+				for (int health = 0; health < buckets; health++) {
+					for (int opponentHealth = 0; opponentHealth < buckets; opponentHealth++) {
+						int card = strategy.selectCard(hand, mana, healths[health], healths[opponentHealth]);
+						if (card < -1 || card > CardHistogram.MAX_COST) {
+							throw new IllegalArgumentException("Strategy has selected an invalid card : " + card);
+						}
+						table[compiled.index(hand, mana, health, opponentHealth)] = (byte) (card + 1);
+					}
+				}
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * Returns all hands of up to {@link #MAX_HAND_SIZE} cards with mana costs
+	 * up to the given cost
+	 */
+	private static long[] hands(int maxCost) {
+		long[] hands = new long[CompiledStrategy.handCount(maxCost)];
+		int count = 0;
+		hands[count++] = CardHistogram.EMPTY;
+		// every hand is a smaller hand plus a card not cheaper than its cards,
+		// hands are in ascending size
+		for (int from = 0; from < count; from++) {
+			long hand = hands[from];
+			if (CardHistogram.size(hand) == MAX_HAND_SIZE) {
+				continue;
+			}
+			int highest = hand == CardHistogram.EMPTY ? 0 : (63 - Long.numberOfLeadingZeros(hand)) >> 2;
+			for (int cost = highest; cost <= maxCost; cost++) {
+				hands[count++] = CardHistogram.add(hand, cost);
+			}
+		}
+		return hands;
+	}
+}
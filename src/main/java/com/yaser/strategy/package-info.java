@@ -0,0 +1,7 @@
+/**
+ * Decision logic of the players
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.strategy;
@@ -0,0 +1,92 @@
+package com.yaser.tournament;
+
+import com.yaser.CardHistogram;
+import com.yaser.Player;
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.Strategy;
+
+/**
+ * Participant of a {@link Tournament} : a strategy playing with a deck
+ * 
+ * @author yaser
+ *
+ */
+public class Entrant {
+	private final String name;
+	private final Strategy strategy;
+	private final int[] deckCosts;
+
+	/**
+	 * Creates an entrant playing the default deck with the given strategy
+	 * 
+	 * @param name
+	 * @param strategy
+	 */
+	public Entrant(String name, Strategy strategy) {
+		this(name, strategy, Player.getDefaultDeckCosts());
+	}
+
+	/**
+	 * Creates an entrant playing the given deck greedily
+	 * 
+	 * @param name
+	 * @param deckCosts
+	 *            mana costs of the cards in the deck
+	 */
+	public Entrant(String name, int[] deckCosts) {
+		this(name, GreedyStrategy.INSTANCE, deckCosts);
+	}
+
+	/**
+	 * Creates an entrant playing the given deck with the given strategy
+	 * 
+	 * @param name
+	 * @param strategy
+	 * @param deckCosts
+	 *            mana costs of the cards in the deck
+	 */
+	public Entrant(String name, Strategy strategy, int[] deckCosts) {
+		if (strategy == null) {
+			throw new IllegalArgumentException("Strategy can not be null");
+		}
+		for (int cost : deckCosts) {
+			if (cost < 0 || cost > CardHistogram.MAX_COST) {
+				throw new IllegalArgumentException("Mana cost must be between 0 and " + CardHistogram.MAX_COST
+						+ " : " + cost);
+			}
+		}
+		this.name = name;
+		this.strategy = strategy;
+		this.deckCosts = deckCosts.clone();
+	}
+
+	/**
+	 * Returns a new player with the strategy and deck of the entrant
+	 * 
+	 * @author yaser
+	 * @return
+	 */
+	public Player newPlayer() {
+		Player player = new Player(name);
+		player.setStrategy(strategy);
+		player.getDeck().setCards(deckCosts);
+		return player;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Strategy getStrategy() {
+		return strategy;
+	}
+
+	public int[] getDeckCosts() {
+		return deckCosts.clone();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,79 @@
+package com.yaser.tournament;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Elo ratings of the entrants of a tournament. Every played batch of a
+ * pairing is one match whose score is the win rate of the batch. Ratings are
+ * doubles kept as bits and updated with compare-and-set, so pairings update
+ * them at the same time without locks.
+ * 
+ * @author yaser
+ *
+ */
+public class RatingTable {
+	/**
+	 * Rating of an entrant before its first match
+	 */
+	public static final double INITIAL_RATING = 1500;
+	/**
+	 * Default change of rating of a fully unexpected match result
+	 */
+	public static final double DEFAULT_K_FACTOR = 16;
+
+	private final AtomicLongArray ratings;
+	private final double kFactor;
+
+	public RatingTable(int entrants) {
+		this(entrants, DEFAULT_K_FACTOR);
+	}
+
+	public RatingTable(int entrants, double kFactor) {
+		this.ratings = new AtomicLongArray(entrants);
+		this.kFactor = kFactor;
+		for (int entrant = 0; entrant < entrants; entrant++) {
+			ratings.set(entrant, Double.doubleToLongBits(INITIAL_RATING));
+		}
+	}
+
+	/**
+	 * Updates the ratings of two entrants after a match
+	 * 
+	 * @author yaser
+	 * @param entrant
+	 * @param opponent
+	 * @param score
+	 *            between 0 and 1, the ratio of games won by the entrant
+	 */
+	public void update(int entrant, int opponent, double score) {
+		double change = kFactor * (score - expectedScore(entrant, opponent));
+		add(entrant, change);
+		add(opponent, -change);
+	}
+
+	/**
+	 * Returns the expected ratio of games won by the entrant against the
+	 * opponent according to the ratings
+	 * 
+	 * @author yaser
+	 * @param entrant
+	 * @param opponent
+	 * @return
+	 */
+	public double expectedScore(int entrant, int opponent) {
+		return 1 / (1 + Math.pow(10, (getRating(opponent) - getRating(entrant)) / 400));
+	}
+
+	public double getRating(int entrant) {
+		return Double.longBitsToDouble(ratings.get(entrant));
+	}
+
+	private void add(int entrant, double change) {
+		for (;;) {
+			long bits = ratings.get(entrant);
+			if (ratings.compareAndSet(entrant, bits, Double.doubleToLongBits(Double.longBitsToDouble(bits) + change))) {
+				return;
+			}
+		}
+	}
+}
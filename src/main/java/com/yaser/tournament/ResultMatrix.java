@@ -0,0 +1,101 @@
+package com.yaser.tournament;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Games and wins of every ordered pairing of a tournament, updated without
+ * locks by the pairings which are played at the same time. Row is the
+ * entrant in the first seat, column is the entrant in the second seat.
+ * 
+ * @author yaser
+ *
+ */
+public class ResultMatrix {
+	private final int entrants;
+	private final AtomicLongArray games;
+	private final AtomicLongArray wins;
+
+	public ResultMatrix(int entrants) {
+		this.entrants = entrants;
+		this.games = new AtomicLongArray(entrants * entrants);
+		this.wins = new AtomicLongArray(entrants * entrants);
+	}
+
+	/**
+	 * Adds played games of a pairing
+	 * 
+	 * @author yaser
+	 * @param first
+	 *            entrant in the first seat
+	 * @param second
+	 *            entrant in the second seat
+	 * @param games
+	 *            number of played games
+	 * @param firstWins
+	 *            number of games won by the first seat
+	 */
+	public void record(int first, int second, long games, long firstWins) {
+		this.games.addAndGet(first * entrants + second, games);
+		this.wins.addAndGet(first * entrants + second, firstWins);
+	}
+
+	/**
+	 * Returns the number of games played by the given entrants in the given
+	 * seats
+	 * 
+	 * @param first
+	 * @param second
+	 * @return
+	 */
+	public long getGames(int first, int second) {
+		return games.get(first * entrants + second);
+	}
+
+	/**
+	 * Returns the number of games won by the first seat
+	 * 
+	 * @param first
+	 * @param second
+	 * @return
+	 */
+	public long getWins(int first, int second) {
+		return wins.get(first * entrants + second);
+	}
+
+	/**
+	 * Returns the ratio of games won by the entrant against the opponent in
+	 * both seat orders, 0 if they have not played
+	 * 
+	 * @author yaser
+	 * @param entrant
+	 * @param opponent
+	 * @return
+	 */
+	public double getWinRate(int entrant, int opponent) {
+		long played = getGames(entrant, opponent) + getGames(opponent, entrant);
+		long won = getWins(entrant, opponent) + getGames(opponent, entrant) - getWins(opponent, entrant);
+		return played == 0 ? 0 : (double) won / played;
+	}
+
+	/**
+	 * Returns the ratio of all games of the entrant which it has won, 0 if it
+	 * has not played
+	 * 
+	 * @author yaser
+	 * @param entrant
+	 * @return
+	 */
+	public double getScore(int entrant) {
+		long played = 0;
+		long won = 0;
+		for (int opponent = 0; opponent < entrants; opponent++) {
+			played += getGames(entrant, opponent) + getGames(opponent, entrant);
+			won += getWins(entrant, opponent) + getGames(opponent, entrant) - getWins(opponent, entrant);
+		}
+		return played == 0 ? 0 : (double) won / played;
+	}
+
+	public int getEntrants() {
+		return entrants;
+	}
+}
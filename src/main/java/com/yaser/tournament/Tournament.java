@@ -0,0 +1,235 @@
+package com.yaser.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import com.yaser.GameRandom;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+import com.yaser.statistics.WilsonInterval;
+
+/**
+ * Round-robin tournament : every entrant plays every other entrant in both
+ * seat orders. All pairings are played at the same time on a
+ * {@link ForkJoinPool}, in rounds of batches of games which are stolen by
+ * idle workers, so the pool stays busy whatever the number of pairings is.
+ * After each round the pairing adds its batches to the {@link ResultMatrix}
+ * and the {@link RatingTable}, and stops when the 95% Wilson interval of its
+ * win rate is narrow enough.
+ * <p>
+ * Pairing {@code (first, second)} plays the games of a {@link Simulator} run
+ * whose master seed depends on the tournament master seed and the pairing,
+ * so the result matrix only depends on the master seed, the batch size and
+ * the batches per round. Ratings depend on the order in which batches are
+ * finished.
+ * 
+ * @author yaser
+ *
+ */
+public class Tournament {
+	public static final int DEFAULT_BATCH_SIZE = 256;
+	public static final long DEFAULT_MIN_GAMES = 1024;
+	public static final long DEFAULT_MAX_GAMES = 1 << 16;
+	public static final double DEFAULT_CONFIDENCE_HALF_WIDTH = 0.01;
+
+	private final ForkJoinPool pool;
+	private final List<Entrant> entrants;
+	private final ResultMatrix results;
+	private final RatingTable ratings;
+	private long masterSeed = new GameRandom().nextLong();
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int batchesPerRound;
+	private long minGames = DEFAULT_MIN_GAMES;
+	private long maxGames = DEFAULT_MAX_GAMES;
+	private double confidenceHalfWidth = DEFAULT_CONFIDENCE_HALF_WIDTH;
+	private boolean played = false;
+
+	/**
+	 * Creates a tournament of the given entrants on the common pool
+	 * 
+	 * @param entrants
+	 */
+	public Tournament(List<Entrant> entrants) {
+		this(ForkJoinPool.commonPool(), entrants);
+	}
+
+	/**
+	 * Creates a tournament of the given entrants on the given pool. A round
+	 * of a pairing is one batch per worker by default.
+	 * 
+	 * @param pool
+	 * @param entrants
+	 */
+	public Tournament(ForkJoinPool pool, List<Entrant> entrants) {
+		if (entrants.size() < 2) {
+			throw new IllegalArgumentException("Tournament needs at least 2 entrants : " + entrants.size());
+		}
+		this.pool = pool;
+		this.entrants = new ArrayList<>(entrants);
+		this.results = new ResultMatrix(entrants.size());
+		this.ratings = new RatingTable(entrants.size());
+		this.batchesPerRound = pool.getParallelism();
+	}
+
+	/**
+	 * Plays all pairings until they are decided or reach the max number of
+	 * games. A tournament is played once.
+	 * 
+	 * @author yaser
+	 */
+	public void play() {
+		if (played) {
+			throw new IllegalStateException("Tournament is already played");
+		}
+		played = true;
+		List<PairingTask> pairings = new ArrayList<>();
+		for (int first = 0; first < entrants.size(); first++) {
+			for (int second = 0; second < entrants.size(); second++) {
+				if (first != second) {
+					pairings.add(new PairingTask(first, second));
+				}
+			}
+		}
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(pairings);
+			}
+		});
+	}
+
+	public List<Entrant> getEntrants() {
+		return new ArrayList<>(entrants);
+	}
+
+	public ResultMatrix getResults() {
+		return results;
+	}
+
+	public RatingTable getRatings() {
+		return ratings;
+	}
+
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	public void setMasterSeed(long masterSeed) {
+		this.masterSeed = masterSeed;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive : " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	public int getBatchesPerRound() {
+		return batchesPerRound;
+	}
+
+	public void setBatchesPerRound(int batchesPerRound) {
+		if (batchesPerRound < 1) {
+			throw new IllegalArgumentException("Batches per round must be positive : " + batchesPerRound);
+		}
+		this.batchesPerRound = batchesPerRound;
+	}
+
+	public long getMinGames() {
+		return minGames;
+	}
+
+	/**
+	 * Sets the number of games a pairing plays before it can stop early
+	 * 
+	 * @param minGames
+	 */
+	public void setMinGames(long minGames) {
+		this.minGames = minGames;
+	}
+
+	public long getMaxGames() {
+		return maxGames;
+	}
+
+	/**
+	 * Sets the number of games of a pairing whose interval never gets
+	 * narrow enough
+	 * 
+	 * @param maxGames
+	 */
+	public void setMaxGames(long maxGames) {
+		if (maxGames < 1) {
+			throw new IllegalArgumentException("Max games must be positive : " + maxGames);
+		}
+		this.maxGames = maxGames;
+	}
+
+	public double getConfidenceHalfWidth() {
+		return confidenceHalfWidth;
+	}
+
+	/**
+	 * Sets the half width of the 95% interval of the win rate of a pairing
+	 * which stops it
+	 * 
+	 * @param confidenceHalfWidth
+	 */
+	public void setConfidenceHalfWidth(double confidenceHalfWidth) {
+		this.confidenceHalfWidth = confidenceHalfWidth;
+	}
+
+	/**
+	 * Plays the games of one ordered pairing, round by round
+	 */
+	private class PairingTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int first;
+		private final int second;
+
+		PairingTask(int first, int second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		protected void compute() {
+			Entrant firstEntrant = entrants.get(first);
+			Entrant secondEntrant = entrants.get(second);
+			Simulator simulator = new Simulator(pool, firstEntrant::newPlayer, secondEntrant::newPlayer);
+			simulator.setMasterSeed(GameRandom.gameSeed(masterSeed, (long) first * entrants.size() + second));
+			simulator.setBatchSize(batchSize);
+			long games = 0;
+			long wins = 0;
+			while (games < maxGames) {
+				long roundEnd = Math.min(maxGames, games + (long) batchSize * batchesPerRound);
+				List<RecursiveTask<SimulationResult>> batches = new ArrayList<>(batchesPerRound);
+				for (long from = games; from < roundEnd; from += batchSize) {
+					batches.add(simulator.newTask(from, Math.min(from + batchSize, roundEnd)));
+				}
+				ForkJoinTask.invokeAll(batches);
+				for (RecursiveTask<SimulationResult> batch : batches) {
+					SimulationResult result = batch.getRawResult();
+					results.record(first, second, result.getGames(), result.getWins(0));
+					ratings.update(first, second, result.getWinRate(0));
+					games += result.getGames();
+					wins += result.getWins(0);
+				}
+				if (games >= minGames && WilsonInterval.halfWidth(wins, games) <= confidenceHalfWidth) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Round-robin tournaments between strategies and decks
+ * 
+ * @author yaser
+ *
+ */
+package com.yaser.tournament;
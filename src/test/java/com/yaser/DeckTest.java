@@ -0,0 +1,107 @@
+package com.yaser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DeckTest {
+
+	/**
+	 * For the same random values the deck draws the same cards as a list of
+	 * cards which removes the picked card
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameDrawsAsCardList() {
+		GameRandom decks = new GameRandom(8);
+		for (long seed = 0; seed < 200; seed++) {
+			int[] costs = new int[1 + decks.nextInt(30)];
+			for (int card = 0; card < costs.length; card++) {
+				costs[card] = decks.nextInt(CardHistogram.MAX_COST + 1);
+			}
+			List<Card> list = new ArrayList<>();
+			for (int cost : costs) {
+				list.add(new Card(cost));
+			}
+			Deck deck = new Deck(costs);
+			GameRandom listRandom = new GameRandom(seed);
+			GameRandom deckRandom = new GameRandom(seed);
+			while (!list.isEmpty()) {
+				Card picked = list.get(listRandom.nextInt(list.size()));
+				list.remove(picked);
+				assertEquals(picked.getManaCost(), deck.draw(deckRandom));
+				assertEquals(list.size(), deck.size());
+			}
+			assertTrue(deck.isEmpty());
+		}
+	}
+
+	/**
+	 * Every card of the deck is drawn first equally often
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testUniformDraw() {
+		int[] costs = { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+		int draws = 100000;
+		int[] counts = new int[costs.length];
+		Deck deck = new Deck(costs);
+		GameRandom random = new GameRandom(21);
+		for (int i = 0; i < draws; i++) {
+			deck.reset();
+			counts[deck.draw(random)]++;
+		}
+		double expected = (double) draws / costs.length;
+		double chiSquare = 0;
+		for (int count : counts) {
+			chiSquare += (count - expected) * (count - expected) / expected;
+		}
+		// critical value of 9 degrees of freedom at 0.1% significance
+		assertTrue("chi square " + chiSquare, chiSquare < 27.88);
+	}
+
+	/**
+	 * A reset deck has its starting cards in their starting order
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testReset() {
+		Deck deck = new Deck(new int[] { 3, 1, 2 });
+		GameRandom random = new GameRandom(4);
+		deck.draw(random);
+		deck.draw(random);
+		deck.reset();
+		assertArrayEquals(new int[] { 3, 1, 2 }, deck.getCosts());
+		deck.setCards(new int[] { 5, 5, 0, 7 });
+		deck.draw(random);
+		deck.reset();
+		assertArrayEquals(new int[] { 5, 5, 0, 7 }, deck.getCosts());
+		assertEquals(CardHistogram.of(0, 5, 5, 7), deck.getHistogram());
+	}
+
+	@Test
+	public void testCanonicalCards() {
+		assertSame(Card.of(4), Card.of(4));
+		assertSame(Card.of(4), Player.createDeck(new int[] { 4 }).get(0));
+		assertEquals(20, Card.of(20).getManaCost());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testCanonicalCardCanNotChange() {
+		Card.of(2).setManaCost(3);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDrawFromEmptyDeck() {
+		new Deck(new int[0]).draw(new GameRandom(1));
+	}
+}
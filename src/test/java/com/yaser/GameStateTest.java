@@ -0,0 +1,158 @@
+package com.yaser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.yaser.strategy.GreedyStrategy;
+
+public class GameStateTest {
+
+	/**
+	 * A game imported from the exported state of another game plays on
+	 * exactly as the other game
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testExportAndImport() {
+		for (long seed = 0; seed < 50; seed++) {
+			GamePlay game = new GamePlay(new Player("Player 1"), new Player("Player 2"), seed);
+			for (int turn = 0; turn < 6; turn++) {
+				game.beginTurn();
+				game.playTurn();
+				game.endTurn();
+			}
+			GameState state = game.exportState();
+			GamePlay copy = new GamePlay(new Player("Player 1"), new Player("Player 2"));
+			copy.importState(state);
+			assertEquals(state, copy.exportState());
+			game.play();
+			copy.play();
+			assertEquals(game.getTurnCount(), copy.getTurnCount());
+			assertEquals(game.getWinner().getName(), copy.getWinner().getName());
+			assertEquals(game.getWinner().getHealth(), copy.getWinner().getHealth());
+		}
+	}
+
+	/**
+	 * Importing a state changes the cards left in the decks, not the starting
+	 * decks, so reset players start the next game with their own decks
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testResetAfterImport() {
+		GamePlay game = new GamePlay(new Player("Player 1"), new Player("Player 2"), 7);
+		for (int turn = 0; turn < 10; turn++) {
+			game.beginTurn();
+			game.playTurn();
+			game.endTurn();
+		}
+		GameState state = game.exportState();
+		Player first = new Player("Player 1");
+		Player second = new Player("Player 2");
+		new GamePlay(first, second).importState(state);
+		assertEquals(CardHistogram.size(state.getCurrentDeck()), first.getSizeOfPlayerDeck());
+		assertTrue(first.getSizeOfPlayerDeck() < Player.getDefaultDeckCosts().length);
+		first.reset();
+		second.reset();
+		int[] costs = Player.getDefaultDeckCosts();
+		long defaultDeck = CardHistogram.EMPTY;
+		for (int cost : costs) {
+			defaultDeck = CardHistogram.add(defaultDeck, cost);
+		}
+		assertEquals(costs.length, first.getSizeOfPlayerDeck());
+		assertEquals(defaultDeck, first.getDeckHistogram());
+		assertEquals(costs.length, second.getSizeOfPlayerDeck());
+		assertEquals(defaultDeck, second.getDeckHistogram());
+	}
+
+	/**
+	 * Moves on states give the same states as the same turns of a game
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testMovesFollowGamePlay() {
+		GamePlay game = new GamePlay(new Player("Player 1"), new Player("Player 2"), 3);
+		GameState state = game.exportState();
+		while (game.getWinner() == null && game.getTurnCount() < 40) {
+			long deck = game.getCurrentPlayer().getDeckHistogram();
+			game.beginTurn();
+			int drawn = -1;
+			for (int cost = 0; cost <= CardHistogram.MAX_COST; cost++) {
+				if (CardHistogram.count(deck, cost) != CardHistogram.count(game.getCurrentPlayer().getDeckHistogram(),
+						cost)) {
+					drawn = cost;
+				}
+			}
+			state = state.beginTurn(game.getCurrentPlayer().getMana(), drawn);
+			Player winner = game.playTurn();
+			for (int card = state.nextCard(GreedyStrategy.INSTANCE); !state.isOver() && card > -1; card = state
+					.nextCard(GreedyStrategy.INSTANCE)) {
+				state = state.play(card);
+			}
+			assertEquals(game.exportState().getCurrentHealth(), state.getCurrentHealth());
+			assertEquals(game.exportState().getOpponentHealth(), state.getOpponentHealth());
+			assertEquals(game.exportState().getCurrentHand(), state.getCurrentHand());
+			assertEquals(game.exportState().getCurrentDeck(), state.getCurrentDeck());
+			assertEquals(winner != null, state.isOver());
+			if (winner != null) {
+				assertEquals(winner == game.getCurrentPlayer(), state.isWonByCurrentPlayer());
+				return;
+			}
+			game.endTurn();
+			state = state.endTurn();
+			assertSameBoard(game.exportState(), state);
+		}
+	}
+
+	/**
+	 * Checks that the given states are the same except the random seeds
+	 */
+	private static void assertSameBoard(GameState expected, GameState actual) {
+		assertEquals(expected.getTurnCount(), actual.getTurnCount());
+		assertEquals(expected.getCurrentHealth(), actual.getCurrentHealth());
+		assertEquals(expected.getCurrentMana(), actual.getCurrentMana());
+		assertEquals(expected.getCurrentHand(), actual.getCurrentHand());
+		assertEquals(expected.getCurrentDeck(), actual.getCurrentDeck());
+		assertEquals(expected.getOpponentHealth(), actual.getOpponentHealth());
+		assertEquals(expected.getOpponentMana(), actual.getOpponentMana());
+		assertEquals(expected.getOpponentHand(), actual.getOpponentHand());
+		assertEquals(expected.getOpponentDeck(), actual.getOpponentDeck());
+	}
+
+	/**
+	 * Moves do not change the state they are applied to and undo goes back
+	 * to the previous state
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testUndo() {
+		GameState start = new GameState(0, 30, 0, CardHistogram.of(1, 4), CardHistogram.of(2, 2, 8), 0, 30, 0,
+				CardHistogram.of(3), CardHistogram.of(5), 0);
+		GameHistory history = new GameHistory(start);
+		GameState drawn = history.push(start.beginTurn(5, 8));
+		GameState played = history.push(drawn.play(4));
+		history.push(played.play(1));
+		assertEquals(CardHistogram.of(1, 4), start.getCurrentHand());
+		assertEquals(CardHistogram.of(1, 4, 8), drawn.getCurrentHand());
+		assertEquals(25, history.current().getOpponentHealth());
+		assertEquals(0, history.current().getCurrentMana());
+		assertEquals(3, history.getMoves());
+		assertEquals(played, history.undo());
+		assertEquals(drawn, history.undo());
+		assertEquals(start, history.undo());
+		assertEquals(0, history.getMoves());
+		assertNotEquals(start, drawn);
+		assertEquals(1, drawn.drawProbability(2), 0);
+		assertEquals(2.0 / 3, start.drawProbability(2), 1e-12);
+		assertFalse(drawn.isOver());
+		assertTrue(drawn.endTurn().endTurn().equals(drawn));
+	}
+}
@@ -101,5 +101,59 @@ public class GameTest {
     public void testPlayGame() {
     	gamePlay.play();
     	assertNotNull(gamePlay.checkWinner());
+    	assertSame(gamePlay.checkWinner(), gamePlay.getWinner());
+    	assertThat(gamePlay.getTurnCount() > 0, is(true));
+    }
+
+    /**
+     * Tests that game events are reported to the listener from the starting hands to the winner
+     * @author yaser
+     */
+    @Test
+    public void testGameEventsAreReported() {
+        final int[] damage = new int[2];
+        final int[] cards = new int[1];
+        final Player[] winner = new Player[1];
+        Player player1 = new Player("Player 1");
+        Player player2 = new Player("Player 2");
+        gamePlay = new GamePlay(player1, player2, new GameEventListener() {
+            @Override
+            public void cardDrawn(Player player, int cost, int handSize) {
+                cards[0]++;
+            }
+
+            @Override
+            public void damageReceived(Player player, int amount, int health) {
+                damage[player == player1 ? 0 : 1] += amount;
+                assertEquals(player.getHealth(), health);
+            }
+
+            @Override
+            public void gameWon(Player player) {
+                winner[0] = player;
+            }
+        });
+        // starting hands
+        assertEquals(6, cards[0]);
+        gamePlay.play();
+        assertSame(gamePlay.getWinner(), winner[0]);
+        assertEquals(30 - player1.getBleedOutCount() - damage[0], player1.getHealth());
+        assertEquals(30 - player2.getBleedOutCount() - damage[1], player2.getHealth());
+    }
+
+    /**
+     * Tests that games with the same seed are the same
+     * @author yaser
+     */
+    @Test
+    public void testSameSeedSameGame() {
+        GamePlay game = new GamePlay(new Player("Player 1"), new Player("Player 2"), 2018L);
+        GamePlay again = new GamePlay(new Player("Player 1"), new Player("Player 2"), 2018L);
+        game.play();
+        again.play();
+        assertEquals(game.getTurnCount(), again.getTurnCount());
+        assertEquals(game.getWinner().getName(), again.getWinner().getName());
+        assertEquals(game.getCurrentPlayer().getHealth(), again.getCurrentPlayer().getHealth());
+        assertEquals(game.getOpponentPlayer().getHealth(), again.getOpponentPlayer().getHealth());
     }
 }
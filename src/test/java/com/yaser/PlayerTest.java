@@ -140,6 +140,28 @@ public class PlayerTest {
 		assertEquals(0, player.getMaxDamageCardByMana().getManaCost());
 	}
 
+	/**
+	 * Tests the max damage card cost lookup and that the hand is only changed
+	 * through the player
+	 * @author yaser
+	 */
+	@Test
+	public void testMaxDamageCostByMana() {
+		player.setPlayerHand(Arrays.asList(new Card(4), new Card(4), new Card(1)));
+		player.setMana(3);
+		assertEquals(1, player.getMaxDamageCostByMana());
+		player.setMana(9);
+		assertEquals(4, player.getMaxDamageCostByMana());
+		player.playTurn(opponentPlayer);
+		// one of the cards with mana cost 4 is still in hand
+		assertEquals(4, player.getMaxDamageCostByMana());
+		player.getPlayerHand().clear();
+		assertEquals(2, player.getSizeOfPlayerHand());
+		player.setMana(0);
+		assertEquals(-1, player.getMaxDamageCostByMana());
+		assertNull(player.getMaxDamageCardByMana());
+	}
+
 	/**
 	 * Tests that player has enough mana to play depending on his cards in hand
 	 * @DateModified 2018
@@ -0,0 +1,101 @@
+package com.yaser.deckbuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.yaser.CardHistogram;
+import com.yaser.Player;
+
+public class DeckOptimizerTest {
+	private static final int[] WEAK_DECK = { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2 };
+
+	/**
+	 * A deck is played once, then its fitness comes from the cache. The
+	 * reference deck wins exactly half of the games against itself, because
+	 * both seats play the same seeds.
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testFitnessIsCached() {
+		DeckOptimizer optimizer = new DeckOptimizer(Player.getDefaultDeckCosts());
+		optimizer.setSeed(1);
+		optimizer.setGamesPerSeat(500);
+		long reference = CardHistogram.of(Player.getDefaultDeckCosts());
+		assertEquals(0.5, optimizer.getFitness(reference), 0);
+		assertEquals(0.5, optimizer.getFitness(reference), 0);
+		assertEquals(1, optimizer.getEvaluations());
+		assertEquals(1, optimizer.getCacheHits());
+		double weak = optimizer.getFitness(CardHistogram.of(WEAK_DECK));
+		assertTrue(weak < 0.5);
+		assertEquals(2, optimizer.getEvaluations());
+	}
+
+	/**
+	 * Search finds a deck beating a weak reference deck without playing more
+	 * decks than the budget
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testBeatsWeakDeck() {
+		DeckOptimizer optimizer = new DeckOptimizer(WEAK_DECK);
+		optimizer.setSeed(2);
+		optimizer.setPopulationSize(12);
+		optimizer.setGamesPerSeat(200);
+		ScoredDeck best = optimizer.optimize(60, Long.MAX_VALUE / 2);
+		assertTrue(best.getFitness() > 0.5);
+		assertEquals(WEAK_DECK.length, best.getCosts().length);
+		assertTrue(optimizer.getEvaluations() <= 60);
+		assertTrue(optimizer.getGenerations() > 1);
+		assertEquals(best.getFitness(), optimizer.getFitness(best.getHistogram()), 0);
+	}
+
+	/**
+	 * Search stops after one generation when the time is over
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testTimeLimit() {
+		DeckOptimizer optimizer = new DeckOptimizer(Player.getDefaultDeckCosts());
+		optimizer.setSeed(3);
+		optimizer.setPopulationSize(4);
+		optimizer.setGamesPerSeat(50);
+		optimizer.optimize(Long.MAX_VALUE / 2, 0);
+		assertEquals(1, optimizer.getGenerations());
+		assertEquals(4, optimizer.getEvaluations());
+	}
+
+	/**
+	 * A budget of one deck plays the reference deck, which is then the best
+	 * deck found. Later searches find it in the cache and play one other
+	 * deck, so they find the reference deck or a better one.
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSmallestBudget() {
+		DeckOptimizer optimizer = new DeckOptimizer(Player.getDefaultDeckCosts());
+		optimizer.setSeed(4);
+		optimizer.setPopulationSize(4);
+		optimizer.setGamesPerSeat(50);
+		long reference = CardHistogram.of(Player.getDefaultDeckCosts());
+		ScoredDeck best = optimizer.optimize(1, Long.MAX_VALUE / 2);
+		assertEquals(reference, best.getHistogram());
+		assertEquals(0.5, best.getFitness(), 0);
+		assertEquals(1, optimizer.getEvaluations());
+		for (int search = 2; search <= 4; search++) {
+			best = optimizer.optimize(1, Long.MAX_VALUE / 2);
+			assertTrue(best.getFitness() >= 0.5);
+			assertEquals(search, optimizer.getEvaluations());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoBudget() {
+		new DeckOptimizer(Player.getDefaultDeckCosts()).optimize(0, Long.MAX_VALUE / 2);
+	}
+}
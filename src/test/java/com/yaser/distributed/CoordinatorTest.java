@@ -0,0 +1,111 @@
+package com.yaser.distributed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class CoordinatorTest {
+	private static final long MASTER_SEED = 77;
+
+	/**
+	 * A run on three worker JVMs gives the result of a run in this JVM
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameAsSingleProcess() throws IOException {
+		Coordinator coordinator = new Coordinator(MASTER_SEED);
+		coordinator.setWorkers(3);
+		coordinator.setRangeSize(2000);
+		SimulationResult result;
+		try (ProcessWorkerLauncher launcher = new ProcessWorkerLauncher(2)) {
+			coordinator.setWorkerLauncher(launcher);
+			result = coordinator.run(30000);
+			assertEquals(3, launcher.getProcesses().size());
+		}
+		assertEquals(singleProcessRun(30000), result);
+		assertEquals(0, coordinator.getReassignedRanges());
+	}
+
+	/**
+	 * The range of a worker which dies is played by another worker and the
+	 * result is still the same
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testRangeOfCrashedWorkerIsReassigned() throws IOException {
+		Coordinator coordinator = new Coordinator(MASTER_SEED);
+		coordinator.setWorkers(2);
+		coordinator.setRangeSize(1500);
+		AtomicInteger launched = new AtomicInteger();
+		SimulationResult result;
+		try (ProcessWorkerLauncher launcher = new ProcessWorkerLauncher(2)) {
+			coordinator.setWorkerLauncher(address -> {
+				if (launched.getAndIncrement() == 0) {
+					startCrashingWorker(address);
+				} else {
+					launcher.launch(address);
+				}
+			});
+			result = coordinator.run(12000);
+		}
+		assertEquals(singleProcessRun(12000), result);
+		assertTrue(coordinator.getReassignedRanges() >= 1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAllWorkersDie() throws IOException {
+		Coordinator coordinator = new Coordinator(MASTER_SEED);
+		coordinator.setWorkers(2);
+		coordinator.setRangeSize(100);
+		coordinator.setWorkerLauncher(CoordinatorTest::startCrashingWorker);
+		coordinator.run(1000);
+	}
+
+	private static SimulationResult singleProcessRun(long numberOfGames) {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			Simulator simulator = new Simulator(pool);
+			simulator.setMasterSeed(MASTER_SEED);
+			return simulator.run(numberOfGames);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Starts a worker in this JVM which takes a range and disconnects without
+	 * an answer
+	 */
+	private static void startCrashingWorker(InetSocketAddress coordinator) {
+		Thread worker = new Thread(() -> {
+			try (Socket socket = new Socket(coordinator.getAddress(), coordinator.getPort())) {
+				DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+				DataInputStream input = new DataInputStream(socket.getInputStream());
+				output.writeInt(Protocol.MAGIC);
+				output.writeByte(Protocol.VERSION);
+				output.flush();
+				// job, then the range
+				input.readFully(new byte[1 + 8 + 4]);
+				input.readFully(new byte[1 + 8 + 8]);
+			} catch (IOException e) {
+				// the worker dies anyway
+			}
+		}, "crashing-worker");
+		worker.setDaemon(true);
+		worker.start();
+	}
+}
@@ -0,0 +1,100 @@
+package com.yaser.flightrecorder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightEventTest {
+	private static final int GAMES = 50;
+
+	/**
+	 * A recording has one game event per game, one turn event per turn and
+	 * one special rule event per applied rule, with the values of the games
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testRecordedEvents() throws IOException {
+		Path file = Files.createTempFile("games", ".jfr");
+		int turns = 0;
+		int firstPlayerWins = 0;
+		int cardsPlayed = 0;
+		Map<String, Integer> rules = new HashMap<>();
+		try (Recording recording = new Recording()) {
+			recording.enable(GameFlightEvent.class);
+			recording.enable(TurnFlightEvent.class);
+			recording.enable(SpecialRuleFlightEvent.class);
+			recording.start();
+			for (int game = 0; game < GAMES; game++) {
+				Player first = new Player("Player 1");
+				Player second = new Player("Player 2");
+				GamePlay gamePlay = new GamePlay(first, second, GameRandom.gameSeed(6, game));
+				gamePlay.play();
+				turns += gamePlay.getTurnCount();
+				firstPlayerWins += gamePlay.getWinner() == first ? 1 : 0;
+				cardsPlayed += first.getPlayedCardCount() + second.getPlayedCardCount();
+				for (Player player : new Player[] { first, second }) {
+					rules.merge(SpecialRuleFlightEvent.BLEED_OUT, player.getBleedOutCount(), Integer::sum);
+					rules.merge(SpecialRuleFlightEvent.OVERLOAD, player.getOverloadCount(), Integer::sum);
+					rules.merge(SpecialRuleFlightEvent.DUD_CARD, player.getDudCardCount(), Integer::sum);
+				}
+			}
+			recording.stop();
+			recording.dump(file);
+		}
+		try {
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			int games = 0;
+			int recordedTurns = 0;
+			int recordedWins = 0;
+			int recordedCards = 0;
+			Map<String, Integer> recordedRules = new HashMap<>();
+			for (RecordedEvent event : events) {
+				switch (event.getEventType().getName()) {
+				case "com.yaser.Game":
+					games++;
+					recordedWins += "Player 1".equals(event.getString("winner")) ? 1 : 0;
+					assertEquals("Player 2", event.getString("secondPlayer"));
+					break;
+				case "com.yaser.Turn":
+					recordedTurns++;
+					int mana = event.getInt("manaRolled");
+					assertTrue(mana >= 1 && mana < Player.MAX_MANA_SLOTS);
+					assertTrue(event.getInt("damageDealt") <= mana);
+					recordedCards += event.getInt("cardsPlayed");
+					break;
+				case "com.yaser.SpecialRule":
+					recordedRules.merge(event.getString("rule"), 1, Integer::sum);
+					break;
+				default:
+					break;
+				}
+			}
+			assertEquals(GAMES, games);
+			assertEquals(turns, recordedTurns);
+			assertEquals(firstPlayerWins, recordedWins);
+			assertEquals(cardsPlayed, recordedCards);
+			for (Map.Entry<String, Integer> rule : rules.entrySet()) {
+				assertEquals(rule.getKey(), rule.getValue(), recordedRules.getOrDefault(rule.getKey(), 0));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
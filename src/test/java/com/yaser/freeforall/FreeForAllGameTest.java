@@ -0,0 +1,176 @@
+package com.yaser.freeforall;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.yaser.GameEventListener;
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+public class FreeForAllGameTest {
+
+	/**
+	 * A free-for-all game of two players plays exactly as a two player game
+	 * with the same seed
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testTwoPlayersPlayLikeGamePlay() {
+		for (long seed = 0; seed < 300; seed++) {
+			Player first = new Player("Player 1");
+			Player second = new Player("Player 2");
+			GamePlay game = new GamePlay(first, second, seed);
+			game.play();
+
+			List<Player> players = players(2);
+			FreeForAllGame freeForAll = new FreeForAllGame(players, seed);
+			Player winner = freeForAll.play();
+			assertEquals(game.getWinner().getName(), winner.getName());
+			assertEquals(game.getTurnCount(), freeForAll.getTurnCount());
+			assertEquals(first.getHealth(), players.get(0).getHealth());
+			assertEquals(second.getHealth(), players.get(1).getHealth());
+		}
+	}
+
+	/**
+	 * Every player but the winner is eliminated once, and every card hits the
+	 * opponent with the lowest health
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testLastPlayerWins() {
+		for (Targeting targeting : Targeting.values()) {
+			for (int numberOfPlayers : new int[] { 3, 8, 64 }) {
+				List<Player> players = players(numberOfPlayers);
+				TargetCheck check = new TargetCheck(players, targeting);
+				FreeForAllGame game = new FreeForAllGame(players, numberOfPlayers * 31L, check);
+				game.setTargeting(targeting);
+				Player winner = game.play();
+				assertEquals(1, game.getAliveCount());
+				assertTrue(winner.getHealth() >= 1);
+				int[] eliminated = game.getEliminatedSeats();
+				assertEquals(numberOfPlayers - 1, eliminated.length);
+				boolean[] out = new boolean[numberOfPlayers];
+				for (int seat : eliminated) {
+					assertTrue(!out[seat]);
+					out[seat] = true;
+					assertTrue(game.getPlayer(seat).getHealth() < 1);
+					assertTrue(game.getPlayer(seat) != winner);
+				}
+				assertTrue(check.cards > 0);
+			}
+		}
+	}
+
+	/**
+	 * Heap agrees with a linear scan after random key changes and removals
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testIndexedHeap() {
+		GameRandom random = new GameRandom(3);
+		int seats = 40;
+		IndexedHeap heap = new IndexedHeap(seats);
+		int[] keys = new int[seats];
+		boolean[] removed = new boolean[seats];
+		for (int seat = 0; seat < seats; seat++) {
+			keys[seat] = random.nextInt(30);
+			heap.add(seat, keys[seat]);
+		}
+		for (int step = 0; step < 2000 && heap.size() > 0; step++) {
+			int seat = random.nextInt(seats);
+			if (!removed[seat]) {
+				if (random.nextInt(20) == 0) {
+					heap.remove(seat);
+					removed[seat] = true;
+				} else {
+					keys[seat] = random.nextInt(30) - 5;
+					heap.update(seat, keys[seat]);
+				}
+			}
+			int except = random.nextInt(seats);
+			int expected = -1;
+			for (int other = 0; other < seats; other++) {
+				if (!removed[other] && other != except && (expected < 0 || keys[other] < keys[expected])) {
+					expected = other;
+				}
+			}
+			assertEquals(expected, heap.peekExcept(except));
+		}
+	}
+
+	@Test
+	public void testTurnRing() {
+		TurnRing ring = new TurnRing(5);
+		ring.remove(1);
+		ring.remove(4);
+		assertEquals(3, ring.size());
+		assertEquals(2, ring.next(0));
+		assertEquals(3, ring.next(2));
+		assertEquals(0, ring.next(3));
+		// removed seat still knows its next seat
+		assertEquals(0, ring.next(4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyPlayers() {
+		new FreeForAllGame(players(FreeForAllGame.MAX_PLAYERS + 1), 1);
+	}
+
+	private static List<Player> players(int numberOfPlayers) {
+		List<Player> players = new ArrayList<>(numberOfPlayers);
+		for (int seat = 0; seat < numberOfPlayers; seat++) {
+			players.add(new Player("Player " + (seat + 1)));
+		}
+		return players;
+	}
+
+	/**
+	 * Checks that every played card hits the opponent chosen by the targeting
+	 */
+	private static class TargetCheck implements GameEventListener {
+		private final List<Player> players;
+		private final Targeting targeting;
+		private Player attacker;
+		private int cards = 0;
+
+		TargetCheck(List<Player> players, Targeting targeting) {
+			this.players = players;
+			this.targeting = targeting;
+		}
+
+		@Override
+		public void cardPlayed(Player player, int cost) {
+			attacker = player;
+		}
+
+		@Override
+		public void damageReceived(Player player, int damage, int health) {
+			cards++;
+			if (targeting == Targeting.NEXT_PLAYER) {
+				return;
+			}
+			int healthBefore = health + damage;
+			for (Player other : players) {
+				if (other != attacker && other != player && other.getHealth() >= 1) {
+					if (targeting == Targeting.LOWEST_HEALTH) {
+						assertTrue(other.getHealth() > healthBefore
+								|| (other.getHealth() == healthBefore && players.indexOf(other) > players.indexOf(player)));
+					} else {
+						assertTrue(other.getHealth() < healthBefore
+								|| (other.getHealth() == healthBefore && players.indexOf(other) > players.indexOf(player)));
+					}
+				}
+			}
+		}
+	}
+}
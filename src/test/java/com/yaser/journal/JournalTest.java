@@ -0,0 +1,95 @@
+package com.yaser.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.yaser.GamePlay;
+import com.yaser.Player;
+import com.yaser.exceptions.JournalReplayException;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class JournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Every game of a parallel run is written and can be replayed. Small
+	 * segments make the writers move their mapped segment many times.
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testWriteAndReplayRun() throws IOException {
+		Path directory = folder.getRoot().toPath().resolve("run");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		SimulationResult result;
+		Journal journal = new Journal(directory, 4096);
+		try {
+			Simulator simulator = new Simulator(pool);
+			simulator.setMasterSeed(11);
+			simulator.setBatchSize(25);
+			simulator.setGameEventListenerFactory(journal::writer);
+			result = simulator.run(400);
+		} finally {
+			pool.shutdown();
+			journal.close();
+		}
+		JournalReplayer replayer = new JournalReplayer();
+		long games = 0;
+		long[] wins = new long[2];
+		long size = 0;
+		for (Path file : journal.getFiles()) {
+			size += Files.size(file);
+			try (JournalReader reader = new JournalReader(file)) {
+				for (JournalGame game = reader.next(); game != null; game = reader.next()) {
+					GamePlay replayed = replayer.replay(game);
+					Player winner = replayed.getWinner();
+					assertEquals("Player 1".equals(winner.getName()) ? 0 : 1, game.getWinnerSeat());
+					wins[game.getWinnerSeat()]++;
+					games++;
+				}
+			}
+		}
+		assertEquals(400, games);
+		assertEquals(result.getWins(0), wins[0]);
+		assertEquals(result.getWins(1), wins[1]);
+		assertEquals(journal.getSize(), size);
+		// a game is written in a few hundred bytes at most
+		assertTrue(size / games < 300);
+	}
+
+	/**
+	 * A journal event which is different from the replayed game is detected
+	 * 
+	 * @author yaser
+	 */
+	@Test(expected = JournalReplayException.class)
+	public void testChangedEventIsDetected() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("game.journal");
+		try (JournalWriter writer = new JournalWriter(file)) {
+			new GamePlay(new Player("Player 1"), new Player("Player 2"), 5L, writer).play();
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		// first event after the header and the game start : the first card drawn
+		int index = JournalFormat.HEADER_SIZE + JournalFormat.MAX_EVENT_SIZE;
+		bytes[index] = (byte) (bytes[index] ^ 0x1);
+		Files.write(file, bytes);
+		try (JournalReader reader = new JournalReader(file)) {
+			JournalGame game = reader.next();
+			assertNull(reader.next());
+			new JournalReplayer().replay(game);
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.yaser.mcts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.Card;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.MatchArena;
+
+public class MctsPlayerTest {
+	private static final int GAMES = 1000;
+	private static final int PLAYOUTS_PER_MOVE = 1000;
+	/**
+	 * Cards of 3 to 5 mana, so a turn often has more than one way to spend
+	 * its mana
+	 */
+	private static final int[] MID_COST_DECK = { 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 5, 5, 5, 5, 5, 3, 4, 5 };
+
+	/**
+	 * Greedy play spends 5 of 7 mana and leaves the opponent alive to kill
+	 * the player in its next turn, the search finds the two cards which kill
+	 * the opponent first
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testFindsLethalMove() {
+		MctsPlayer player = new MctsPlayer("Player 1");
+		player.setThreads(1);
+		player.setMaxPlayouts(2000);
+		player.setMoveTimeMillis(Long.MAX_VALUE);
+		player.setHealth(1);
+		Player opponent = new Player("Player 2");
+		opponent.setHealth(7);
+		opponent.setPlayerHand(Arrays.asList(new Card(1), new Card(1), new Card(1)));
+		player.setPlayerHand(Arrays.asList(new Card(5), new Card(4), new Card(3)));
+		player.setMana(7);
+		while (player.playNextCard(opponent)) {
+		}
+		assertEquals(0, opponent.getHealth());
+		assertEquals(1, player.getSizeOfPlayerHand());
+		assertEquals(1, player.getSearches());
+	}
+
+	/**
+	 * A search on one thread with a playout limit plays the same game for the
+	 * same seeds, and later searches start from the subtree of the previous one
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testReproducibleWithReusedSubtrees() {
+		int[] turns = new int[2];
+		long[] playouts = new long[2];
+		for (int run = 0; run < 2; run++) {
+			MctsPlayer player = limitedPlayer();
+			player.setSearchSeed(4);
+			MatchArena arena = new MatchArena(withDeck(player), withDeck(new Player("Player 2")));
+			for (int game = 0; game < 10; game++) {
+				turns[run] += arena.play(GameRandom.gameSeed(11, game)).getTurnCount();
+			}
+			playouts[run] = player.getPlayouts();
+			assertTrue(player.getReusedSearches() > 0);
+			assertTrue(player.getPlayouts() <= player.getSearches() * PLAYOUTS_PER_MOVE);
+		}
+		assertEquals(turns[0], turns[1]);
+		assertEquals(playouts[0], playouts[1]);
+	}
+
+	/**
+	 * Searches on several threads share one tree and stop at the playout
+	 * limit, which every searched move reaches exactly, or at the move time
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testParallelSearch() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			MctsPlayer limited = new MctsPlayer("Player 1", pool);
+			limited.setMaxPlayouts(PLAYOUTS_PER_MOVE);
+			limited.setMoveTimeMillis(Long.MAX_VALUE);
+			MatchArena arena = new MatchArena(limited, new Player("Player 2"));
+			for (int game = 0; game < 5; game++) {
+				assertTrue(arena.play(GameRandom.gameSeed(2, game)).getWinner() != null);
+			}
+			// a search with one legal move has no playout
+			assertTrue(limited.getPlayouts() > 0);
+			assertEquals(0, limited.getPlayouts() % PLAYOUTS_PER_MOVE);
+			assertTrue(limited.getPlayouts() <= limited.getSearches() * PLAYOUTS_PER_MOVE);
+
+			MctsPlayer timed = new MctsPlayer("Player 1", pool);
+			timed.setMoveTimeMillis(5);
+			arena = new MatchArena(timed, new Player("Player 2"));
+			for (int game = 0; game < 5; game++) {
+				assertTrue(arena.play(GameRandom.gameSeed(2, game)).getWinner() != null);
+			}
+			assertTrue(timed.getPlayouts() > timed.getSearches());
+			System.out.printf("MCTS on 4 threads : %d searches, %.0f playouts per second%n", timed.getSearches(),
+					timed.getPlayoutsPerSecond());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * With a deck where the cards played in a turn matter, the search player
+	 * wins more often than a greedy player from the same seat with the same
+	 * games, without seeing the hand of the opponent. The games which only
+	 * one of them wins are compared, the others do not depend on the player.
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testBeatsGreedy() {
+		MctsPlayer player = limitedPlayer();
+		player.setSearchSeed(5);
+		MatchArena search = new MatchArena(withDeck(player), withDeck(new Player("Player 2")));
+		MatchArena greedy = new MatchArena(withDeck(new Player("Player 1")), withDeck(new Player("Player 2")));
+		int searchWins = 0;
+		int greedyWins = 0;
+		int onlySearchWins = 0;
+		int onlyGreedyWins = 0;
+		for (int game = 0; game < GAMES; game++) {
+			long seed = GameRandom.gameSeed(3, game);
+			boolean searchWon = search.play(seed).getWinner() == player;
+			boolean greedyWon = greedy.play(seed).getWinner() == greedy.getFirstPlayer();
+			searchWins += searchWon ? 1 : 0;
+			greedyWins += greedyWon ? 1 : 0;
+			onlySearchWins += searchWon && !greedyWon ? 1 : 0;
+			onlyGreedyWins += greedyWon && !searchWon ? 1 : 0;
+		}
+		System.out.printf("MCTS against greedy : %.3f win rate, greedy against greedy : %.3f, "
+				+ "%d games won only by MCTS, %d only by greedy, %.0f playouts per second%n",
+				(double) searchWins / GAMES, (double) greedyWins / GAMES, onlySearchWins, onlyGreedyWins,
+				player.getPlayoutsPerSecond());
+		assertTrue(onlySearchWins > 2 * onlyGreedyWins);
+	}
+
+	private static Player withDeck(Player player) {
+		player.getDeck().setCards(MID_COST_DECK);
+		return player;
+	}
+
+	private static MctsPlayer limitedPlayer() {
+		MctsPlayer player = new MctsPlayer("Player 1");
+		player.setThreads(1);
+		player.setMaxPlayouts(PLAYOUTS_PER_MOVE);
+		player.setMoveTimeMillis(Long.MAX_VALUE);
+		return player;
+	}
+}
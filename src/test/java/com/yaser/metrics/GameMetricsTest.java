@@ -0,0 +1,129 @@
+package com.yaser.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Test;
+
+import com.yaser.Card;
+import com.yaser.CardHistogram;
+import com.yaser.GamePlay;
+import com.yaser.Player;
+import com.yaser.exceptions.InsufficientManaException;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class GameMetricsTest {
+
+	/**
+	 * Counters of simulated games are the same as the simulation result and
+	 * every turn records both phases
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testCountersOfSimulation() {
+		GameMetrics metrics = new GameMetrics();
+		Simulator simulator = new Simulator();
+		simulator.setMasterSeed(10);
+		simulator.setMetrics(metrics);
+		SimulationResult result = simulator.run(2000);
+		assertEquals(2000, metrics.getGames());
+		assertEquals(result.getTurns(), metrics.getTurns());
+		assertEquals(result.getBleedOuts(), metrics.getBleedOuts());
+		assertEquals(result.getOverloads(), metrics.getOverloads());
+		assertTrue(metrics.getPlayedCards() > metrics.getDudCards());
+		assertTrue(metrics.getDudCards() > 0);
+		assertEquals(0, metrics.getInsufficientManaExceptions());
+		assertEquals(2000, metrics.getGameLatency().getCount());
+		assertEquals(result.getTurns(), metrics.getBeginTurnLatency().getCount());
+		assertEquals(result.getTurns(), metrics.getPlayTurnLatency().getCount());
+		LatencySnapshot games = metrics.getGameLatency();
+		assertTrue(games.getP50Nanos() <= games.getP99Nanos());
+		assertTrue(games.getP99Nanos() <= games.getMaxNanos());
+		metrics.reset();
+		assertEquals(0, metrics.getGames());
+		assertEquals(0, metrics.getGameLatency().getCount());
+	}
+
+	/**
+	 * A card which can not be paid is counted and the exception is not
+	 * swallowed
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testInsufficientMana() {
+		GameMetrics metrics = new GameMetrics();
+		Player player = new Player("Player 1");
+		player.setStrategy((hand, mana, health, opponentHealth) -> CardHistogram.highestAffordable(
+				CardHistogram.mask(hand), CardHistogram.MAX_COST));
+		GamePlay game = new GamePlay(player, new Player("Player 2"));
+		game.setMetrics(metrics);
+		player.setPlayerHand(Arrays.asList(new Card(5)));
+		player.setMana(0);
+		try {
+			game.playTurn();
+			fail("Card is played without enough mana");
+		} catch (InsufficientManaException e) {
+			assertEquals(1, metrics.getInsufficientManaExceptions());
+		}
+	}
+
+	/**
+	 * Registered metrics can be read from the platform MBean server
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testPlatformMBean() throws Exception {
+		GameMetrics metrics = new GameMetrics();
+		GameMetrics.unregister();
+		ObjectName name = metrics.register();
+		try {
+			GamePlay game = new GamePlay(new Player("Player 1"), new Player("Player 2"), 5);
+			game.setMetrics(metrics);
+			game.play();
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(1L, server.getAttribute(name, "Games"));
+			assertEquals((long) game.getTurnCount(), server.getAttribute(name, "Turns"));
+			CompositeData latency = (CompositeData) server.getAttribute(name, "PlayTurnLatency");
+			assertEquals((long) game.getTurnCount(), latency.get("count"));
+			server.invoke(name, "reset", null, null);
+			assertEquals(0L, server.getAttribute(name, "Games"));
+		} finally {
+			GameMetrics.unregister();
+		}
+	}
+
+	/**
+	 * Percentiles are within the precision of the buckets
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testHistogramPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 100000; nanos++) {
+			histogram.record(nanos);
+		}
+		assertEquals(100000, histogram.getCount());
+		assertEquals(100000, histogram.getMaxNanos());
+		assertEquals(50000, histogram.getPercentileNanos(0.5), 50000 / 8.0);
+		assertEquals(99000, histogram.getPercentileNanos(0.99), 99000 / 8.0);
+		assertEquals(100000, histogram.getPercentileNanos(1));
+		for (long nanos = 0; nanos < 1 << 20; nanos = nanos * 3 + 1) {
+			int bucket = LatencyHistogram.bucket(nanos);
+			assertTrue(nanos <= LatencyHistogram.upperBound(bucket));
+			assertTrue(bucket == 0 || nanos > LatencyHistogram.upperBound(bucket - 1));
+		}
+	}
+}
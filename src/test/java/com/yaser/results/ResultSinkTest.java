@@ -0,0 +1,190 @@
+package com.yaser.results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.yaser.GamePlay;
+import com.yaser.Player;
+import com.yaser.exceptions.ResultFormatException;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class ResultSinkTest {
+	private static final int GAMES = 5000;
+	private static final int THREADS = 4;
+	private static final int BLOCK_SIZE = 64;
+	private static final int QUEUE_CAPACITY = 2;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Every game of a parallel run is written and read back with the values
+	 * of the game. Small blocks and a short queue make the threads wait for
+	 * the writer, and blocks are reused instead of created for every block of
+	 * games.
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testWriteAndReadRun() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("run.results");
+		ForkJoinPool pool = new ForkJoinPool(THREADS);
+		SimulationResult result;
+		ResultSink sink = new ResultSink(file, BLOCK_SIZE, QUEUE_CAPACITY);
+		try {
+			Simulator simulator = new Simulator(pool);
+			simulator.setMasterSeed(5);
+			simulator.setBatchSize(25);
+			simulator.setGameEventListenerFactory(sink::recorder);
+			result = simulator.run(GAMES);
+		} finally {
+			pool.shutdown();
+			sink.close();
+		}
+		assertEquals(GAMES, sink.getGames());
+		assertEquals(Files.size(file), sink.getSize());
+		assertTrue(sink.getBlockCount() < GAMES / BLOCK_SIZE / 2);
+
+		long[] wins = new long[2];
+		long games = 0;
+		long turns = 0;
+		long bleedOuts = 0;
+		long overloads = 0;
+		try (ResultReader reader = new ResultReader(file)) {
+			while (reader.next()) {
+				games++;
+				wins[reader.getWinnerSeat()]++;
+				turns += reader.getTurnCount();
+				bleedOuts += reader.getBleedOutCount(0) + reader.getBleedOutCount(1);
+				overloads += reader.getOverloadCount(0) + reader.getOverloadCount(1);
+				if (games % 97 == 0) {
+					assertSameGame(reader);
+				}
+			}
+			assertFalse(reader.next());
+		}
+		assertEquals(result.getGames(), games);
+		assertEquals(result.getWins(0), wins[0]);
+		assertEquals(result.getWins(1), wins[1]);
+		assertEquals(result.getTurns(), turns);
+		assertEquals(result.getBleedOuts(), bleedOuts);
+		assertEquals(result.getOverloads(), overloads);
+	}
+
+	/**
+	 * Games recorded by hand are written when the sink is closed, even if the
+	 * block is not full
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testRecordAndClose() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("games.results");
+		try (ResultSink sink = new ResultSink(file)) {
+			for (long seed = 0; seed < 3; seed++) {
+				Player first = new Player("Player 1");
+				GamePlay game = new GamePlay(first, new Player("Player 2"), seed);
+				game.play();
+				sink.record(game, first);
+			}
+		}
+		try (ResultReader reader = new ResultReader(file)) {
+			for (long seed = 0; seed < 3; seed++) {
+				assertTrue(reader.next());
+				assertEquals(seed, reader.getSeed());
+				assertSameGame(reader);
+			}
+			assertFalse(reader.next());
+		}
+	}
+
+	/**
+	 * Closing submits the partly filled block of every recording thread into
+	 * a queue of one block, so the queue is full when the end of it is put;
+	 * close waits for the writer and every game is written
+	 *
+	 * @author yaser
+	 */
+	@Test(timeout = 10000)
+	public void testCloseWithFullQueue() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("full.results");
+		int recordingThreads = 32;
+		ResultSink sink = new ResultSink(file, BLOCK_SIZE, 1);
+		Thread[] threads = new Thread[recordingThreads];
+		for (int i = 0; i < recordingThreads; i++) {
+			long seed = i;
+			threads[i] = new Thread(() -> {
+				Player first = new Player("Player 1");
+				GamePlay game = new GamePlay(first, new Player("Player 2"), seed);
+				game.play();
+				sink.record(game, first);
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		sink.close();
+		assertEquals(recordingThreads, sink.getGames());
+		assertEquals(Files.size(file), sink.getSize());
+		boolean[] seen = new boolean[recordingThreads];
+		try (ResultReader reader = new ResultReader(file)) {
+			while (reader.next()) {
+				assertFalse(seen[(int) reader.getSeed()]);
+				seen[(int) reader.getSeed()] = true;
+				assertSameGame(reader);
+			}
+		}
+		for (boolean game : seen) {
+			assertTrue(game);
+		}
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("empty.results");
+		new ResultSink(file).close();
+		assertEquals(ResultFormat.HEADER_SIZE, Files.size(file));
+		try (ResultReader reader = new ResultReader(file)) {
+			assertFalse(reader.next());
+		}
+	}
+
+	@Test(expected = ResultFormatException.class)
+	public void testNotAResultFile() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("other.results");
+		Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+		new ResultReader(file).close();
+	}
+
+	/**
+	 * Plays the game of the current result again and compares it
+	 */
+	private static void assertSameGame(ResultReader reader) {
+		Player first = new Player("Player 1");
+		Player second = new Player("Player 2");
+		GamePlay game = new GamePlay(first, second, reader.getSeed());
+		game.play();
+		assertEquals(game.getWinner() == first ? 0 : 1, reader.getWinnerSeat());
+		assertEquals(game.getTurnCount(), reader.getTurnCount());
+		assertEquals(first.getHealth(), reader.getHealth(0));
+		assertEquals(second.getHealth(), reader.getHealth(1));
+		assertEquals(first.getBleedOutCount(), reader.getBleedOutCount(0));
+		assertEquals(second.getBleedOutCount(), reader.getBleedOutCount(1));
+		assertEquals(first.getOverloadCount(), reader.getOverloadCount(0));
+		assertEquals(second.getOverloadCount(), reader.getOverloadCount(1));
+		assertEquals(first.getDudCardCount(), reader.getDudCardCount(0));
+		assertEquals(second.getDudCardCount(), reader.getDudCardCount(1));
+	}
+}
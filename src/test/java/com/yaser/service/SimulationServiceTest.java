@@ -0,0 +1,200 @@
+package com.yaser.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.yaser.Player;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class SimulationServiceTest {
+	private static final int[] FIRST_DECK = { 0, 1, 1, 2, 2, 3, 3, 3, 4, 4, 5, 6, 7, 8 };
+	private static final int[] SECOND_DECK = { 2, 2, 3, 3, 3, 3, 4, 4, 4, 5, 5, 6 };
+
+	private SimulationService service;
+
+	@After
+	public void close() {
+		if (service != null) {
+			service.close();
+		}
+	}
+
+	private InetSocketAddress start(int workers, int queueCapacity) throws IOException {
+		service = new SimulationService();
+		service.setWorkers(workers);
+		service.setQueueCapacity(queueCapacity);
+		return service.start(0);
+	}
+
+	/**
+	 * A job is the simulator run with the same decks and master seed
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameResultAsSimulator() throws Exception {
+		start(2, 4);
+		SimulationResult served = service.submit(new SimulationRequest(FIRST_DECK, SECOND_DECK, 2000, 17)).get();
+
+		Simulator simulator = new Simulator(ForkJoinPool.commonPool(), () -> {
+			Player player = new Player("Player 1");
+			player.getDeck().setCards(FIRST_DECK);
+			return player;
+		}, () -> {
+			Player player = new Player("Player 2");
+			player.getDeck().setCards(SECOND_DECK);
+			return player;
+		});
+		simulator.setMasterSeed(17);
+		assertEquals(simulator.run(2000), served);
+	}
+
+	/**
+	 * A repeated query, also with the cards in another order, is answered from
+	 * the cache
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testRepeatedQueryIsCached() throws IOException {
+		InetSocketAddress address = start(2, 4);
+		String first = get(address, "/simulate?a=3,1,2,0&b=2,2,4&games=500&seed=3");
+		assertTrue(first, first.contains("\"games\":500"));
+		assertTrue(first, first.contains("\"cached\":false"));
+		String second = get(address, "/simulate?seed=3&games=500&b=4,2,2&a=0,1,2,3");
+		assertTrue(second, second.contains("\"cached\":true"));
+		assertEquals(first.substring(0, first.indexOf("\"cached\"")), second.substring(0, second.indexOf("\"cached\"")));
+		assertEquals(1, service.getCache().getHits());
+		assertEquals(1, service.getCache().getMisses());
+		String stats = get(address, "/stats");
+		assertTrue(stats, stats.contains("\"hitRate\":0.5"));
+		assertTrue(stats, stats.contains("\"queueDepth\":0"));
+	}
+
+	/**
+	 * Concurrent clients asking a few distinct queries start one job per
+	 * distinct query
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testConcurrentClients() throws Exception {
+		InetSocketAddress address = start(4, 16);
+		int clients = 8;
+		int requests = 40;
+		int distinct = 5;
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<String>> responses = new ArrayList<>();
+			for (int request = 0; request < requests; request++) {
+				String path = "/simulate?games=3000&seed=" + request % distinct;
+				responses.add(pool.submit(() -> get(address, path)));
+			}
+			for (Future<String> response : responses) {
+				assertTrue(response.get().contains("\"games\":3000"));
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(distinct, service.getCache().getMisses());
+		assertEquals(requests - distinct, service.getCache().getHits());
+		assertEquals(distinct, service.getCache().size());
+	}
+
+	/**
+	 * Jobs which do not fit in the queue fail with a rejection, are answered
+	 * with 503 and are not cached
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testFullQueueIsRejected() throws Exception {
+		InetSocketAddress address = start(1, 1);
+		service.submit(new SimulationRequest(FIRST_DECK, SECOND_DECK, 5_000_000, 1));
+		service.submit(new SimulationRequest(FIRST_DECK, SECOND_DECK, 5_000_000, 2));
+		assertEquals(1, service.getQueueDepth());
+		assertEquals(503, status(address, "/simulate?games=5000000&seed=3"));
+		assertEquals(1, service.getRejectedJobs());
+		CompletableFuture<SimulationResult> rejected = service
+				.submit(new SimulationRequest(FIRST_DECK, SECOND_DECK, 5_000_000, 4));
+		assertTrue(rejected.isCompletedExceptionally());
+		try {
+			rejected.get();
+			fail("Rejected job has a result");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+		assertEquals(2, service.getRejectedJobs());
+		assertEquals(2, service.getCache().size());
+	}
+
+	/**
+	 * Bad queries are answered with 400, unknown paths with 404
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testBadRequests() throws IOException {
+		InetSocketAddress address = start(1, 1);
+		assertEquals(400, status(address, "/simulate?seed=1"));
+		assertEquals(400, status(address, "/simulate?games=ten"));
+		assertEquals(400, status(address, "/simulate?games=10&a=1,16"));
+		assertEquals(400, status(address, "/simulate?games=10&c=1"));
+		assertEquals(400, status(address, "/simulate?games=" + (SimulationService.DEFAULT_MAX_GAMES + 1)));
+		assertEquals(404, status(address, "/play"));
+		assertEquals(0, service.getCache().size());
+	}
+
+	private static HttpURLConnection open(InetSocketAddress address, String path) throws IOException {
+		URL url = new URL("http", address.getHostString(), address.getPort(), path);
+		return (HttpURLConnection) url.openConnection();
+	}
+
+	private static int status(InetSocketAddress address, String path) throws IOException {
+		HttpURLConnection connection = open(address, path);
+		try {
+			return connection.getResponseCode();
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private static String get(InetSocketAddress address, String path) throws IOException {
+		HttpURLConnection connection = open(address, path);
+		try {
+			assertEquals(200, connection.getResponseCode());
+			try (InputStream input = connection.getInputStream()) {
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				for (int read; (read = input.read(buffer)) > 0;) {
+					body.write(buffer, 0, read);
+				}
+				return new String(body.toByteArray(), StandardCharsets.UTF_8);
+			}
+		} finally {
+			connection.disconnect();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.yaser.simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.yaser.GameEventListener;
+import com.yaser.exceptions.CheckpointException;
+
+public class CheckpointedRunTest {
+	private static final long MASTER_SEED = 23;
+	private static final int GAMES = 4000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * A run which dies halfway and is resumed from its checkpoint gives the
+	 * result of a run which is never stopped
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testResumeGivesSameResult() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("run.checkpoint");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Simulator uninterrupted = new Simulator(pool);
+			uninterrupted.setMasterSeed(MASTER_SEED);
+			SimulationResult expected = uninterrupted.run(GAMES);
+
+			AtomicInteger startedGames = new AtomicInteger();
+			Simulator dying = new Simulator(pool);
+			dying.setGameEventListenerFactory(() -> {
+				if (startedGames.incrementAndGet() > GAMES / 2) {
+					throw new IllegalStateException("Worker died");
+				}
+				return GameEventListener.NO_OP;
+			});
+			dying.setMasterSeed(MASTER_SEED);
+			dying.setBatchSize(10);
+			CheckpointedRun first = new CheckpointedRun(dying, file);
+			first.setChunkSize(100);
+			first.setCheckpointIntervalMillis(0);
+			try {
+				first.run(GAMES);
+				fail("Run should die");
+			} catch (IllegalStateException e) {
+				assertEquals("Worker died", e.getMessage());
+			}
+			assertTrue(first.getCheckpointCount() > 1);
+			Checkpoint checkpoint = Checkpoint.read(file);
+			assertTrue(checkpoint.getResult().getGames() > 0);
+			assertTrue(checkpoint.getResult().getGames() <= GAMES / 2);
+			assertTrue(!checkpoint.isComplete());
+
+			Simulator restarted = new Simulator(pool);
+			restarted.setMasterSeed(MASTER_SEED);
+			CheckpointedRun resumed = new CheckpointedRun(restarted, file);
+			resumed.setChunkSize(300);
+			SimulationResult result = resumed.run(GAMES);
+			assertEquals(checkpoint.getResult().getGames(), resumed.getResumedGames());
+			assertEquals(expected, result);
+			assertTrue(Checkpoint.read(file).isComplete());
+			assertArrayEquals(new long[] { 0, GAMES }, Checkpoint.read(file).getCompletedRanges());
+
+			// a complete checkpoint plays no game
+			assertEquals(expected, new CheckpointedRun(restarted, file).run(GAMES));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * A checkpoint is written and read back as it is
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testWriteAndRead() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("written.checkpoint");
+		SimulationResult result = new SimulationResult();
+		result.record(0, 12, 1, 2);
+		result.record(1, 15, 0, 3);
+		result.record(1, 9, 0, 0);
+		new Checkpoint(3, 100, new long[] { 0, 1, 40, 42 }, result).write(file);
+		Checkpoint checkpoint = Checkpoint.read(file);
+		assertEquals(3, checkpoint.getMasterSeed());
+		assertEquals(100, checkpoint.getNumberOfGames());
+		assertArrayEquals(new long[] { 0, 1, 40, 42 }, checkpoint.getCompletedRanges());
+		assertEquals(result, checkpoint.getResult());
+		assertTrue(!Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+	}
+
+	@Test(expected = CheckpointException.class)
+	public void testCorruptedCheckpoint() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("corrupted.checkpoint");
+		new Checkpoint(3, 100, new long[0], new SimulationResult()).write(file);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[10] ^= 1;
+		Files.write(file, bytes);
+		Checkpoint.read(file);
+	}
+
+	@Test(expected = CheckpointException.class)
+	public void testCheckpointOfAnotherRun() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("other.checkpoint");
+		new Checkpoint(3, 100, new long[0], new SimulationResult()).write(file);
+		Simulator simulator = new Simulator();
+		simulator.setMasterSeed(4);
+		new CheckpointedRun(simulator, file).run(100);
+	}
+}
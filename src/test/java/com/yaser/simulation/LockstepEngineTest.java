@@ -0,0 +1,94 @@
+package com.yaser.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+
+public class LockstepEngineTest {
+	private static final int GAMES = 20000;
+	private static final int MAX_TURNS = 128;
+
+	/**
+	 * With the same master seed the engine plays exactly the games of the
+	 * simulator
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameGamesAsSimulator() {
+		Simulator simulator = new Simulator();
+		simulator.setMasterSeed(2018);
+		assertEquals(simulator.run(3000), new LockstepEngine(256).run(2018, 3000));
+	}
+
+	/**
+	 * Game by game, winner, length and final health are the same as
+	 * {@link GamePlay}
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameGameStates() {
+		LockstepEngine engine = new LockstepEngine(100);
+		engine.start(99, 0, 100);
+		engine.playAll();
+		for (int game = 0; game < 100; game++) {
+			Player first = new Player("Player 1");
+			Player second = new Player("Player 2");
+			GamePlay gamePlay = new GamePlay(first, second, GameRandom.gameSeed(99, game));
+			gamePlay.play();
+			assertEquals(gamePlay.getWinner() == first ? 0 : 1, engine.getWinnerSeat(game));
+			assertEquals(gamePlay.getTurnCount(), engine.getTurnCount(game));
+			assertEquals(first.getHealth(), engine.getHealth(game, 0));
+			assertEquals(second.getHealth(), engine.getHealth(game, 1));
+		}
+	}
+
+	/**
+	 * Independent samples of both engines have the same outcome distribution :
+	 * win rate of the first seat and distribution of game length (two sample
+	 * Kolmogorov-Smirnov test at 0.1% significance)
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameOutcomeDistribution() {
+		long[] gamePlayLengths = new long[MAX_TURNS];
+		long gamePlayWins = 0;
+		for (int game = 0; game < GAMES; game++) {
+			Player first = new Player("Player 1");
+			GamePlay gamePlay = new GamePlay(first, new Player("Player 2"), GameRandom.gameSeed(1, game));
+			gamePlay.play();
+			gamePlayLengths[gamePlay.getTurnCount()]++;
+			gamePlayWins += gamePlay.getWinner() == first ? 1 : 0;
+		}
+		long[] engineLengths = new long[MAX_TURNS];
+		long engineWins = 0;
+		LockstepEngine engine = new LockstepEngine(GAMES);
+		engine.start(2, 0, GAMES);
+		engine.playAll();
+		for (int game = 0; game < GAMES; game++) {
+			engineLengths[engine.getTurnCount(game)]++;
+			engineWins += engine.getWinnerSeat(game) == 0 ? 1 : 0;
+		}
+		// win rates within 4 standard errors of their difference
+		double p = (gamePlayWins + engineWins) / (2.0 * GAMES);
+		double standardError = Math.sqrt(2 * p * (1 - p) / GAMES);
+		assertTrue(Math.abs(gamePlayWins - engineWins) / (double) GAMES < 4 * standardError);
+		// Kolmogorov-Smirnov distance of game lengths
+		double distance = 0;
+		long gamePlayCumulative = 0;
+		long engineCumulative = 0;
+		for (int turns = 0; turns < MAX_TURNS; turns++) {
+			gamePlayCumulative += gamePlayLengths[turns];
+			engineCumulative += engineLengths[turns];
+			distance = Math.max(distance, Math.abs(gamePlayCumulative - engineCumulative) / (double) GAMES);
+		}
+		assertTrue("Kolmogorov-Smirnov distance " + distance, distance < 1.95 * Math.sqrt(2.0 / GAMES));
+	}
+}
@@ -0,0 +1,88 @@
+package com.yaser.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.strategy.OptimalSpendStrategy;
+
+public class MatchArenaTest {
+	private static final int[] DECK = { 0, 1, 1, 2, 3, 3, 5, 6, 8, 8, 9 };
+
+	/**
+	 * Games played back to back in one arena are the games of new players and
+	 * a new {@link GamePlay} with the same seeds
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameGamesAsNewGamePlay() {
+		MatchArena arena = new MatchArena(player("Player 1"), player("Player 2"));
+		for (long seed = 0; seed < 500; seed++) {
+			GamePlay game = arena.play(GameRandom.gameSeed(3, seed));
+			Player first = player("Player 1");
+			Player second = player("Player 2");
+			GamePlay expected = new GamePlay(first, second, GameRandom.gameSeed(3, seed));
+			expected.play();
+			assertEquals(expected.getWinner().getName(), game.getWinner().getName());
+			assertEquals(expected.getTurnCount(), game.getTurnCount());
+			assertEquals(first.getHealth(), arena.getFirstPlayer().getHealth());
+			assertEquals(second.getHealth(), arena.getSecondPlayer().getHealth());
+			assertEquals(first.getDeckHistogram(), arena.getFirstPlayer().getDeckHistogram());
+			assertEquals(second.getHandHistogram(), arena.getSecondPlayer().getHandHistogram());
+			assertEquals(first.getBleedOutCount(), arena.getFirstPlayer().getBleedOutCount());
+			assertEquals(second.getOverloadCount(), arena.getSecondPlayer().getOverloadCount());
+			assertEquals(first.getPlayedCardCount(), arena.getFirstPlayer().getPlayedCardCount());
+			assertEquals(second.getDudCardCount(), arena.getSecondPlayer().getDudCardCount());
+		}
+	}
+
+	/**
+	 * After warm up a game in an arena allocates no memory
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testNoAllocationPerGame() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long thread = Thread.currentThread().getId();
+		MatchArena arena = new MatchArena();
+		SimulationResult result = new SimulationResult();
+		int games = 100000;
+		for (int game = 0; game < games; game++) {
+			result.record(arena.play(game), arena.getFirstPlayer());
+		}
+		long before = threads.getThreadAllocatedBytes(thread);
+		for (int game = 0; game < games; game++) {
+			result.record(arena.play(games + game), arena.getFirstPlayer());
+		}
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		// a game would take more than 100 bytes, the probe itself takes a few
+		assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+		assertEquals(2 * games, result.getGames());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSamePlayerTwice() {
+		Player player = new Player();
+		new MatchArena(player, player);
+	}
+
+	private static Player player(String name) {
+		Player player = new Player(name);
+		player.setStrategy(OptimalSpendStrategy.INSTANCE);
+		player.getDeck().setCards(DECK);
+		return player;
+	}
+}
@@ -0,0 +1,106 @@
+package com.yaser.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.GamePlay;
+
+public class SimulatorTest {
+
+	/**
+	 * Every played game should be recorded with exactly one winner
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testAllGamesAreRecorded() {
+		Simulator simulator = new Simulator();
+		simulator.setBatchSize(16);
+		SimulationResult result = simulator.run(500);
+		assertEquals(500, result.getGames());
+		assertEquals(500, result.getWins(0) + result.getWins(1));
+		assertEquals(1.0, result.getWinRate(0) + result.getWinRate(1), 1e-9);
+		assertTrue(result.getMeanGameLength() > 0);
+	}
+
+	/**
+	 * Tests the simulator on a dedicated pool
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testRunOnCustomPool() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			SimulationResult result = new Simulator(pool).run(300);
+			assertEquals(300, result.getGames());
+			// a game is at least one turn of each player
+			assertTrue(result.getTurns() >= 2 * 300);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests an empty batch
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testEmptyBatch() {
+		SimulationResult result = new Simulator().run(0);
+		assertEquals(0, result.getGames());
+		assertEquals(0, result.getWinRate(0), 0);
+	}
+
+	/**
+	 * A run with the same master seed gives the same result whatever the
+	 * number of threads and the batch size are
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameMasterSeedSameResult() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool parallel = new ForkJoinPool(4);
+		try {
+			Simulator sequential = new Simulator(single);
+			sequential.setMasterSeed(42);
+			sequential.setBatchSize(1000);
+			Simulator split = new Simulator(parallel);
+			split.setMasterSeed(42);
+			split.setBatchSize(7);
+			assertEquals(sequential.run(1000), split.run(1000));
+		} finally {
+			single.shutdown();
+			parallel.shutdown();
+		}
+	}
+
+	/**
+	 * Replaying a game of a run plays exactly the same game
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testReplayGame() {
+		Simulator simulator = new Simulator();
+		simulator.setMasterSeed(7);
+		SimulationResult played = simulator.run(50);
+		SimulationResult replayed = new SimulationResult();
+		for (long gameIndex = 0; gameIndex < 50; gameIndex++) {
+			GamePlay game = simulator.replayGame(gameIndex, null);
+			GamePlay again = simulator.replayGame(gameIndex, null);
+			assertEquals(game.getTurnCount(), again.getTurnCount());
+			assertEquals(game.getWinner().getName(), again.getWinner().getName());
+			assertEquals(game.getWinner().getHealth(), again.getWinner().getHealth());
+			replayed.record(game, "Player 1".equals(game.getCurrentPlayer().getName()) ? game.getCurrentPlayer()
+					: game.getOpponentPlayer());
+		}
+		assertEquals(played, replayed);
+	}
+}
@@ -0,0 +1,100 @@
+package com.yaser.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.CardHistogram;
+import com.yaser.Player;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+import com.yaser.strategy.GreedyStrategy;
+
+public class WinProbabilitySolverTest {
+	private static final int HEALTH = 8;
+	private static final int[] DECK = { 0, 1, 1, 2, 3, 3, 4, 5 };
+
+	/**
+	 * Both players have empty decks. The first player bleeds to 1 and kills
+	 * with the 3 card if mana is at least 3, otherwise the opponent bleeds to
+	 * 2 and kills with the 2 card if mana is at least 2, otherwise the first
+	 * player bleeds out.
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testEndOfGame() {
+		WinProbabilitySolver solver = new WinProbabilitySolver(Player.DEFAULT_HEALTH,
+				Player.getDefaultDeckCosts());
+		long state = solver.state(0, 2, CardHistogram.of(3), CardHistogram.EMPTY, 3, CardHistogram.of(2),
+				CardHistogram.EMPTY);
+		assertEquals(7.0 / 9, solver.winProbability(state), 1e-12);
+		// second player moves and bleeds out at health 1
+		long bleeding = solver.state(1, 5, CardHistogram.EMPTY, CardHistogram.EMPTY, 1, CardHistogram.of(8),
+				CardHistogram.EMPTY);
+		assertEquals(1, solver.winProbability(bleeding), 0);
+	}
+
+	/**
+	 * Packed states keep the values they are created with
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testStateEncoding() {
+		WinProbabilitySolver solver = new WinProbabilitySolver();
+		long firstHand = CardHistogram.of(0, 3, 3, 8);
+		long firstDeck = CardHistogram.of(0, 1, 1, 2, 2, 2, 4, 5, 6, 6, 7);
+		long secondHand = CardHistogram.of(4, 4, 4, 5, 5, 6);
+		long secondDeck = CardHistogram.of(3, 3, 3, 3, 8, 7);
+		long state = solver.state(1, 30, firstHand, firstDeck, 17, secondHand, secondDeck);
+		assertEquals(1, solver.getSeatToMove(state));
+		assertEquals(30, solver.getHealth(state, 0));
+		assertEquals(17, solver.getHealth(state, 1));
+		assertEquals(firstHand, solver.getHand(state, 0));
+		assertEquals(firstDeck, solver.getDeck(state, 0));
+		assertEquals(secondHand, solver.getHand(state, 1));
+		assertEquals(secondDeck, solver.getDeck(state, 1));
+	}
+
+	/**
+	 * Solved win probability of a short game is within 4 standard errors of
+	 * the win rate of simulated games, whatever the number of threads is
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameAsSimulation() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool parallel = new ForkJoinPool(4);
+		try {
+			double sequential = new WinProbabilitySolver(single, HEALTH, DECK, GreedyStrategy.INSTANCE,
+					GreedyStrategy.INSTANCE, 0).solve();
+			WinProbabilitySolver solver = new WinProbabilitySolver(parallel, HEALTH, DECK,
+					GreedyStrategy.INSTANCE, GreedyStrategy.INSTANCE, 0);
+			double win = solver.solve();
+			assertEquals(sequential, win, 1e-12);
+			assertTrue(solver.getSolvedStates() > 0);
+
+			Simulator simulator = new Simulator(parallel, () -> shortGamePlayer("Player 1"),
+					() -> shortGamePlayer("Player 2"));
+			simulator.setMasterSeed(9);
+			SimulationResult result = simulator.run(200000);
+			double standardError = Math.sqrt(win * (1 - win) / result.getGames());
+			assertEquals(win, result.getWinRate(0), 4 * standardError);
+		} finally {
+			single.shutdown();
+			parallel.shutdown();
+		}
+	}
+
+	private static Player shortGamePlayer(String name) {
+		Player player = new Player(name);
+		player.setHealth(HEALTH);
+		player.setPlayerDeck(Player.createDeck(DECK));
+		return player;
+	}
+}
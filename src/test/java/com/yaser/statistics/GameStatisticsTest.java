@@ -0,0 +1,141 @@
+package com.yaser.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class GameStatisticsTest {
+
+	/**
+	 * Merged statistics of parts of a stream are the statistics of the whole
+	 * stream
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testRunningStatisticsMerge() {
+		GameRandom random = new GameRandom(1);
+		double[] values = new double[10000];
+		RunningStatistics whole = new RunningStatistics();
+		RunningStatistics[] parts = new RunningStatistics[7];
+		for (int part = 0; part < parts.length; part++) {
+			parts[part] = new RunningStatistics();
+		}
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 1e6 + random.nextInt(1000) / 10.0;
+			whole.add(values[i]);
+			parts[i % parts.length].add(values[i]);
+		}
+		RunningStatistics merged = new RunningStatistics();
+		for (RunningStatistics part : parts) {
+			merged.merge(part);
+		}
+		double mean = Arrays.stream(values).average().getAsDouble();
+		double variance = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum()
+				/ (values.length - 1);
+		for (RunningStatistics statistics : new RunningStatistics[] { whole, merged }) {
+			assertEquals(values.length, statistics.getCount());
+			assertEquals(mean, statistics.getMean(), 1e-6);
+			assertEquals(variance, statistics.getVariance(), 1e-6);
+			assertEquals(Arrays.stream(values).min().getAsDouble(), statistics.getMin(), 0);
+			assertEquals(Arrays.stream(values).max().getAsDouble(), statistics.getMax(), 0);
+		}
+	}
+
+	/**
+	 * Quantiles of a sketch and of merged sketches are within the rank error,
+	 * while the sketch keeps a small part of the values
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testQuantileSketch() {
+		GameRandom random = new GameRandom(2);
+		int count = 200000;
+		double[] values = new double[count];
+		QuantileSketch whole = new QuantileSketch();
+		QuantileSketch[] parts = new QuantileSketch[8];
+		for (int part = 0; part < parts.length; part++) {
+			parts[part] = new QuantileSketch();
+		}
+		for (int i = 0; i < count; i++) {
+			values[i] = random.nextInt(1 << 20);
+			whole.add(values[i]);
+			parts[i % parts.length].add(values[i]);
+		}
+		QuantileSketch merged = new QuantileSketch();
+		for (QuantileSketch part : parts) {
+			merged.merge(part);
+		}
+		Arrays.sort(values);
+		for (QuantileSketch sketch : new QuantileSketch[] { whole, merged }) {
+			assertEquals(count, sketch.getCount());
+			assertTrue(sketch.getRetainedValues() < 1000);
+			assertEquals(values[0], sketch.getQuantile(0), 0);
+			assertEquals(values[count - 1], sketch.getQuantile(1), 0);
+			for (double ratio = 0.05; ratio < 1; ratio += 0.05) {
+				double quantile = sketch.getQuantile(ratio);
+				int rank = Arrays.binarySearch(values, quantile);
+				assertTrue(rank >= 0);
+				assertEquals(ratio, (double) rank / count, 0.02);
+				assertEquals(ratio, sketch.getRank(quantile), 0.02);
+			}
+		}
+	}
+
+	@Test
+	public void testWilsonInterval() {
+		assertEquals(0.09617, WilsonInterval.halfWidth(50, 100), 1e-5);
+		assertEquals(0.5, WilsonInterval.center(50, 100), 1e-12);
+		assertEquals(0, WilsonInterval.lower(0, 10), 1e-12);
+		assertEquals(0.2775, WilsonInterval.upper(0, 10), 1e-4);
+		assertEquals(1, WilsonInterval.upper(10, 10), 1e-12);
+		assertEquals(0, WilsonInterval.lower(0, 0), 0);
+		assertEquals(1, WilsonInterval.upper(0, 0), 0);
+	}
+
+	/**
+	 * Statistics collected by the threads of a run agree with the result of
+	 * the run
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testCollectRun() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		StatisticsCollector collector = new StatisticsCollector();
+		SimulationResult result;
+		try {
+			Simulator simulator = new Simulator(pool);
+			simulator.setMasterSeed(17);
+			simulator.setBatchSize(50);
+			simulator.setGameEventListenerFactory(collector::listener);
+			result = simulator.run(20000);
+		} finally {
+			pool.shutdown();
+		}
+		GameStatistics statistics = collector.getStatistics();
+		assertEquals(result.getGames(), statistics.getGames());
+		assertEquals(result.getWins(0), statistics.getWins(0));
+		assertEquals(result.getWins(1), statistics.getWins(1));
+		assertEquals(result.getMeanGameLength(), statistics.getTurns().getMean(), 1e-9);
+		assertTrue(statistics.getWinRateLower(0) < result.getWinRate(0));
+		assertTrue(statistics.getWinRateUpper(0) > result.getWinRate(0));
+		// a game is at least one turn of each player
+		assertTrue(statistics.getTurns().getMin() >= 2);
+		assertTrue(statistics.getWinnerHealth().getMin() >= 1);
+		assertTrue(statistics.getWinnerHealth().getMax() <= Player.DEFAULT_HEALTH);
+		assertTrue(statistics.getCardsLeft().getMax() <= 2 * Player.getDefaultDeckCosts().length);
+		double median = statistics.getTurnQuantiles().getQuantile(0.5);
+		assertTrue(median >= statistics.getTurns().getMin() && median <= statistics.getTurns().getMax());
+	}
+}
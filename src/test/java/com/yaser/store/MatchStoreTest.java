@@ -0,0 +1,156 @@
+package com.yaser.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.yaser.CardHistogram;
+import com.yaser.GamePlay;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class MatchStoreTest {
+
+	/**
+	 * Matches played turn by turn side by side end exactly as the games of
+	 * {@link GamePlay} with the same seeds
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameGamesAsGamePlay() throws IOException {
+		int matches = 500;
+		try (MatchStore store = new MatchStore(matches)) {
+			for (int game = 0; game < matches; game++) {
+				assertEquals(game, store.create(GameRandom.gameSeed(5, game)));
+			}
+			Match match = store.flyweight();
+			// one turn of every match at a time
+			for (boolean running = true; running;) {
+				running = false;
+				for (int id = 0; id < matches; id++) {
+					if (!match.wrap(id).isFinished()) {
+						running |= match.advance();
+					}
+				}
+			}
+			for (int game = 0; game < matches; game++) {
+				Player first = new Player("Player 1");
+				Player second = new Player("Player 2");
+				GamePlay gamePlay = new GamePlay(first, second, GameRandom.gameSeed(5, game));
+				gamePlay.play();
+				match.wrap(game);
+				assertEquals(gamePlay.getWinner() == first ? 0 : 1, match.getWinnerSeat());
+				assertEquals(gamePlay.getTurnCount(), match.getTurnCount());
+				assertEquals(first.getHealth(), match.getHealth(0));
+				assertEquals(second.getHealth(), match.getHealth(1));
+				assertEquals(first.getHandHistogram(), match.getHand(0));
+				assertEquals(second.getDeckHistogram(), match.getDeck(1));
+				assertEquals(first.getBleedOutCount(), match.getBleedOutCount(0));
+				assertEquals(second.getOverloadCount(), match.getOverloadCount(1));
+				assertEquals(first.getPlayedCardCount(), match.getPlayedCardCount(0));
+				assertEquals(second.getDudCardCount(), match.getDudCardCount(1));
+			}
+		}
+	}
+
+	/**
+	 * A run through a store with reused records has the result of the
+	 * simulator
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testSameResultAsSimulator() throws IOException {
+		Simulator simulator = new Simulator();
+		simulator.setMasterSeed(11);
+		SimulationResult result = new SimulationResult();
+		try (MatchStore store = new MatchStore(16)) {
+			Match match = store.flyweight();
+			for (int game = 0; game < 5000; game++) {
+				int id = store.create(GameRandom.gameSeed(11, game));
+				int winner = match.wrap(id).play();
+				result.record(winner, match.getTurnCount(), match.getBleedOutCount(0) + match.getBleedOutCount(1),
+						match.getOverloadCount(0) + match.getOverloadCount(1));
+				store.release(id);
+			}
+			assertEquals(1, store.getSlabCount());
+			assertEquals(0, store.getLiveCount());
+		}
+		assertEquals(simulator.run(5000), result);
+	}
+
+	/**
+	 * Matches in a mapped file span slabs and keep their state
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testMappedStore() throws IOException {
+		Path file = Files.createTempFile("matches", ".slab");
+		int matches = MatchStore.SLAB_MATCHES + 10;
+		try (MatchStore store = MatchStore.mapped(file, matches)) {
+			for (int game = 0; game < matches; game++) {
+				store.create(game);
+			}
+			assertEquals(2, store.getSlabCount());
+			Match match = store.flyweight().wrap(matches - 1);
+			Player first = new Player();
+			GamePlay gamePlay = new GamePlay(first, new Player(), matches - 1);
+			gamePlay.play();
+			assertEquals(gamePlay.getWinner() == first ? 0 : 1, match.play());
+			assertEquals(gamePlay.getTurnCount(), match.getTurnCount());
+			assertEquals(matches - 1, match.getSeed());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * Released records are reused by new matches, which start from scratch
+	 *
+	 * @author yaser
+	 */
+	@Test
+	public void testReleasedRecordIsReused() throws IOException {
+		try (MatchStore store = new MatchStore(2)) {
+			int first = store.create(1);
+			store.create(2);
+			Match match = store.flyweight();
+			match.wrap(first).play();
+			store.release(first);
+			assertEquals(first, store.create(3));
+			match.wrap(first);
+			assertFalse(match.isFinished());
+			assertEquals(-1, match.getWinnerSeat());
+			assertEquals(0, match.getTurnCount());
+			assertEquals(Player.DEFAULT_HEALTH, match.getHealth(1));
+			assertEquals(Player.STARTING_HAND_SIZE, CardHistogram.size(match.getHand(0)));
+			assertEquals(2, store.getLiveCount());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStoreIsFull() throws IOException {
+		try (MatchStore store = new MatchStore(1)) {
+			store.create(1);
+			store.create(2);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReleasedMatchCanNotBeWrapped() throws IOException {
+		try (MatchStore store = new MatchStore(1)) {
+			int id = store.create(1);
+			store.release(id);
+			store.flyweight().wrap(id);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.yaser.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.Simulator;
+
+public class CompiledStrategyTest {
+	/**
+	 * Plays the cheapest card first while the opponent has 10 or more health,
+	 * the most expensive one otherwise
+	 */
+	private static final Strategy FINISHER = (hand, mana, health, opponentHealth) -> {
+		int mask = CardHistogram.mask(hand) & ((2 << Math.min(mana, 30)) - 1);
+		if (mask == 0 || mana < 0) {
+			return -1;
+		}
+		return opponentHealth < 10 ? 31 - Integer.numberOfLeadingZeros(mask) : Integer.numberOfTrailingZeros(mask);
+	};
+
+	/**
+	 * Compiled strategies select the same card as their source for every
+	 * hand, mana and health, also out of the table
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameDecisions() {
+		Strategy[] sources = { GreedyStrategy.INSTANCE, OptimalSpendStrategy.INSTANCE, FINISHER };
+		Strategy[] compiled = { StrategyCompiler.compile(GreedyStrategy.INSTANCE),
+				StrategyCompiler.compile(OptimalSpendStrategy.INSTANCE, 8, new int[0]),
+				StrategyCompiler.compile(FINISHER, CardHistogram.MAX_COST, new int[] { 10 }) };
+		GameRandom random = new GameRandom(14);
+		for (int i = 0; i < 200000; i++) {
+			int[] costs = new int[random.nextInt(9)];
+			for (int card = 0; card < costs.length; card++) {
+				costs[card] = random.nextInt(i % 2 == 0 ? 9 : CardHistogram.MAX_COST + 1);
+			}
+			long hand = CardHistogram.of(costs);
+			int mana = random.nextInt(13) - 1;
+			int health = random.nextInt(40) - 5;
+			int opponentHealth = random.nextInt(40) - 5;
+			for (int strategy = 0; strategy < sources.length; strategy++) {
+				assertEquals(sources[strategy].selectCard(hand, mana, health, opponentHealth),
+						compiled[strategy].selectCard(hand, mana, health, opponentHealth));
+			}
+		}
+	}
+
+	/**
+	 * Games of compiled strategies are the same as the games of their sources
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameGames() {
+		Strategy compiled = StrategyCompiler.compile(OptimalSpendStrategy.INSTANCE);
+		Simulator source = new Simulator(ForkJoinPool.commonPool(), () -> player(OptimalSpendStrategy.INSTANCE),
+				() -> player(FINISHER));
+		Simulator table = new Simulator(ForkJoinPool.commonPool(), () -> player(compiled),
+				() -> player(StrategyCompiler.compile(FINISHER, 8, new int[] { 10 })));
+		source.setMasterSeed(15);
+		table.setMasterSeed(15);
+		assertEquals(source.run(5000), table.run(5000));
+	}
+
+	/**
+	 * Compiling a compiled strategy compiles its source, tables have one
+	 * decision per hand, mana and health buckets
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testTableSize() {
+		CompiledStrategy compiled = StrategyCompiler.compile(GreedyStrategy.INSTANCE, 8, new int[] { 5, 10 });
+		assertSame(GreedyStrategy.INSTANCE, StrategyCompiler.compile(compiled).getSource());
+		// hands of up to 6 cards of 9 costs, 10 mana values, 3 x 3 health buckets
+		assertEquals(5005 * 10 * 9, compiled.getTableSize());
+	}
+
+	private static Player player(Strategy strategy) {
+		Player player = new Player();
+		player.setStrategy(strategy);
+		return player;
+	}
+}
@@ -0,0 +1,119 @@
+package com.yaser.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.Card;
+import com.yaser.CardHistogram;
+import com.yaser.GameRandom;
+import com.yaser.Player;
+import com.yaser.simulation.SimulationResult;
+import com.yaser.simulation.Simulator;
+
+public class OptimalSpendStrategyTest {
+
+	/**
+	 * Greedy play spends 5 of 7 mana, optimal play spends all of it
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSpendsAllMana() {
+		Player player = new Player("Player 1");
+		Player opponent = new Player("Player 2");
+		player.setStrategy(OptimalSpendStrategy.INSTANCE);
+		player.setPlayerHand(Arrays.asList(new Card(5), new Card(4), new Card(3)));
+		player.setMana(7);
+		while (player.playNextCard(opponent)) {
+		}
+		assertEquals(23, opponent.getHealth());
+		assertEquals(0, player.getMana());
+		assertEquals(1, player.getSizeOfPlayerHand());
+	}
+
+	/**
+	 * Played cards of random hands give the max damage found by trying every
+	 * subset of the hand, and all free cards are played
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testMaxDamageOfRandomHands() {
+		GameRandom random = new GameRandom(3);
+		for (int i = 0; i < 20000; i++) {
+			int[] costs = new int[1 + random.nextInt(6)];
+			for (int card = 0; card < costs.length; card++) {
+				costs[card] = random.nextInt(9);
+			}
+			long hand = CardHistogram.of(costs);
+			int mana = 1 + random.nextInt(10);
+			int damage = 0;
+			for (int left = mana, card = OptimalSpendStrategy.INSTANCE.selectCard(hand, left, 30,
+					30); card > -1; card = OptimalSpendStrategy.INSTANCE.selectCard(hand, left, 30, 30)) {
+				assertTrue(card <= left);
+				assertTrue(CardHistogram.count(hand, card) > 0);
+				damage += card;
+				left -= card;
+				hand = CardHistogram.remove(hand, card);
+			}
+			assertEquals(bestSubset(costs, mana), damage);
+			assertEquals(0, CardHistogram.count(hand, 0));
+		}
+	}
+
+	/**
+	 * Optimal spending wins more often than greedy spending from the same
+	 * seat
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testBeatsGreedy() {
+		Simulator greedy = new Simulator(ForkJoinPool.commonPool());
+		greedy.setMasterSeed(8);
+		Simulator optimal = new Simulator(ForkJoinPool.commonPool(), () -> {
+			Player player = new Player("Player 1");
+			player.setStrategy(OptimalSpendStrategy.INSTANCE);
+			return player;
+		}, () -> new Player("Player 2"));
+		optimal.setMasterSeed(8);
+		SimulationResult greedyResult = greedy.run(20000);
+		SimulationResult optimalResult = optimal.run(20000);
+		assertTrue(optimalResult.getWinRate(0) > greedyResult.getWinRate(0));
+	}
+
+	/**
+	 * A hand with a card of the highest mana cost has its total cost and
+	 * gets a decision
+	 * 
+	 * @author yaser
+	 */
+	@Test(timeout = 10000)
+	public void testHandWithMostExpensiveCard() {
+		long hand = CardHistogram.of(15, 4, 2);
+		assertEquals(21, CardHistogram.totalCost(hand));
+		assertEquals(15, OptimalSpendStrategy.INSTANCE.selectCard(hand, 17, 30, 30));
+		assertEquals(4, OptimalSpendStrategy.INSTANCE.selectCard(hand, 6, 30, 30));
+	}
+
+	private static int bestSubset(int[] costs, int mana) {
+		int best = 0;
+		for (int subset = 0; subset < (1 << costs.length); subset++) {
+			int sum = 0;
+			for (int card = 0; card < costs.length; card++) {
+				if ((subset & (1 << card)) != 0) {
+					sum += costs[card];
+				}
+			}
+			if (sum <= mana) {
+				best = Math.max(best, sum);
+			}
+		}
+		return best;
+	}
+}
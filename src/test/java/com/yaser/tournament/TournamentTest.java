@@ -0,0 +1,117 @@
+package com.yaser.tournament;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.yaser.strategy.GreedyStrategy;
+import com.yaser.strategy.OptimalSpendStrategy;
+
+public class TournamentTest {
+	private static final int[] CHEAP_DECK = { 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 3, 3, 3, 3 };
+
+	private static List<Entrant> entrants() {
+		return Arrays.asList(new Entrant("Greedy", GreedyStrategy.INSTANCE),
+				new Entrant("Optimal", OptimalSpendStrategy.INSTANCE), new Entrant("Cheap", CHEAP_DECK));
+	}
+
+	/**
+	 * Every ordered pairing is played and the entrant with the cheap deck
+	 * comes last in both score and rating
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testRanking() {
+		Tournament tournament = new Tournament(entrants());
+		tournament.setMasterSeed(11);
+		tournament.setConfidenceHalfWidth(0.02);
+		tournament.play();
+		ResultMatrix results = tournament.getResults();
+		for (int first = 0; first < 3; first++) {
+			assertEquals(0, results.getGames(first, first));
+			for (int second = 0; second < 3; second++) {
+				if (first != second) {
+					assertTrue(results.getGames(first, second) >= tournament.getMinGames());
+					assertTrue(results.getGames(first, second) <= tournament.getMaxGames());
+					assertEquals(1, results.getWinRate(first, second) + results.getWinRate(second, first), 1e-9);
+				}
+			}
+		}
+		assertTrue(results.getScore(2) < results.getScore(0));
+		assertTrue(results.getScore(2) < results.getScore(1));
+		RatingTable ratings = tournament.getRatings();
+		assertTrue(ratings.getRating(2) < ratings.getRating(0));
+		assertTrue(ratings.getRating(2) < ratings.getRating(1));
+		assertEquals(3 * RatingTable.INITIAL_RATING,
+				ratings.getRating(0) + ratings.getRating(1) + ratings.getRating(2), 1e-6);
+	}
+
+	/**
+	 * Pairings stop as soon as their interval is narrow enough, others play
+	 * up to the max number of games
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testEarlyStop() {
+		Tournament loose = new Tournament(entrants());
+		loose.setMasterSeed(12);
+		loose.setMinGames(256);
+		loose.setMaxGames(8192);
+		loose.setConfidenceHalfWidth(0.5);
+		loose.play();
+		Tournament never = new Tournament(entrants());
+		never.setMasterSeed(12);
+		never.setMaxGames(8192);
+		never.setConfidenceHalfWidth(0);
+		never.play();
+		for (int first = 0; first < 3; first++) {
+			for (int second = 0; second < 3; second++) {
+				if (first != second) {
+					assertTrue(loose.getResults().getGames(first, second) < 8192);
+					assertEquals(8192, never.getResults().getGames(first, second));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The result matrix only depends on the master seed and the rounds, not
+	 * on the number of threads
+	 * 
+	 * @author yaser
+	 */
+	@Test
+	public void testSameResultsOnAnyPool() {
+		ForkJoinPool single = new ForkJoinPool(1);
+		ForkJoinPool parallel = new ForkJoinPool(4);
+		try {
+			Tournament sequential = new Tournament(single, entrants());
+			Tournament split = new Tournament(parallel, entrants());
+			for (Tournament tournament : Arrays.asList(sequential, split)) {
+				tournament.setMasterSeed(13);
+				tournament.setBatchSize(128);
+				tournament.setBatchesPerRound(4);
+				tournament.setConfidenceHalfWidth(0.03);
+				tournament.play();
+			}
+			for (int first = 0; first < 3; first++) {
+				for (int second = 0; second < 3; second++) {
+					assertEquals(sequential.getResults().getGames(first, second),
+							split.getResults().getGames(first, second));
+					assertEquals(sequential.getResults().getWins(first, second),
+							split.getResults().getWins(first, second));
+				}
+			}
+		} finally {
+			single.shutdown();
+			parallel.shutdown();
+		}
+	}
+}